@@ -0,0 +1,109 @@
+package de.comparus.opensource.longmap.benchmarks;
+
+import de.comparus.opensource.longmap.LongMap;
+import de.comparus.opensource.longmap.LongMapCursor;
+import de.comparus.opensource.longmap.LongObjConsumer;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Baseline adapter that runs the benchmarks against a {@code java.util} map with boxed keys.
+ */
+final class BoxedLongMap<V> implements LongMap<V> {
+    private final Map<Long, V> map;
+
+    BoxedLongMap(Map<Long, V> map) {
+        this.map = map;
+    }
+
+    @Override
+    public V put(long key, V value) {
+        return map.put(key, value);
+    }
+
+    @Override
+    public V get(long key) {
+        return map.get(key);
+    }
+
+    @Override
+    public V remove(long key) {
+        return map.remove(key);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    @Override
+    public boolean containsKey(long key) {
+        return map.containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(V value) {
+        return map.containsValue(value);
+    }
+
+    @Override
+    public long[] keys() {
+        return map.keySet().stream().mapToLong(Long::longValue).toArray();
+    }
+
+    @Override
+    public V[] values() {
+        return (V[]) map.values().toArray();
+    }
+
+    @Override
+    public long size() {
+        return map.size();
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+    }
+
+    @Override
+    public void forEach(LongObjConsumer<? super V> action) {
+        map.forEach(action::accept);
+    }
+
+    @Override
+    public LongMapCursor<V> cursor() {
+        return new LongMapCursor<V>() {
+            private Iterator<Map.Entry<Long, V>> iterator = map.entrySet().iterator();
+            private Map.Entry<Long, V> entry;
+
+            @Override
+            public boolean advance() {
+                entry = iterator.hasNext() ? iterator.next() : null;
+                return entry != null;
+            }
+
+            @Override
+            public long key() {
+                return entry.getKey();
+            }
+
+            @Override
+            public V value() {
+                return entry.getValue();
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+            }
+
+            @Override
+            public void reset() {
+                iterator = map.entrySet().iterator();
+                entry = null;
+            }
+        };
+    }
+}
@@ -0,0 +1,94 @@
+package de.comparus.opensource.longmap.benchmarks;
+
+import de.comparus.opensource.longmap.LongMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a shared map under mixed multithreaded load: a read-heavy group with three readers
+ * per writer, and a balanced group with as many writers as readers. Writers overwrite and remove
+ * keys of the filled range, so the size stays close to constant.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ConcurrentBenchmark {
+
+    @Param({"CONCURRENT", "CONCURRENT_HASH_MAP"})
+    Implementation implementation;
+
+    @Param({"RANDOM"})
+    KeyDistribution distribution;
+
+    @Param({"131072"})
+    int size;
+
+    LongMap<Long> map;
+    long[] keys;
+
+    @Setup
+    public void setUp() {
+        keys = distribution.generate(size, 42);
+        map = implementation.create(0);
+        for (int i = 0; i < size; i++) {
+            map.put(keys[i], keys[i]);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Position {
+        private final SplittableRandom random = new SplittableRandom();
+
+        int next(int size) {
+            return random.nextInt(size);
+        }
+    }
+
+    private Long read(Position position) {
+        return map.get(keys[position.next(size)]);
+    }
+
+    /**
+     * Every eighth key alternates between removal and re-insertion, so the removed share of the
+     * keys stays stable instead of draining over the run.
+     */
+    private Long write(Position position) {
+        long key = keys[position.next(size)];
+        if((key & 7) != 0) return map.put(key, key);
+        Long removed = map.remove(key);
+        return removed == null ? map.put(key, key) : removed;
+    }
+
+    @Benchmark
+    @Group("readHeavy")
+    @GroupThreads(3)
+    public Long readHeavyGet(Position position) {
+        return read(position);
+    }
+
+    @Benchmark
+    @Group("readHeavy")
+    @GroupThreads(1)
+    public Long readHeavyPut(Position position) {
+        return write(position);
+    }
+
+    @Benchmark
+    @Group("balanced")
+    @GroupThreads(2)
+    public Long balancedGet(Position position) {
+        return read(position);
+    }
+
+    @Benchmark
+    @Group("balanced")
+    @GroupThreads(2)
+    public Long balancedPut(Position position) {
+        return write(position);
+    }
+}
@@ -0,0 +1,43 @@
+package de.comparus.opensource.longmap.benchmarks;
+
+import de.comparus.opensource.longmap.LongMap;
+import org.openjdk.jol.info.GraphLayout;
+
+/**
+ * Prints the retained heap bytes per entry of every implementation, measured with JOL over the
+ * whole object graph of a filled map. Values are one shared object, so only the map structure and
+ * the boxing it forces are counted.
+ * <p>
+ * Run with {@code java -cp target/benchmarks.jar de.comparus.opensource.longmap.benchmarks.FootprintReport [sizes...]}.
+ */
+public final class FootprintReport {
+    private static final int[] DEFAULT_SIZES = {1_000, 100_000, 1_000_000};
+    private static final Object VALUE = new Object();
+
+    private FootprintReport() {
+    }
+
+    public static void main(String[] args) {
+        int[] sizes = DEFAULT_SIZES;
+        if(args.length > 0){
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                sizes[i] = Integer.parseInt(args[i]);
+            }
+        }
+        System.out.printf("%-20s %-12s %10s %14s %12s%n", "implementation", "keys", "size", "bytes", "bytes/entry");
+        for (Implementation implementation : Implementation.values()) {
+            for (KeyDistribution distribution : KeyDistribution.values()) {
+                for (int size : sizes) {
+                    long[] keys = distribution.generate(size, 42);
+                    LongMap<Object> map = implementation.create(0);
+                    for (int i = 0; i < size; i++) {
+                        map.put(keys[i], VALUE);
+                    }
+                    long bytes = GraphLayout.parseInstance(map).totalSize() - GraphLayout.parseInstance(VALUE).totalSize();
+                    System.out.printf("%-20s %-12s %10d %14d %12.1f%n", implementation, distribution, size, bytes, (double) bytes / size);
+                }
+            }
+        }
+    }
+}
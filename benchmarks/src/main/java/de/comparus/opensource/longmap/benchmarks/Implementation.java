@@ -0,0 +1,79 @@
+package de.comparus.opensource.longmap.benchmarks;
+
+import de.comparus.opensource.longmap.BTreeLongMap;
+import de.comparus.opensource.longmap.ConcurrentLongMap;
+import de.comparus.opensource.longmap.LongMap;
+import de.comparus.opensource.longmap.LongMapImpl;
+import de.comparus.opensource.longmap.OpenAddressingLongMap;
+import de.comparus.opensource.longmap.SegmentedLongMap;
+import de.comparus.opensource.longmap.SnapshotLongMap;
+import de.comparus.opensource.longmap.SwissTableLongMap;
+
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps under test, selected by name through the JMH {@code implementation} parameter.
+ */
+public enum Implementation {
+    LONG_MAP_IMPL {
+        @Override
+        <V> LongMap<V> create(int expectedSize) {
+            return expectedSize == 0 ? new LongMapImpl<>() : new LongMapImpl<>(expectedSize);
+        }
+    },
+    OPEN_ADDRESSING {
+        @Override
+        <V> LongMap<V> create(int expectedSize) {
+            return expectedSize == 0 ? new OpenAddressingLongMap<>() : new OpenAddressingLongMap<>(expectedSize / 3 * 4 + 1);
+        }
+    },
+    SWISS_TABLE {
+        @Override
+        <V> LongMap<V> create(int expectedSize) {
+            return expectedSize == 0 ? new SwissTableLongMap<>() : new SwissTableLongMap<>(expectedSize);
+        }
+    },
+    SEGMENTED {
+        @Override
+        <V> LongMap<V> create(int expectedSize) {
+            return new SegmentedLongMap<>();
+        }
+    },
+    B_TREE {
+        @Override
+        <V> LongMap<V> create(int expectedSize) {
+            return new BTreeLongMap<>();
+        }
+    },
+    SNAPSHOT {
+        @Override
+        <V> LongMap<V> create(int expectedSize) {
+            return new SnapshotLongMap<>();
+        }
+    },
+    CONCURRENT {
+        @Override
+        <V> LongMap<V> create(int expectedSize) {
+            return new ConcurrentLongMap<>();
+        }
+    },
+    HASH_MAP {
+        @Override
+        <V> LongMap<V> create(int expectedSize) {
+            return new BoxedLongMap<>(expectedSize == 0 ? new HashMap<>() : new HashMap<>(expectedSize / 3 * 4 + 1));
+        }
+    },
+    CONCURRENT_HASH_MAP {
+        @Override
+        <V> LongMap<V> create(int expectedSize) {
+            return new BoxedLongMap<>(expectedSize == 0 ? new ConcurrentHashMap<>() : new ConcurrentHashMap<>(expectedSize));
+        }
+    };
+
+    /**
+     * Creates an empty map sized for {@code expectedSize} entries; {@code 0} keeps the default
+     * capacity, and maps without a capacity hint ignore it.
+     */
+    abstract <V> LongMap<V> create(int expectedSize);
+}
@@ -0,0 +1,62 @@
+package de.comparus.opensource.longmap.benchmarks;
+
+import de.comparus.opensource.longmap.LongMap;
+import de.comparus.opensource.longmap.LongMapCursor;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full scans of a filled map through {@code forEach}, a cursor and the {@code keys()} copy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class IterationBenchmark {
+
+    @Param({"LONG_MAP_IMPL", "OPEN_ADDRESSING", "B_TREE", "SNAPSHOT", "HASH_MAP"})
+    Implementation implementation;
+
+    @Param({"RANDOM"})
+    KeyDistribution distribution;
+
+    @Param({"1024", "131072", "1048576"})
+    int size;
+
+    LongMap<Long> map;
+
+    @Setup
+    public void setUp() {
+        long[] keys = distribution.generate(size, 42);
+        map = implementation.create(0);
+        for (int i = 0; i < size; i++) {
+            map.put(keys[i], keys[i]);
+        }
+    }
+
+    @Benchmark
+    public long forEachSum() {
+        long[] sum = {0};
+        map.forEach((key, value) -> sum[0] += key);
+        return sum[0];
+    }
+
+    @Benchmark
+    public long cursorSum() {
+        long sum = 0;
+        LongMapCursor<Long> cursor = map.cursor();
+        while (cursor.advance()) {
+            sum += cursor.key();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public void keysCopy(Blackhole blackhole) {
+        blackhole.consume(map.keys());
+    }
+}
@@ -0,0 +1,70 @@
+package de.comparus.opensource.longmap.benchmarks;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Key sets the benchmarks run on. {@link #generate(int, long)} returns {@code count} distinct keys
+ * to insert followed by {@code count} distinct keys that stay absent, drawn from the same shape so
+ * that misses probe the same regions of the table as hits.
+ */
+public enum KeyDistribution {
+    /**
+     * Consecutive ids; the absent keys continue the sequence.
+     */
+    SEQUENTIAL {
+        @Override
+        void fill(long[] keys, int count, SplittableRandom random) {
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = i;
+            }
+        }
+    },
+    /**
+     * Uniformly random 64-bit keys.
+     */
+    RANDOM {
+        @Override
+        void fill(long[] keys, int count, SplittableRandom random) {
+            Set<Long> seen = new HashSet<>(keys.length * 2);
+            for (int i = 0; i < keys.length; i++) {
+                long key;
+                do {
+                    key = random.nextLong();
+                } while (!seen.add(key));
+                keys[i] = key;
+            }
+        }
+    },
+    /**
+     * Runs of 32 consecutive keys at random multiples of 2^20, like ids allocated in blocks; the
+     * absent keys are the next 32 of every run.
+     */
+    CLUSTERED {
+        @Override
+        void fill(long[] keys, int count, SplittableRandom random) {
+            Set<Long> bases = new HashSet<>();
+            long base = 0;
+            for (int i = 0; i < count; i++) {
+                if(i % RUN_LENGTH == 0){
+                    do {
+                        base = random.nextLong() << 20;
+                    } while (!bases.add(base));
+                }
+                keys[i] = base + i % RUN_LENGTH;
+                keys[count + i] = base + RUN_LENGTH + i % RUN_LENGTH;
+            }
+        }
+    };
+
+    private static final int RUN_LENGTH = 32;
+
+    abstract void fill(long[] keys, int count, SplittableRandom random);
+
+    public long[] generate(int count, long seed) {
+        long[] keys = new long[count * 2];
+        fill(keys, count, new SplittableRandom(seed));
+        return keys;
+    }
+}
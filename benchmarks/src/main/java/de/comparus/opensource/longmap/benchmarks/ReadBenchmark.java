@@ -0,0 +1,82 @@
+package de.comparus.opensource.longmap.benchmarks;
+
+import de.comparus.opensource.longmap.LongMap;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup latency on a filled map: hits, misses and {@code containsKey}. Each invocation looks up
+ * the next batch of keys in insertion order, wrapping around the power-of-two key array, and the
+ * reported time is per lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ReadBenchmark {
+    static final int BATCH = 1024;
+
+    @Param({"LONG_MAP_IMPL", "OPEN_ADDRESSING", "SWISS_TABLE", "B_TREE", "HASH_MAP"})
+    Implementation implementation;
+
+    @Param({"SEQUENTIAL", "RANDOM", "CLUSTERED"})
+    KeyDistribution distribution;
+
+    @Param({"1024", "131072", "1048576"})
+    int size;
+
+    LongMap<Long> map;
+    long[] hits;
+    long[] misses;
+    int position;
+
+    @Setup
+    public void setUp() {
+        long[] keys = distribution.generate(size, 42);
+        hits = new long[size];
+        misses = new long[size];
+        System.arraycopy(keys, 0, hits, 0, size);
+        System.arraycopy(keys, size, misses, 0, size);
+        map = implementation.create(0);
+        for (long key : hits) {
+            map.put(key, key);
+        }
+    }
+
+    private int nextBatch() {
+        int start = position;
+        position = (start + BATCH) & (size - 1);
+        return start;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void getHit(Blackhole blackhole) {
+        int start = nextBatch();
+        for (int i = 0; i < BATCH; i++) {
+            blackhole.consume(map.get(hits[(start + i) & (size - 1)]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void getMiss(Blackhole blackhole) {
+        int start = nextBatch();
+        for (int i = 0; i < BATCH; i++) {
+            blackhole.consume(map.get(misses[(start + i) & (size - 1)]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void containsKey(Blackhole blackhole) {
+        int start = nextBatch();
+        for (int i = 0; i < BATCH; i++) {
+            blackhole.consume(map.containsKey(hits[(start + i) & (size - 1)]));
+        }
+    }
+}
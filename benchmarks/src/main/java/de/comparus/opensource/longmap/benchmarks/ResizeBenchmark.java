@@ -0,0 +1,52 @@
+package de.comparus.opensource.longmap.benchmarks;
+
+import de.comparus.opensource.longmap.LongMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to fill an empty map with {@code size} keys, once from the default capacity so that every
+ * resize is paid for, and once presized for the expected entries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ResizeBenchmark {
+
+    @Param({"LONG_MAP_IMPL", "OPEN_ADDRESSING", "B_TREE", "SNAPSHOT", "HASH_MAP"})
+    Implementation implementation;
+
+    @Param({"SEQUENTIAL", "RANDOM", "CLUSTERED"})
+    KeyDistribution distribution;
+
+    @Param({"1024", "131072", "1048576"})
+    int size;
+
+    long[] keys;
+
+    @Setup
+    public void setUp() {
+        keys = distribution.generate(size, 42);
+    }
+
+    private LongMap<Long> fill(LongMap<Long> map) {
+        for (int i = 0; i < size; i++) {
+            map.put(keys[i], keys[i]);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public LongMap<Long> fillFromDefaultCapacity() {
+        return fill(implementation.create(0));
+    }
+
+    @Benchmark
+    public LongMap<Long> fillPresized() {
+        return fill(implementation.create(size));
+    }
+}
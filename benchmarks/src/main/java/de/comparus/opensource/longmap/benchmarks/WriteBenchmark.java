@@ -0,0 +1,70 @@
+package de.comparus.opensource.longmap.benchmarks;
+
+import de.comparus.opensource.longmap.LongMap;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write latency on a filled map of constant size: overwriting present keys, and removing a key
+ * and putting it back. The reported time is per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class WriteBenchmark {
+    static final int BATCH = 1024;
+
+    @Param({"LONG_MAP_IMPL", "OPEN_ADDRESSING", "SWISS_TABLE", "B_TREE", "SNAPSHOT", "HASH_MAP"})
+    Implementation implementation;
+
+    @Param({"SEQUENTIAL", "RANDOM", "CLUSTERED"})
+    KeyDistribution distribution;
+
+    @Param({"1024", "131072", "1048576"})
+    int size;
+
+    LongMap<Long> map;
+    long[] keys;
+    int position;
+
+    @Setup
+    public void setUp() {
+        keys = distribution.generate(size, 42);
+        map = implementation.create(0);
+        for (int i = 0; i < size; i++) {
+            map.put(keys[i], keys[i]);
+        }
+    }
+
+    private int nextBatch() {
+        int start = position;
+        position = (start + BATCH) & (size - 1);
+        return start;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void putOverwrite(Blackhole blackhole) {
+        int start = nextBatch();
+        for (int i = 0; i < BATCH; i++) {
+            long key = keys[(start + i) & (size - 1)];
+            blackhole.consume(map.put(key, key));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(2 * BATCH)
+    public void removeAndPut(Blackhole blackhole) {
+        int start = nextBatch();
+        for (int i = 0; i < BATCH; i++) {
+            long key = keys[(start + i) & (size - 1)];
+            blackhole.consume(map.remove(key));
+            blackhole.consume(map.put(key, key));
+        }
+    }
+}
@@ -0,0 +1,429 @@
+package de.comparus.opensource.longmap;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Linear-probing table stored in {@link ByteBuffer} pages instead of Java arrays. A slot is the
+ * key followed by the codec-encoded value, padded to eight bytes; key {@code 0} marks a free slot
+ * and its value is kept on the heap. Subclasses decide where the pages live.
+ */
+abstract class AbstractBufferLongMap<V> implements LongMap<V>, AutoCloseable {
+    static final long DEFAULT_CAPACITY = 16;
+    static final long MAXIMUM_CAPACITY = 1L << 40;
+    static final int MAXIMUM_PAGE_BYTES = 1 << 30;
+    static final float LOAD_FACTOR = 0.75f;
+    static final long FREE_KEY = 0L;
+    final LongMapValueCodec<V> codec;
+    final LongHashStrategy hashStrategy;
+    final int slotSize;
+    ByteBuffer[] pages;
+    long capacity;
+    long size;
+    boolean hasFreeKey;
+    V freeKeyValue;
+    private long mask;
+    private int shift;
+    private int pageShift;
+    private long pageMask;
+    private long threshold;
+    private boolean closed;
+
+    AbstractBufferLongMap(LongMapValueCodec<V> codec, LongHashStrategy hashStrategy) {
+        this.codec = Objects.requireNonNull(codec);
+        this.hashStrategy = Objects.requireNonNull(hashStrategy);
+        this.slotSize = Long.BYTES + ((codec.width() + 7) & ~7);
+    }
+
+    static long capacityFor(long capacity) {
+        if(capacity <= 0){
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        if(capacity >= MAXIMUM_CAPACITY) return MAXIMUM_CAPACITY;
+        long tableSize = Long.highestOneBit(Math.max(capacity, 2));
+        return tableSize < capacity ? tableSize << 1 : tableSize;
+    }
+
+    final int pageSlots(long capacity) {
+        return (int) Math.min(capacity, Integer.highestOneBit(MAXIMUM_PAGE_BYTES / slotSize));
+    }
+
+    final int pageCount(long capacity) {
+        return (int) (capacity / pageSlots(capacity));
+    }
+
+    final long tableBytes(long capacity) {
+        return capacity * slotSize;
+    }
+
+    abstract ByteBuffer[] allocateTable(long capacity);
+
+    abstract void releaseTable(ByteBuffer[] pages);
+
+    void commitTable() {
+    }
+
+    final void initTable(long capacity, ByteBuffer[] pages) {
+        this.pages = pages;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.shift = Long.numberOfLeadingZeros(capacity - 1);
+        int pageSlots = pageSlots(capacity);
+        this.pageShift = Integer.numberOfTrailingZeros(pageSlots);
+        this.pageMask = pageSlots - 1;
+        this.threshold = capacity == MAXIMUM_CAPACITY ? capacity - 1 : (long) (capacity * (double) LOAD_FACTOR);
+    }
+
+    private ByteBuffer page(long index) {
+        return pages[(int) (index >>> pageShift)];
+    }
+
+    private int offset(long index) {
+        return (int) (index & pageMask) * slotSize;
+    }
+
+    final long keyAt(long index) {
+        return page(index).getLong(offset(index));
+    }
+
+    final V valueAt(long index) {
+        return codec.read(page(index), offset(index) + Long.BYTES);
+    }
+
+    private void writeSlot(long index, long key, V value) {
+        ByteBuffer page = page(index);
+        int offset = offset(index);
+        codec.write(page, offset + Long.BYTES, value);
+        page.putLong(offset, key);
+    }
+
+    private void copySlot(long from, long to) {
+        ByteBuffer source = page(from);
+        ByteBuffer target = page(to);
+        int sourceOffset = offset(from);
+        int targetOffset = offset(to);
+        for (int i = 0; i < slotSize; i += Long.BYTES) {
+            target.putLong(targetOffset + i, source.getLong(sourceOffset + i));
+        }
+    }
+
+    private void clearSlot(long index) {
+        ByteBuffer page = page(index);
+        int offset = offset(index);
+        for (int i = 0; i < slotSize; i += Long.BYTES) {
+            page.putLong(offset + i, 0L);
+        }
+    }
+
+    private long indexOf(long key) {
+        return hashStrategy.hash(key) >>> shift;
+    }
+
+    private long findSlot(long key) {
+        long index = indexOf(key);
+        long current;
+        while ((current = keyAt(index)) != FREE_KEY) {
+            if(current == key) return index;
+            index = (index + 1) & mask;
+        }
+        return -(index + 1);
+    }
+
+    final void ensureOpen() {
+        if(closed){
+            throw new IllegalStateException("LongMap is closed");
+        }
+    }
+
+    @Override
+    public V put(long key, V value) {
+        ensureOpen();
+        Objects.requireNonNull(value);
+        if(key == FREE_KEY){
+            V previousValue = freeKeyValue;
+            if(!hasFreeKey){
+                hasFreeKey = true;
+                size++;
+            }
+            freeKeyValue = value;
+            return previousValue;
+        }
+        long slot = findSlot(key);
+        if(slot >= 0){
+            V previousValue = valueAt(slot);
+            codec.write(page(slot), offset(slot) + Long.BYTES, value);
+            return previousValue;
+        }
+        if(tableEntries() >= threshold){
+            rehash();
+            slot = findSlot(key);
+        }
+        writeSlot(-slot - 1, key, value);
+        size++;
+        return null;
+    }
+
+    private long tableEntries() {
+        return hasFreeKey ? size - 1 : size;
+    }
+
+    private void rehash() {
+        if(capacity == MAXIMUM_CAPACITY){
+            throw new IllegalStateException("LongMap reached its maximum capacity");
+        }
+        ByteBuffer[] oldPages = pages;
+        long oldCapacity = capacity;
+        int oldPageShift = pageShift;
+        long oldPageMask = pageMask;
+        long newCapacity = oldCapacity << 1;
+        initTable(newCapacity, allocateTable(newCapacity));
+        for (long i = 0; i < oldCapacity; i++) {
+            ByteBuffer source = oldPages[(int) (i >>> oldPageShift)];
+            int sourceOffset = (int) (i & oldPageMask) * slotSize;
+            long key = source.getLong(sourceOffset);
+            if(key == FREE_KEY) continue;
+            long index = indexOf(key);
+            while (keyAt(index) != FREE_KEY) {
+                index = (index + 1) & mask;
+            }
+            ByteBuffer target = page(index);
+            int targetOffset = offset(index);
+            for (int j = 0; j < slotSize; j += Long.BYTES) {
+                target.putLong(targetOffset + j, source.getLong(sourceOffset + j));
+            }
+        }
+        releaseTable(oldPages);
+        commitTable();
+    }
+
+    @Override
+    public V get(long key) {
+        ensureOpen();
+        if(key == FREE_KEY) return freeKeyValue;
+        long slot = findSlot(key);
+        return slot >= 0 ? valueAt(slot) : null;
+    }
+
+    @Override
+    public V remove(long key) {
+        ensureOpen();
+        if(key == FREE_KEY){
+            if(!hasFreeKey) return null;
+            V previousValue = freeKeyValue;
+            hasFreeKey = false;
+            freeKeyValue = null;
+            size--;
+            return previousValue;
+        }
+        long slot = findSlot(key);
+        if(slot < 0) return null;
+        V previousValue = valueAt(slot);
+        shiftKeys(slot);
+        size--;
+        return previousValue;
+    }
+
+    private void shiftKeys(long position) {
+        long last;
+        long key;
+        while (true) {
+            position = ((last = position) + 1) & mask;
+            while (true) {
+                if((key = keyAt(position)) == FREE_KEY){
+                    clearSlot(last);
+                    return;
+                }
+                long home = indexOf(key);
+                if(last <= position ? last >= home || home > position : last >= home && home > position) break;
+                position = (position + 1) & mask;
+            }
+            copySlot(position, last);
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(long key) {
+        ensureOpen();
+        if(key == FREE_KEY) return hasFreeKey;
+        return findSlot(key) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(V value) {
+        ensureOpen();
+        if(value == null) return false;
+        if(hasFreeKey && value.equals(freeKeyValue)) return true;
+        for (long i = 0; i < capacity; i++) {
+            if(keyAt(i) != FREE_KEY && value.equals(valueAt(i))) return true;
+        }
+        return false;
+    }
+
+    private int arrayLength() {
+        if(size > Integer.MAX_VALUE - 8){
+            throw new IllegalStateException("LongMap is too large to be copied into an array: " + size);
+        }
+        return (int) size;
+    }
+
+    @Override
+    public long[] keys() {
+        ensureOpen();
+        long[] result = new long[arrayLength()];
+        int position = 0;
+        if(hasFreeKey) result[position++] = FREE_KEY;
+        for (long i = 0; i < capacity; i++) {
+            long key = keyAt(i);
+            if(key != FREE_KEY) result[position++] = key;
+        }
+        return result;
+    }
+
+    @Override
+    public V[] values() {
+        ensureOpen();
+        Object[] result = new Object[arrayLength()];
+        int position = 0;
+        if(hasFreeKey) result[position++] = freeKeyValue;
+        for (long i = 0; i < capacity; i++) {
+            if(keyAt(i) != FREE_KEY) result[position++] = valueAt(i);
+        }
+        return LongMapArrays.toTypedArray(result, position);
+    }
+
+    @Override
+    public void forEach(LongObjConsumer<? super V> action) {
+        ensureOpen();
+        Objects.requireNonNull(action);
+        if(hasFreeKey) action.accept(FREE_KEY, freeKeyValue);
+        for (long i = 0; i < capacity; i++) {
+            long key = keyAt(i);
+            if(key != FREE_KEY) action.accept(key, valueAt(i));
+        }
+    }
+
+    @Override
+    public LongMapCursor<V> cursor() {
+        ensureOpen();
+        return new Cursor();
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        ensureOpen();
+        for (ByteBuffer page : pages) {
+            for (int offset = 0; offset < page.capacity(); offset += Long.BYTES) {
+                page.putLong(offset, 0L);
+            }
+        }
+        hasFreeKey = false;
+        freeKeyValue = null;
+        size = 0;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void close() {
+        if(!closed){
+            closed = true;
+            releaseTable(pages);
+            pages = null;
+        }
+    }
+
+    /**
+     * Starts right after a free slot, so that backward-shift deletion on {@link #remove()} never
+     * moves an entry from the part of the table already walked into the part still ahead.
+     */
+    private class Cursor implements LongMapCursor<V> {
+        private static final long FREE_KEY_SLOT = -1;
+        private long start;
+        private long next;
+        private long slot;
+        private boolean freeKeyVisited;
+        private boolean positioned;
+
+        private Cursor() {
+            reset();
+        }
+
+        @Override
+        public void reset() {
+            ensureOpen();
+            start = 0;
+            while (keyAt(start) != FREE_KEY) {
+                start++;
+            }
+            next = 1;
+            freeKeyVisited = false;
+            positioned = false;
+        }
+
+        @Override
+        public boolean advance() {
+            ensureOpen();
+            positioned = false;
+            if(!freeKeyVisited){
+                freeKeyVisited = true;
+                if(hasFreeKey){
+                    slot = FREE_KEY_SLOT;
+                    return positioned = true;
+                }
+            }
+            while (next < capacity) {
+                long index = (start + next++) & mask;
+                if(keyAt(index) != FREE_KEY){
+                    slot = index;
+                    return positioned = true;
+                }
+            }
+            return false;
+        }
+
+        private void checkPositioned() {
+            ensureOpen();
+            if(!positioned){
+                throw new IllegalStateException("Cursor is not positioned on an entry");
+            }
+        }
+
+        @Override
+        public long key() {
+            checkPositioned();
+            return slot == FREE_KEY_SLOT ? FREE_KEY : keyAt(slot);
+        }
+
+        @Override
+        public V value() {
+            checkPositioned();
+            return slot == FREE_KEY_SLOT ? freeKeyValue : valueAt(slot);
+        }
+
+        @Override
+        public void remove() {
+            checkPositioned();
+            positioned = false;
+            if(slot == FREE_KEY_SLOT){
+                hasFreeKey = false;
+                freeKeyValue = null;
+            } else {
+                shiftKeys(slot);
+                next--;
+            }
+            size--;
+        }
+    }
+}
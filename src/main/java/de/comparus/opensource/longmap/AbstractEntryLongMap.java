@@ -0,0 +1,249 @@
+package de.comparus.opensource.longmap;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Engine for maps that keep their entries in dense arrays indexed by an entry id, while the hash
+ * table slots only hold ids. Entries stay in place when the table shifts or rehashes, so
+ * subclasses can thread their own lists through {@link #previous} and {@link #next} and keep
+ * further per-entry state in arrays grown by {@link #resizeEntries(int)}, which runs from this
+ * constructor: such arrays must not have field initializers.
+ */
+abstract class AbstractEntryLongMap<V> extends AbstractLongHashTable implements LongMap<V> {
+    static final int NONE = -1;
+    static final int INITIAL_ENTRIES = 16;
+    private int[] entryOf;
+    private int[] oldEntryOf;
+    int freeKeyEntry;
+    long[] entryKeys;
+    Object[] entryValues;
+    int[] previous;
+    int[] next;
+    private int freeEntries;
+    private int usedEntries;
+
+    AbstractEntryLongMap(LongHashStrategy hashStrategy) {
+        super(DEFAULT_CAPACITY, MAXIMUM_CAPACITY, hashStrategy);
+        freeKeyEntry = NONE;
+        allocateEntries();
+    }
+
+    static int[] resize(int[] array, int capacity) {
+        return array == null ? new int[capacity] : Arrays.copyOf(array, capacity);
+    }
+
+    static long[] resize(long[] array, int capacity) {
+        return array == null ? new long[capacity] : Arrays.copyOf(array, capacity);
+    }
+
+    static byte[] resize(byte[] array, int capacity) {
+        return array == null ? new byte[capacity] : Arrays.copyOf(array, capacity);
+    }
+
+    abstract void resizeEntries(int capacity);
+
+    /**
+     * Unlinks the entry from the subclass lists and releases it; the key is already out of the table.
+     */
+    abstract void discardEntry(int entry);
+
+    @Override
+    final void allocateValues(int capacity) {
+        entryOf = new int[capacity];
+    }
+
+    @Override
+    final void moveValue(int from, int to) {
+        entryOf[to] = entryOf[from];
+    }
+
+    @Override
+    final void clearValue(int index) {
+        entryOf[index] = 0;
+    }
+
+    @Override
+    final void beginRehash(int newCapacity) {
+        oldEntryOf = entryOf;
+        entryOf = new int[newCapacity];
+    }
+
+    @Override
+    final void rehashValue(int from, int to) {
+        entryOf[to] = oldEntryOf[from];
+    }
+
+    @Override
+    final void endRehash() {
+        oldEntryOf = null;
+    }
+
+    @Override
+    final void clearFreeKeyValue() {
+        freeKeyEntry = NONE;
+    }
+
+    private void allocateEntries() {
+        entryKeys = new long[INITIAL_ENTRIES];
+        entryValues = new Object[INITIAL_ENTRIES];
+        previous = new int[INITIAL_ENTRIES];
+        next = new int[INITIAL_ENTRIES];
+        resizeEntries(INITIAL_ENTRIES);
+        freeEntries = NONE;
+        usedEntries = 0;
+    }
+
+    private void growEntries() {
+        if(entryKeys.length == MAXIMUM_CAPACITY){
+            throw new IllegalStateException("LongMap reached its maximum capacity");
+        }
+        int capacity = entryKeys.length << 1;
+        entryKeys = Arrays.copyOf(entryKeys, capacity);
+        entryValues = Arrays.copyOf(entryValues, capacity);
+        previous = Arrays.copyOf(previous, capacity);
+        next = Arrays.copyOf(next, capacity);
+        resizeEntries(capacity);
+    }
+
+    final int newEntry(long key, V value) {
+        int entry;
+        if(freeEntries != NONE){
+            entry = freeEntries;
+            freeEntries = next[entry];
+        } else {
+            if(usedEntries == entryKeys.length) growEntries();
+            entry = usedEntries++;
+        }
+        entryKeys[entry] = key;
+        entryValues[entry] = value;
+        return entry;
+    }
+
+    final void releaseEntry(int entry) {
+        entryValues[entry] = null;
+        next[entry] = freeEntries;
+        freeEntries = entry;
+    }
+
+    final int entryFor(long key) {
+        if(key == FREE_KEY) return hasFreeKey ? freeKeyEntry : NONE;
+        int slot = findSlot(key);
+        return slot >= 0 ? entryOf[slot] : NONE;
+    }
+
+    /**
+     * Adds the key of a new entry to the table; the key must be absent.
+     */
+    final void insertEntry(int entry) {
+        long key = entryKeys[entry];
+        if(key == FREE_KEY){
+            addFreeKey();
+            freeKeyEntry = entry;
+        } else {
+            int index = insertKey(key, findSlot(key));
+            entryOf[index] = entry;
+        }
+    }
+
+    /**
+     * Removes {@code key} from the table and returns the id of its entry, which the caller still
+     * has to discard, or {@link #NONE} when the key is absent.
+     */
+    final int detachKey(long key) {
+        int entry;
+        if(key == FREE_KEY){
+            if(!hasFreeKey) return NONE;
+            entry = freeKeyEntry;
+            removeFreeKey();
+        } else {
+            int slot = findSlot(key);
+            if(slot < 0) return NONE;
+            entry = entryOf[slot];
+            removeAt(slot);
+        }
+        return entry;
+    }
+
+    final V valueOf(int entry) {
+        return (V) entryValues[entry];
+    }
+
+    @Override
+    public V remove(long key) {
+        int entry = detachKey(key);
+        if(entry == NONE) return null;
+        V previousValue = valueOf(entry);
+        discardEntry(entry);
+        return previousValue;
+    }
+
+    @Override
+    public boolean containsValue(V value) {
+        if(hasFreeKey && Objects.equals(entryValues[freeKeyEntry], value)) return true;
+        for (int i = 0; i < keys.length; i++) {
+            if(keys[i] != FREE_KEY && Objects.equals(entryValues[entryOf[i]], value)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public long[] keys() {
+        return collectKeys();
+    }
+
+    @Override
+    public V[] values() {
+        Object[] result = new Object[arrayLength()];
+        int position = 0;
+        if(hasFreeKey) result[position++] = entryValues[freeKeyEntry];
+        for (int i = 0; i < keys.length; i++) {
+            if(keys[i] != FREE_KEY) result[position++] = entryValues[entryOf[i]];
+        }
+        return LongMapArrays.toTypedArray(result, position);
+    }
+
+    @Override
+    public void forEach(LongObjConsumer<? super V> action) {
+        if(hasFreeKey) action.accept(FREE_KEY, valueOf(freeKeyEntry));
+        long[] keys = this.keys;
+        for (int i = 0; i < keys.length; i++) {
+            if(keys[i] != FREE_KEY) action.accept(keys[i], valueOf(entryOf[i]));
+        }
+    }
+
+    @Override
+    public LongMapCursor<V> cursor() {
+        return new Cursor();
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        allocateEntries();
+    }
+
+    private class Cursor extends TableCursor implements LongMapCursor<V> {
+        private Cursor() {
+            super(AbstractEntryLongMap.this);
+        }
+
+        private int entry() {
+            return slot == FREE_KEY_SLOT ? freeKeyEntry : entryOf[slot];
+        }
+
+        @Override
+        public V value() {
+            checkPositioned();
+            return valueOf(entry());
+        }
+
+        @Override
+        public void remove() {
+            checkPositioned();
+            int entry = entry();
+            super.remove();
+            discardEntry(entry);
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package de.comparus.opensource.longmap;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Open-addressing engine shared by the array-backed maps: a power-of-two {@code long[]} of keys
+ * probed linearly from the top bits of the hash, with backward-shift deletion. Key {@code 0}
+ * marks a free slot, so subclasses keep its value in a dedicated field. Subclasses own the
+ * parallel value array and follow the slot moves reported through the value hooks.
+ */
+abstract class AbstractLongHashTable {
+    static final int DEFAULT_CAPACITY = 16;
+    static final int MAXIMUM_CAPACITY = 1 << 30;
+    static final float LOAD_FACTOR = 0.75f;
+    static final long FREE_KEY = 0L;
+    final LongHashStrategy hashStrategy;
+    private final int maximumCapacity;
+    long[] keys;
+    boolean hasFreeKey;
+    long size;
+    private int mask;
+    private int shift;
+    private int threshold;
+
+    AbstractLongHashTable(int initialCapacity, int maximumCapacity, LongHashStrategy hashStrategy) {
+        if(initialCapacity <= 0){
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.hashStrategy = Objects.requireNonNull(hashStrategy);
+        this.maximumCapacity = tableSizeFor(maximumCapacity);
+        int capacity = Math.min(tableSizeFor(initialCapacity), this.maximumCapacity);
+        allocateKeys(capacity);
+        allocateValues(capacity);
+    }
+
+    static int tableSizeFor(int capacity) {
+        if(capacity >= MAXIMUM_CAPACITY) return MAXIMUM_CAPACITY;
+        int tableSize = Integer.highestOneBit(Math.max(capacity, 2));
+        return tableSize < capacity ? tableSize << 1 : tableSize;
+    }
+
+    abstract void allocateValues(int capacity);
+
+    abstract void moveValue(int from, int to);
+
+    abstract void clearValue(int index);
+
+    abstract void beginRehash(int newCapacity);
+
+    abstract void rehashValue(int from, int to);
+
+    abstract void endRehash();
+
+    abstract void clearFreeKeyValue();
+
+    private void allocateKeys(int capacity) {
+        useKeys(new long[capacity]);
+    }
+
+    private void useKeys(long[] keys) {
+        int capacity = keys.length;
+        this.keys = keys;
+        mask = capacity - 1;
+        shift = LongHashStrategy.shiftFor(capacity);
+        threshold = thresholdFor(capacity);
+    }
+
+    private static int thresholdFor(int capacity) {
+        return capacity == MAXIMUM_CAPACITY ? capacity - 1 : (int) (capacity * LOAD_FACTOR);
+    }
+
+    final int indexOf(long key) {
+        return (int) (hashStrategy.hash(key) >>> shift);
+    }
+
+    final int nextIndex(int index) {
+        return (index + 1) & mask;
+    }
+
+    final int findSlot(long key) {
+        int index = indexOf(key);
+        long current;
+        while ((current = keys[index]) != FREE_KEY) {
+            if(current == key) return index;
+            index = (index + 1) & mask;
+        }
+        return -(index + 1);
+    }
+
+    final int insertKey(long key, int slot) {
+        if(tableEntries() >= threshold){
+            rehash();
+            slot = findSlot(key);
+        }
+        int index = -slot - 1;
+        keys[index] = key;
+        size++;
+        return index;
+    }
+
+    final long tableEntries() {
+        return hasFreeKey ? size - 1 : size;
+    }
+
+    final boolean canAcceptNewKey() {
+        return keys.length < maximumCapacity || tableEntries() < threshold;
+    }
+
+    /**
+     * Grows the table once so that {@code expectedEntries} slot entries fit without further
+     * rehashing, as far as the maximum capacity allows.
+     */
+    final void ensureCapacity(long expectedEntries) {
+        int capacity = keys.length;
+        while (capacity < maximumCapacity && expectedEntries > thresholdFor(capacity)) {
+            capacity <<= 1;
+        }
+        if(capacity != keys.length){
+            rehash(capacity);
+        }
+    }
+
+    private void rehash() {
+        if(keys.length == maximumCapacity){
+            throw new IllegalStateException("LongMap reached its maximum capacity");
+        }
+        rehash(keys.length << 1);
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        beginRehash(newCapacity);
+        allocateKeys(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if(key == FREE_KEY) continue;
+            int index = indexOf(key);
+            while (keys[index] != FREE_KEY) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = key;
+            rehashValue(i, index);
+        }
+        endRehash();
+    }
+
+    final void installKeys(long[] keys, long size, boolean hasFreeKey) {
+        if(keys.length != tableSizeFor(keys.length) || keys.length > maximumCapacity){
+            throw new IllegalArgumentException("Table capacity must be a power of two within the maximum: " + keys.length);
+        }
+        useKeys(keys);
+        this.size = size;
+        this.hasFreeKey = hasFreeKey;
+    }
+
+    final int capacity() {
+        return keys.length;
+    }
+
+    final void addFreeKey() {
+        if(!hasFreeKey){
+            hasFreeKey = true;
+            size++;
+        }
+    }
+
+    final void removeFreeKey() {
+        hasFreeKey = false;
+        clearFreeKeyValue();
+        size--;
+    }
+
+    final void removeAt(int slot) {
+        shiftKeys(slot);
+        size--;
+    }
+
+    private void shiftKeys(int position) {
+        int last;
+        long key;
+        while (true) {
+            position = ((last = position) + 1) & mask;
+            while (true) {
+                if((key = keys[position]) == FREE_KEY){
+                    keys[last] = FREE_KEY;
+                    clearValue(last);
+                    return;
+                }
+                int home = indexOf(key);
+                if(last <= position ? last >= home || home > position : last >= home && home > position) break;
+                position = (position + 1) & mask;
+            }
+            keys[last] = key;
+            moveValue(position, last);
+        }
+    }
+
+    final int arrayLength() {
+        if(size > Integer.MAX_VALUE - 8){
+            throw new IllegalStateException("LongMap is too large to be copied into an array: " + size);
+        }
+        return (int) size;
+    }
+
+    final long[] collectKeys() {
+        long[] result = new long[arrayLength()];
+        int position = 0;
+        if(hasFreeKey) result[position++] = FREE_KEY;
+        for (long key : keys) {
+            if(key != FREE_KEY) result[position++] = key;
+        }
+        return result;
+    }
+
+    private int firstFreeSlot() {
+        int index = 0;
+        while (keys[index] != FREE_KEY) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Walks the slots once around the table starting right after a free slot. Backward-shift
+     * deletion never moves an entry across a free slot, so after {@link #remove()} re-examining
+     * the current slot is enough to visit every remaining entry exactly once. {@link #point} moves
+     * the cursor to another table, so one instance can walk many tables.
+     */
+    static class TableCursor {
+        static final int FREE_KEY_SLOT = -1;
+        AbstractLongHashTable table;
+        int slot;
+        private int start;
+        private int next;
+        private boolean freeKeyVisited;
+        private boolean positioned;
+
+        TableCursor(AbstractLongHashTable table) {
+            point(table);
+        }
+
+        final void point(AbstractLongHashTable table) {
+            this.table = table;
+            reset();
+        }
+
+        public void reset() {
+            start = table.firstFreeSlot();
+            next = 1;
+            freeKeyVisited = false;
+            positioned = false;
+        }
+
+        public boolean advance() {
+            positioned = false;
+            if(!freeKeyVisited){
+                freeKeyVisited = true;
+                if(table.hasFreeKey){
+                    slot = FREE_KEY_SLOT;
+                    return positioned = true;
+                }
+            }
+            long[] keys = table.keys;
+            while (next < keys.length) {
+                int index = (start + next++) & table.mask;
+                if(keys[index] != FREE_KEY){
+                    slot = index;
+                    return positioned = true;
+                }
+            }
+            return false;
+        }
+
+        final void checkPositioned() {
+            if(!positioned){
+                throw new IllegalStateException("Cursor is not positioned on an entry");
+            }
+        }
+
+        public long key() {
+            checkPositioned();
+            return slot == FREE_KEY_SLOT ? FREE_KEY : table.keys[slot];
+        }
+
+        public void remove() {
+            checkPositioned();
+            positioned = false;
+            if(slot == FREE_KEY_SLOT){
+                table.removeFreeKey();
+            } else {
+                table.removeAt(slot);
+                next--;
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public boolean containsKey(long key) {
+        if(key == FREE_KEY) return hasFreeKey;
+        return findSlot(key) >= 0;
+    }
+
+    public void clear() {
+        if(keys.length == DEFAULT_CAPACITY){
+            Arrays.fill(keys, FREE_KEY);
+            for (int i = 0; i < keys.length; i++) {
+                clearValue(i);
+            }
+        } else {
+            allocateKeys(DEFAULT_CAPACITY);
+            allocateValues(DEFAULT_CAPACITY);
+        }
+        hasFreeKey = false;
+        size = 0;
+    }
+}
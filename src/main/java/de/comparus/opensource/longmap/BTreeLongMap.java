@@ -0,0 +1,508 @@
+package de.comparus.opensource.longmap;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.OptionalLong;
+
+/**
+ * Ordered {@link LongMap} on a B+-tree whose nodes hold up to 64 keys in packed {@code long[]}
+ * arrays. Leaves are linked in key order, so {@link #keys()}, {@link #values()},
+ * {@link #forEach(LongObjConsumer)} and the cursors walk the entries sorted by key without boxing,
+ * and a range of k entries costs O(log n + k). Appending keys in ascending order, as time series
+ * do, fills the leaves completely instead of leaving them half empty.
+ */
+public class BTreeLongMap<V> implements LongMap<V> {
+    private static final int MAXIMUM_KEYS = 64;
+    private static final int MINIMUM_KEYS = MAXIMUM_KEYS / 2;
+    private Node root;
+    private Leaf first;
+    private long size;
+    private Object replaced;
+    private long splitKey;
+
+    public BTreeLongMap() {
+        clear();
+    }
+
+    private abstract static class Node {
+        final long[] keys = new long[MAXIMUM_KEYS + 1];
+        int count;
+    }
+
+    private static final class Leaf extends Node {
+        final Object[] values = new Object[MAXIMUM_KEYS + 1];
+        Leaf previous;
+        Leaf next;
+
+        void insert(int index, long key, Object value) {
+            System.arraycopy(keys, index, keys, index + 1, count - index);
+            System.arraycopy(values, index, values, index + 1, count - index);
+            keys[index] = key;
+            values[index] = value;
+            count++;
+        }
+
+        void delete(int index) {
+            count--;
+            System.arraycopy(keys, index + 1, keys, index, count - index);
+            System.arraycopy(values, index + 1, values, index, count - index);
+            values[count] = null;
+        }
+    }
+
+    /**
+     * Keys of {@code children[i + 1]} are at least {@code keys[i]}, those of {@code children[i]}
+     * are below it.
+     */
+    private static final class Inner extends Node {
+        final Node[] children = new Node[MAXIMUM_KEYS + 2];
+
+        int childIndex(long key) {
+            int index = Arrays.binarySearch(keys, 0, count, key);
+            return index >= 0 ? index + 1 : -index - 1;
+        }
+
+        void insert(int index, long key, Node right) {
+            System.arraycopy(keys, index, keys, index + 1, count - index);
+            System.arraycopy(children, index + 1, children, index + 2, count - index);
+            keys[index] = key;
+            children[index + 1] = right;
+            count++;
+        }
+
+        void delete(int index) {
+            count--;
+            System.arraycopy(keys, index + 1, keys, index, count - index);
+            System.arraycopy(children, index + 2, children, index + 1, count - index);
+            children[count + 1] = null;
+        }
+    }
+
+    private Leaf leafFor(long key) {
+        Node node = root;
+        while (node instanceof Inner) {
+            Inner inner = (Inner) node;
+            node = inner.children[inner.childIndex(key)];
+        }
+        return (Leaf) node;
+    }
+
+    @Override
+    public V put(long key, V value) {
+        Node right = insert(root, key, value);
+        if(right != null){
+            Inner newRoot = new Inner();
+            newRoot.keys[0] = splitKey;
+            newRoot.children[0] = root;
+            newRoot.children[1] = right;
+            newRoot.count = 1;
+            root = newRoot;
+        }
+        V previousValue = (V) replaced;
+        replaced = null;
+        return previousValue;
+    }
+
+    /**
+     * Returns the new right sibling when {@code node} split, with its separator in {@link #splitKey}.
+     */
+    private Node insert(Node node, long key, V value) {
+        if(node instanceof Leaf){
+            Leaf leaf = (Leaf) node;
+            int index = Arrays.binarySearch(leaf.keys, 0, leaf.count, key);
+            if(index >= 0){
+                replaced = leaf.values[index];
+                leaf.values[index] = value;
+                return null;
+            }
+            index = -index - 1;
+            leaf.insert(index, key, value);
+            size++;
+            if(leaf.count <= MAXIMUM_KEYS) return null;
+            return splitLeaf(leaf, index == MAXIMUM_KEYS && leaf.next == null ? MAXIMUM_KEYS : MINIMUM_KEYS + 1);
+        }
+        Inner inner = (Inner) node;
+        int index = inner.childIndex(key);
+        Node right = insert(inner.children[index], key, value);
+        if(right == null) return null;
+        inner.insert(index, splitKey, right);
+        return inner.count <= MAXIMUM_KEYS ? null : splitInner(inner);
+    }
+
+    private Leaf splitLeaf(Leaf leaf, int keep) {
+        Leaf right = new Leaf();
+        right.count = leaf.count - keep;
+        System.arraycopy(leaf.keys, keep, right.keys, 0, right.count);
+        System.arraycopy(leaf.values, keep, right.values, 0, right.count);
+        Arrays.fill(leaf.values, keep, leaf.count, null);
+        leaf.count = keep;
+        right.next = leaf.next;
+        right.previous = leaf;
+        if(leaf.next != null) leaf.next.previous = right;
+        leaf.next = right;
+        splitKey = right.keys[0];
+        return right;
+    }
+
+    private Inner splitInner(Inner inner) {
+        int middle = inner.count / 2;
+        Inner right = new Inner();
+        right.count = inner.count - middle - 1;
+        System.arraycopy(inner.keys, middle + 1, right.keys, 0, right.count);
+        System.arraycopy(inner.children, middle + 1, right.children, 0, right.count + 1);
+        Arrays.fill(inner.children, middle + 1, inner.count + 1, null);
+        inner.count = middle;
+        splitKey = inner.keys[middle];
+        return right;
+    }
+
+    @Override
+    public V get(long key) {
+        Leaf leaf = leafFor(key);
+        int index = Arrays.binarySearch(leaf.keys, 0, leaf.count, key);
+        return index >= 0 ? (V) leaf.values[index] : null;
+    }
+
+    @Override
+    public V remove(long key) {
+        if(!delete(root, key)) return null;
+        if(root instanceof Inner && root.count == 0){
+            root = ((Inner) root).children[0];
+        }
+        V previousValue = (V) replaced;
+        replaced = null;
+        return previousValue;
+    }
+
+    private boolean delete(Node node, long key) {
+        if(node instanceof Leaf){
+            Leaf leaf = (Leaf) node;
+            int index = Arrays.binarySearch(leaf.keys, 0, leaf.count, key);
+            if(index < 0) return false;
+            replaced = leaf.values[index];
+            leaf.delete(index);
+            size--;
+            return true;
+        }
+        Inner inner = (Inner) node;
+        int index = inner.childIndex(key);
+        if(!delete(inner.children[index], key)) return false;
+        if(inner.children[index].count < MINIMUM_KEYS) rebalance(inner, index);
+        return true;
+    }
+
+    /**
+     * Refills an underflowing child from a sibling, or merges the two when they fit in one node.
+     */
+    private void rebalance(Inner parent, int index) {
+        int leftIndex = index > 0 ? index - 1 : index;
+        Node left = parent.children[leftIndex];
+        Node right = parent.children[leftIndex + 1];
+        boolean leaves = left instanceof Leaf;
+        if(left.count + right.count + (leaves ? 0 : 1) <= MAXIMUM_KEYS){
+            if(leaves){
+                mergeLeaves((Leaf) left, (Leaf) right);
+            } else {
+                mergeInner((Inner) left, parent.keys[leftIndex], (Inner) right);
+            }
+            parent.delete(leftIndex);
+        } else if(leaves){
+            parent.keys[leftIndex] = borrowLeaf((Leaf) left, (Leaf) right, left.count < right.count);
+        } else {
+            parent.keys[leftIndex] = borrowInner((Inner) left, parent.keys[leftIndex], (Inner) right, left.count < right.count);
+        }
+    }
+
+    private void mergeLeaves(Leaf left, Leaf right) {
+        System.arraycopy(right.keys, 0, left.keys, left.count, right.count);
+        System.arraycopy(right.values, 0, left.values, left.count, right.count);
+        left.count += right.count;
+        left.next = right.next;
+        if(right.next != null) right.next.previous = left;
+    }
+
+    private void mergeInner(Inner left, long separator, Inner right) {
+        left.keys[left.count] = separator;
+        System.arraycopy(right.keys, 0, left.keys, left.count + 1, right.count);
+        System.arraycopy(right.children, 0, left.children, left.count + 1, right.count + 1);
+        left.count += right.count + 1;
+    }
+
+    private long borrowLeaf(Leaf left, Leaf right, boolean toLeft) {
+        if(toLeft){
+            left.insert(left.count, right.keys[0], right.values[0]);
+            right.delete(0);
+        } else {
+            right.insert(0, left.keys[left.count - 1], left.values[left.count - 1]);
+            left.delete(left.count - 1);
+        }
+        return right.keys[0];
+    }
+
+    private long borrowInner(Inner left, long separator, Inner right, boolean toLeft) {
+        if(toLeft){
+            left.keys[left.count] = separator;
+            left.children[left.count + 1] = right.children[0];
+            left.count++;
+            long newSeparator = right.keys[0];
+            System.arraycopy(right.keys, 1, right.keys, 0, right.count - 1);
+            System.arraycopy(right.children, 1, right.children, 0, right.count);
+            right.children[right.count] = null;
+            right.count--;
+            return newSeparator;
+        }
+        System.arraycopy(right.keys, 0, right.keys, 1, right.count);
+        System.arraycopy(right.children, 0, right.children, 1, right.count + 1);
+        right.keys[0] = separator;
+        right.children[0] = left.children[left.count];
+        right.count++;
+        left.children[left.count] = null;
+        left.count--;
+        return left.keys[left.count];
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(long key) {
+        Leaf leaf = leafFor(key);
+        return Arrays.binarySearch(leaf.keys, 0, leaf.count, key) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(V value) {
+        for (Leaf leaf = first; leaf != null; leaf = leaf.next) {
+            for (int i = 0; i < leaf.count; i++) {
+                if(Objects.equals(leaf.values[i], value)) return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public long[] keys() {
+        long[] result = new long[arrayLength()];
+        int position = 0;
+        for (Leaf leaf = first; leaf != null; leaf = leaf.next) {
+            System.arraycopy(leaf.keys, 0, result, position, leaf.count);
+            position += leaf.count;
+        }
+        return result;
+    }
+
+    @Override
+    public V[] values() {
+        Object[] result = new Object[arrayLength()];
+        int position = 0;
+        for (Leaf leaf = first; leaf != null; leaf = leaf.next) {
+            System.arraycopy(leaf.values, 0, result, position, leaf.count);
+            position += leaf.count;
+        }
+        return LongMapArrays.toTypedArray(result, position);
+    }
+
+    private int arrayLength() {
+        if(size > Integer.MAX_VALUE - 8){
+            throw new IllegalStateException("LongMap is too large to be copied into an array: " + size);
+        }
+        return (int) size;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        first = new Leaf();
+        root = first;
+        size = 0;
+    }
+
+    @Override
+    public void forEach(LongObjConsumer<? super V> action) {
+        for (Leaf leaf = first; leaf != null; leaf = leaf.next) {
+            for (int i = 0; i < leaf.count; i++) {
+                action.accept(leaf.keys[i], (V) leaf.values[i]);
+            }
+        }
+    }
+
+    /**
+     * Passes the entries with {@code fromKey <= key < toKey} to {@code action} in key order.
+     */
+    public void forEach(long fromKey, long toKey, LongObjConsumer<? super V> action) {
+        LongMapCursor<V> cursor = cursor(fromKey, toKey);
+        while (cursor.advance()) {
+            action.accept(cursor.key(), cursor.value());
+        }
+    }
+
+    @Override
+    public LongMapCursor<V> cursor() {
+        return new RangeCursor(Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns a cursor over the entries with {@code fromKey <= key < toKey} in key order.
+     */
+    public LongMapCursor<V> cursor(long fromKey, long toKey) {
+        if(fromKey > toKey){
+            throw new IllegalArgumentException("fromKey is greater than toKey: " + fromKey + " > " + toKey);
+        }
+        return fromKey == toKey ? new RangeCursor(1, 0) : new RangeCursor(fromKey, toKey - 1);
+    }
+
+    public long firstKey() {
+        if(size == 0) throw new NoSuchElementException("LongMap is empty");
+        return first.keys[0];
+    }
+
+    public long lastKey() {
+        if(size == 0) throw new NoSuchElementException("LongMap is empty");
+        Node node = root;
+        while (node instanceof Inner) {
+            node = ((Inner) node).children[node.count];
+        }
+        return node.keys[node.count - 1];
+    }
+
+    /**
+     * Returns the greatest key less than or equal to {@code key}.
+     */
+    public OptionalLong floorKey(long key) {
+        return below(key, true);
+    }
+
+    /**
+     * Returns the greatest key strictly less than {@code key}.
+     */
+    public OptionalLong lowerKey(long key) {
+        return below(key, false);
+    }
+
+    /**
+     * Returns the least key greater than or equal to {@code key}.
+     */
+    public OptionalLong ceilingKey(long key) {
+        return above(key, true);
+    }
+
+    /**
+     * Returns the least key strictly greater than {@code key}.
+     */
+    public OptionalLong higherKey(long key) {
+        return above(key, false);
+    }
+
+    private OptionalLong below(long key, boolean inclusive) {
+        Leaf leaf = leafFor(key);
+        int index = Arrays.binarySearch(leaf.keys, 0, leaf.count, key);
+        if(index >= 0 && inclusive) return OptionalLong.of(key);
+        index = index >= 0 ? index - 1 : -index - 2;
+        if(index < 0){
+            leaf = leaf.previous;
+            if(leaf == null) return OptionalLong.empty();
+            index = leaf.count - 1;
+        }
+        return OptionalLong.of(leaf.keys[index]);
+    }
+
+    private OptionalLong above(long key, boolean inclusive) {
+        Leaf leaf = leafFor(key);
+        int index = Arrays.binarySearch(leaf.keys, 0, leaf.count, key);
+        if(index >= 0 && inclusive) return OptionalLong.of(key);
+        index = index >= 0 ? index + 1 : -index - 1;
+        if(index == leaf.count){
+            leaf = leaf.next;
+            if(leaf == null) return OptionalLong.empty();
+            index = 0;
+        }
+        return OptionalLong.of(leaf.keys[index]);
+    }
+
+    /**
+     * Walks the leaves from {@code fromKey} up to the inclusive {@code lastKey}. Removal can merge
+     * or refill leaves, so the next {@link #advance()} after it searches again from the removed key.
+     */
+    private final class RangeCursor implements LongMapCursor<V> {
+        private final long fromKey;
+        private final long lastKey;
+        private Leaf leaf;
+        private int index;
+        private long key;
+        private boolean started;
+        private boolean removed;
+        private boolean positioned;
+
+        RangeCursor(long fromKey, long lastKey) {
+            this.fromKey = fromKey;
+            this.lastKey = lastKey;
+        }
+
+        @Override
+        public boolean advance() {
+            positioned = false;
+            if(fromKey > lastKey) return false;
+            if(!started || removed){
+                long target = started ? key : fromKey;
+                leaf = leafFor(target);
+                index = Arrays.binarySearch(leaf.keys, 0, leaf.count, target);
+                if(index < 0) index = -index - 1;
+                started = true;
+                removed = false;
+            } else if(leaf != null){
+                index++;
+            }
+            while (leaf != null && index >= leaf.count) {
+                leaf = leaf.next;
+                index = 0;
+            }
+            if(leaf == null || leaf.keys[index] > lastKey){
+                leaf = null;
+                return false;
+            }
+            key = leaf.keys[index];
+            return positioned = true;
+        }
+
+        private void checkPositioned() {
+            if(!positioned){
+                throw new IllegalStateException("Cursor is not positioned on an entry");
+            }
+        }
+
+        @Override
+        public long key() {
+            checkPositioned();
+            return key;
+        }
+
+        @Override
+        public V value() {
+            checkPositioned();
+            return (V) leaf.values[index];
+        }
+
+        @Override
+        public void remove() {
+            checkPositioned();
+            positioned = false;
+            BTreeLongMap.this.remove(key);
+            removed = true;
+        }
+
+        @Override
+        public void reset() {
+            leaf = null;
+            started = false;
+            removed = false;
+            positioned = false;
+        }
+    }
+}
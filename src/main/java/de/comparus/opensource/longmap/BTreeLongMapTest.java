@@ -0,0 +1,126 @@
+package de.comparus.opensource.longmap;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.OptionalLong;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("BTreeLongMap Test")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class BTreeLongMapTest {
+    BTreeLongMap<Long> longMap = new BTreeLongMap<>();
+
+    private static OptionalLong optional(Long key) {
+        return key == null ? OptionalLong.empty() : OptionalLong.of(key);
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Random puts and removes match a TreeMap, including order and neighbour lookups")
+    void matchesTreeMap() {
+        TreeMap<Long, Long> expected = new TreeMap<>();
+        Random random = new Random(17);
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextInt(20_000) - 10_000;
+            if(random.nextInt(3) == 0){
+                assertThat(longMap.remove(key)).isEqualTo(expected.remove(key));
+            } else {
+                assertThat(longMap.put(key, (long) i)).isEqualTo(expected.put(key, (long) i));
+            }
+        }
+
+        assertThat(longMap.size()).isEqualTo(expected.size());
+        assertThat(longMap.keys()).containsExactly(expected.keySet().stream().mapToLong(Long::longValue).toArray());
+        assertThat(longMap.values()).containsExactly(expected.values().toArray(new Long[0]));
+        assertThat(longMap.firstKey()).isEqualTo(expected.firstKey());
+        assertThat(longMap.lastKey()).isEqualTo(expected.lastKey());
+        for (long key = -10_100; key < 10_100; key += 7) {
+            assertThat(longMap.get(key)).isEqualTo(expected.get(key));
+            assertThat(longMap.floorKey(key)).isEqualTo(optional(expected.floorKey(key)));
+            assertThat(longMap.lowerKey(key)).isEqualTo(optional(expected.lowerKey(key)));
+            assertThat(longMap.ceilingKey(key)).isEqualTo(optional(expected.ceilingKey(key)));
+            assertThat(longMap.higherKey(key)).isEqualTo(optional(expected.higherKey(key)));
+        }
+
+        for (Long key : new ArrayList<>(expected.keySet())) {
+            assertThat(longMap.remove(key)).isEqualTo(expected.remove(key));
+        }
+        assertThat(longMap.isEmpty()).isTrue();
+        assertThat(longMap.floorKey(0L)).isEmpty();
+        assertThatThrownBy(() -> longMap.firstKey()).isInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Range cursor visits the half-open range in order and supports removal")
+    void rangeCursor() {
+        for (long key = 0; key < 10_000; key += 2) {
+            longMap.put(key, key);
+        }
+
+        List<Long> visited = new ArrayList<>();
+        longMap.forEach(101L, 201L, (key, value) -> visited.add(key));
+        assertThat(visited).hasSize(50);
+        assertThat(visited.get(0)).isEqualTo(102L);
+        assertThat(visited.get(49)).isEqualTo(200L);
+
+        LongMapCursor<Long> cursor = longMap.cursor(1_000L, 9_000L);
+        long removed = 0;
+        while (cursor.advance()) {
+            if(cursor.key() % 4 == 0){
+                cursor.remove();
+                removed++;
+            }
+        }
+        assertThat(removed).isEqualTo(2_000L);
+        assertThat(longMap.size()).isEqualTo(3_000L);
+        assertThat(longMap.containsKey(1_000L)).isFalse();
+        assertThat(longMap.containsKey(1_002L)).isTrue();
+        assertThat(longMap.containsKey(9_000L)).isTrue();
+
+        cursor.reset();
+        long count = 0;
+        while (cursor.advance()) {
+            assertThat(cursor.value()).isEqualTo(cursor.key());
+            count++;
+        }
+        assertThat(count).isEqualTo(2_000L);
+        assertThat(longMap.cursor(5L, 5L).advance()).isFalse();
+        assertThatThrownBy(() -> longMap.cursor(2L, 1L)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Ascending appends and extreme keys keep the ordered walk complete")
+    void ascendingAppendsAndExtremeKeys() {
+        longMap.put(Long.MAX_VALUE, 1L);
+        longMap.put(Long.MIN_VALUE, 2L);
+        for (long key = 0; key < 100_000; key++) {
+            longMap.put(key, key);
+        }
+
+        long[] previous = {Long.MIN_VALUE};
+        long[] count = {0};
+        longMap.forEach((key, value) -> {
+            if(count[0]++ > 0) assertThat(key).isGreaterThan(previous[0]);
+            previous[0] = key;
+        });
+        assertThat(count[0]).isEqualTo(100_002L);
+        assertThat(longMap.firstKey()).isEqualTo(Long.MIN_VALUE);
+        assertThat(longMap.lastKey()).isEqualTo(Long.MAX_VALUE);
+        assertThat(longMap.ceilingKey(100_000L)).hasValue(Long.MAX_VALUE);
+
+        Map<Long, Long> merged = new TreeMap<>();
+        longMap.merge(5L, 10L, Long::sum);
+        longMap.forEach(4L, 7L, merged::put);
+        assertThat(merged).containsEntry(5L, 15L).hasSize(3);
+    }
+}
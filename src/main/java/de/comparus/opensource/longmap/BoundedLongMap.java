@@ -0,0 +1,243 @@
+package de.comparus.opensource.longmap;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * {@link LongMap} cache bounded by the number of entries or by their total weight. The hash table
+ * maps keys to dense entry arrays, and the recency lists are threaded through those arrays as
+ * {@code int} links, so no wrapper object is created per entry.
+ * <p>
+ * With {@link EvictionPolicy#LRU} the least recently used entry is evicted. With
+ * {@link EvictionPolicy#TINY_LFU} new entries first enter a small LRU window. When an entry
+ * leaves the window, it only replaces the LRU victim of the main space if a frequency sketch
+ * has seen it more often, so one-off scans cannot flush the popular keys. Reads through
+ * {@link #get(long)} update recency and the hit and miss counters; scans and
+ * {@link #containsKey(long)} do neither.
+ */
+public class BoundedLongMap<V> extends AbstractEntryLongMap<V> {
+    private static final int WINDOW = 0;
+    private static final int MAIN = 1;
+    private static final int WINDOW_PERCENT = 1;
+    private final long maximumWeight;
+    private final long windowMaximum;
+    private final LongMapWeigher<? super V> weigher;
+    private final EvictionPolicy policy;
+    private final FrequencySketch sketch;
+    private final int[] heads = {NONE, NONE};
+    private final int[] tails = {NONE, NONE};
+    private int[] entryWeights;
+    private byte[] regions;
+    private long totalWeight;
+    private long windowWeight;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    public BoundedLongMap(long maximumSize) {
+        this(maximumSize, EvictionPolicy.TINY_LFU);
+    }
+
+    public BoundedLongMap(long maximumSize, EvictionPolicy policy) {
+        this(maximumSize, (key, value) -> 1, policy, maximumSize);
+    }
+
+    /**
+     * Weights are usually bytes or cost units rather than entries, so the frequency sketch starts
+     * small and grows with the number of entries held instead of being sized by the weight.
+     */
+    public BoundedLongMap(long maximumWeight, LongMapWeigher<? super V> weigher, EvictionPolicy policy) {
+        this(maximumWeight, weigher, policy, 0);
+    }
+
+    private BoundedLongMap(long maximumWeight, LongMapWeigher<? super V> weigher, EvictionPolicy policy,
+                           long expectedEntries) {
+        super(LongHashStrategy.MURMUR3);
+        if(maximumWeight <= 0){
+            throw new IllegalArgumentException("Maximum weight must be positive");
+        }
+        this.maximumWeight = maximumWeight;
+        this.weigher = Objects.requireNonNull(weigher);
+        this.policy = Objects.requireNonNull(policy);
+        this.windowMaximum = policy == EvictionPolicy.TINY_LFU ? Math.max(1, maximumWeight * WINDOW_PERCENT / 100) : 0;
+        this.sketch = policy == EvictionPolicy.TINY_LFU ? new FrequencySketch(expectedEntries) : null;
+    }
+
+    @Override
+    void resizeEntries(int capacity) {
+        entryWeights = resize(entryWeights, capacity);
+        regions = resize(regions, capacity);
+    }
+
+    private void linkFirst(int region, int entry) {
+        int head = heads[region];
+        regions[entry] = (byte) region;
+        previous[entry] = NONE;
+        next[entry] = head;
+        if(head == NONE){
+            tails[region] = entry;
+        } else {
+            previous[head] = entry;
+        }
+        heads[region] = entry;
+        if(region == WINDOW) windowWeight += entryWeights[entry];
+    }
+
+    private void unlink(int entry) {
+        int region = regions[entry];
+        int before = previous[entry];
+        int after = next[entry];
+        if(before == NONE){
+            heads[region] = after;
+        } else {
+            next[before] = after;
+        }
+        if(after == NONE){
+            tails[region] = before;
+        } else {
+            previous[after] = before;
+        }
+        if(region == WINDOW) windowWeight -= entryWeights[entry];
+    }
+
+    private void touch(int entry) {
+        int region = regions[entry];
+        if(heads[region] != entry){
+            unlink(entry);
+            linkFirst(region, entry);
+        }
+    }
+
+    private int weigh(long key, V value) {
+        int weight = weigher.weigh(key, value);
+        if(weight < 0){
+            throw new IllegalArgumentException("Weight must not be negative: " + weight);
+        }
+        return weight;
+    }
+
+    @Override
+    public V put(long key, V value) {
+        int weight = weigh(key, value);
+        if(sketch != null) sketch.increment(key);
+        V previousValue = null;
+        int entry = entryFor(key);
+        if(entry != NONE){
+            previousValue = update(entry, value, weight);
+        } else {
+            insertEntry(addEntry(key, value, weight));
+            if(sketch != null) sketch.ensureCapacity(size);
+        }
+        evictEntries();
+        return previousValue;
+    }
+
+    private int addEntry(long key, V value, int weight) {
+        int entry = newEntry(key, value);
+        entryWeights[entry] = weight;
+        linkFirst(policy == EvictionPolicy.TINY_LFU ? WINDOW : MAIN, entry);
+        totalWeight += weight;
+        return entry;
+    }
+
+    private V update(int entry, V value, int weight) {
+        V previousValue = valueOf(entry);
+        int difference = weight - entryWeights[entry];
+        entryValues[entry] = value;
+        entryWeights[entry] = weight;
+        totalWeight += difference;
+        if(regions[entry] == WINDOW) windowWeight += difference;
+        touch(entry);
+        return previousValue;
+    }
+
+    private void evictEntries() {
+        while (windowWeight > windowMaximum) {
+            int candidate = tails[WINDOW];
+            unlink(candidate);
+            linkFirst(MAIN, candidate);
+            admit(candidate);
+        }
+        while (totalWeight > maximumWeight) {
+            evict(tails[MAIN] != NONE ? tails[MAIN] : tails[WINDOW]);
+        }
+    }
+
+    private void admit(int candidate) {
+        int candidateFrequency = sketch.frequency(entryKeys[candidate]);
+        while (totalWeight - windowWeight > maximumWeight - windowMaximum) {
+            int victim = tails[MAIN];
+            if(victim == candidate || candidateFrequency <= sketch.frequency(entryKeys[victim])){
+                evict(candidate);
+                return;
+            }
+            evict(victim);
+        }
+    }
+
+    private void evict(int entry) {
+        detachKey(entryKeys[entry]);
+        discardEntry(entry);
+        evictionCount++;
+    }
+
+    @Override
+    void discardEntry(int entry) {
+        unlink(entry);
+        totalWeight -= entryWeights[entry];
+        releaseEntry(entry);
+    }
+
+    @Override
+    public V get(long key) {
+        int entry = entryFor(key);
+        if(sketch != null) sketch.increment(key);
+        if(entry == NONE){
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        touch(entry);
+        return valueOf(entry);
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        Arrays.fill(heads, NONE);
+        Arrays.fill(tails, NONE);
+        totalWeight = 0;
+        windowWeight = 0;
+        if(sketch != null) sketch.clear();
+    }
+
+    public long maximumWeight() {
+        return maximumWeight;
+    }
+
+    public long weightedSize() {
+        return totalWeight;
+    }
+
+    public long hitCount() {
+        return hitCount;
+    }
+
+    public long missCount() {
+        return missCount;
+    }
+
+    public long evictionCount() {
+        return evictionCount;
+    }
+
+    public double hitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    public enum EvictionPolicy {
+        LRU,
+        TINY_LFU
+    }
+}
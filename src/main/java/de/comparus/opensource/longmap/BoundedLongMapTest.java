@@ -0,0 +1,180 @@
+package de.comparus.opensource.longmap;
+
+import org.junit.jupiter.api.*;
+
+import java.lang.reflect.Field;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@TestClassOrder(ClassOrderer.OrderAnnotation.class)
+@DisplayName("BoundedLongMap Test")
+class BoundedLongMapTest {
+
+    @Nested
+    @Order(1)
+    @DisplayName("1. LRU eviction Test")
+    @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+    class LruTest {
+        BoundedLongMap<String> cache;
+
+        @BeforeEach
+        void init() {
+            cache = new BoundedLongMap<>(3, BoundedLongMap.EvictionPolicy.LRU);
+        }
+
+        @Test
+        @Order(1)
+        @DisplayName("Least recently used entry is evicted and reads refresh recency")
+        void evictsLeastRecentlyUsed() {
+            cache.put(1L, "a");
+            cache.put(2L, "b");
+            cache.put(0L, "zero");
+            assertThat(cache.get(1L)).isEqualTo("a");
+            cache.put(4L, "d");
+
+            assertThat(cache.size()).isEqualTo(3L);
+            assertThat(cache.containsKey(2L)).isFalse();
+            assertThat(cache.keys()).containsExactlyInAnyOrder(1L, 0L, 4L);
+            cache.put(5L, "e");
+            assertThat(cache.containsKey(0L)).isFalse();
+            assertThat(cache.evictionCount()).isEqualTo(2L);
+        }
+
+        @Test
+        @Order(2)
+        @DisplayName("Counters record hits and misses of get")
+        void countersTest() {
+            cache.put(1L, "a");
+            cache.get(1L);
+            cache.get(1L);
+            cache.get(2L);
+
+            assertThat(cache.hitCount()).isEqualTo(2L);
+            assertThat(cache.missCount()).isEqualTo(1L);
+            assertThat(cache.hitRate()).isEqualTo(2.0 / 3);
+        }
+
+        @Test
+        @Order(3)
+        @DisplayName("Removed and cleared entries release their space")
+        void removeAndClear() {
+            cache.put(1L, "a");
+            cache.put(2L, "b");
+            assertThat(cache.remove(1L)).isEqualTo("a");
+            cache.put(3L, "c");
+            cache.put(4L, "d");
+
+            assertThat(cache.evictionCount()).isZero();
+            LongMapCursor<String> cursor = cache.cursor();
+            while (cursor.advance()) {
+                if(cursor.key() == 3L) cursor.remove();
+            }
+            assertThat(cache.keys()).containsExactlyInAnyOrder(2L, 4L);
+            cache.clear();
+            assertThat(cache.isEmpty()).isTrue();
+            assertThat(cache.weightedSize()).isZero();
+            assertNull(cache.values());
+        }
+    }
+
+    @Nested
+    @Order(2)
+    @DisplayName("2. TinyLFU and weight Test")
+    @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+    class TinyLfuTest {
+
+        @Test
+        @Order(1)
+        @DisplayName("Frequently read keys survive a stream of one-off keys that flushes an LRU cache")
+        void frequentKeysSurviveScan() {
+            BoundedLongMap<Long> tinyLfu = new BoundedLongMap<>(1_000);
+            BoundedLongMap<Long> lru = new BoundedLongMap<>(1_000, BoundedLongMap.EvictionPolicy.LRU);
+            for (BoundedLongMap<Long> cache : new BoundedLongMap[]{tinyLfu, lru}) {
+                for (int i = 0; i < 200_000; i++) {
+                    cache.put(1_000_000L + i, (long) i);
+                    if(i % 4 == 0){
+                        long key = (i / 4) % 500;
+                        if(cache.get(key) == null) cache.put(key, key);
+                    }
+                }
+            }
+
+            int survivors = 0;
+            for (long key = 0; key < 500; key++) {
+                if(tinyLfu.containsKey(key)) survivors++;
+            }
+            assertThat(survivors).isGreaterThan(450);
+            assertThat(tinyLfu.size()).isEqualTo(1_000L);
+            assertThat(tinyLfu.hitRate()).isGreaterThan(0.9);
+            assertThat(lru.hitRate()).isLessThan(0.1);
+        }
+
+        @Test
+        @Order(2)
+        @DisplayName("Map stays within its maximum weight and consistent under random operations")
+        void weightBoundUnderRandomOperations() {
+            BoundedLongMap<String> cache = new BoundedLongMap<>(5_000, (key, value) -> value.length(),
+                    BoundedLongMap.EvictionPolicy.TINY_LFU);
+            Random random = new Random(13);
+            for (int i = 0; i < 100_000; i++) {
+                long key = random.nextInt(10_000);
+                if(random.nextInt(5) == 0){
+                    cache.remove(key);
+                } else if(random.nextBoolean()){
+                    cache.get(key);
+                } else {
+                    cache.put(key, "v" + i);
+                }
+                assertThat(cache.weightedSize()).isLessThanOrEqualTo(5_000L);
+            }
+
+            Set<Long> keys = new HashSet<>();
+            long[] weight = new long[1];
+            cache.forEach((key, value) -> {
+                keys.add(key);
+                weight[0] += value.length();
+            });
+            assertThat((long) keys.size()).isEqualTo(cache.size());
+            assertThat(weight[0]).isEqualTo(cache.weightedSize());
+            for (long key : keys) {
+                assertThat(cache.containsKey(key)).isTrue();
+            }
+        }
+
+        @Test
+        @Order(3)
+        @DisplayName("Constructor rejects non-positive bounds and put rejects negative weights")
+        void invalidArguments() {
+            assertThatThrownBy(() -> new BoundedLongMap<>(0)).isInstanceOf(IllegalArgumentException.class);
+            BoundedLongMap<String> cache = new BoundedLongMap<>(10, (key, value) -> -1, BoundedLongMap.EvictionPolicy.LRU);
+            assertThatThrownBy(() -> cache.put(1L, "a")).isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @Order(4)
+        @DisplayName("Frequency sketch grows with the entries held, not with the maximum weight")
+        void sketchSizedByEntries() throws Exception {
+            BoundedLongMap<byte[]> weighted = new BoundedLongMap<>(1L << 30, (key, value) -> value.length,
+                    BoundedLongMap.EvictionPolicy.TINY_LFU);
+            assertThat(sketchOf(weighted).tableSize()).isEqualTo(16);
+            for (long key = 0; key < 1_000; key++) {
+                weighted.put(key, new byte[16]);
+            }
+            assertThat(sketchOf(weighted).tableSize()).isEqualTo(1_024);
+
+            BoundedLongMap<Long> counted = new BoundedLongMap<>(5_000);
+            assertThat(sketchOf(counted).tableSize()).isEqualTo(8_192);
+        }
+
+        private FrequencySketch sketchOf(BoundedLongMap<?> cache) throws Exception {
+            Field field = BoundedLongMap.class.getDeclaredField("sketch");
+            field.setAccessible(true);
+            return (FrequencySketch) field.get(cache);
+        }
+    }
+}
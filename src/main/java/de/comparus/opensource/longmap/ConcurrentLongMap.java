@@ -0,0 +1,502 @@
+package de.comparus.opensource.longmap;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.LongFunction;
+
+/**
+ * Thread-safe {@link LongMap}. Reads never lock: slots are published value-first, key-second
+ * through atomic arrays, and removals leave the key in place with a {@code null} value so that
+ * concurrent probes are never cut short. Writes lock one of the segments selected by the top
+ * hash bits, and every segment rehashes (dropping removed slots) on its own, so resizes run in
+ * parallel across segments without blocking readers. Null values are not supported.
+ */
+public class ConcurrentLongMap<V> implements LongMap<V> {
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+    private static final int DEFAULT_SEGMENT_CAPACITY = 16;
+    private static final int MAXIMUM_SEGMENT_CAPACITY = 1 << 30;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final long FREE_KEY = 0L;
+    private final LongHashStrategy hashStrategy;
+    private final Segment[] segments;
+    private final int segmentBits;
+    private final LongAdder size = new LongAdder();
+
+    public ConcurrentLongMap() {
+        this(DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    public ConcurrentLongMap(int concurrencyLevel) {
+        this(concurrencyLevel, DEFAULT_SEGMENT_CAPACITY, LongHashStrategy.MURMUR3);
+    }
+
+    public ConcurrentLongMap(int concurrencyLevel, int initialSegmentCapacity, LongHashStrategy hashStrategy) {
+        if(concurrencyLevel <= 0 || initialSegmentCapacity <= 0){
+            throw new IllegalArgumentException("Concurrency level and capacity must be positive");
+        }
+        this.hashStrategy = Objects.requireNonNull(hashStrategy);
+        int segmentCount = AbstractLongHashTable.tableSizeFor(concurrencyLevel);
+        this.segmentBits = Integer.numberOfTrailingZeros(segmentCount);
+        this.segments = new ConcurrentLongMap.Segment[segmentCount];
+        int segmentCapacity = AbstractLongHashTable.tableSizeFor(initialSegmentCapacity);
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+    }
+
+    private Segment segmentFor(long hash) {
+        return segments[(int) (hash >>> (Long.SIZE - segmentBits))];
+    }
+
+    @Override
+    public V put(long key, V value) {
+        Objects.requireNonNull(value);
+        long hash = hashStrategy.hash(key);
+        return segmentFor(hash).put(key, hash << segmentBits, value);
+    }
+
+    @Override
+    public V get(long key) {
+        long hash = hashStrategy.hash(key);
+        return segmentFor(hash).get(key, hash << segmentBits);
+    }
+
+    @Override
+    public V remove(long key) {
+        long hash = hashStrategy.hash(key);
+        return segmentFor(hash).remove(key, hash << segmentBits);
+    }
+
+    @Override
+    public V putIfAbsent(long key, V value) {
+        Objects.requireNonNull(value);
+        return update(key, (k, current) -> value, true, false, true);
+    }
+
+    @Override
+    public V replace(long key, V value) {
+        Objects.requireNonNull(value);
+        return update(key, (k, current) -> value, false, true, true);
+    }
+
+    @Override
+    public boolean replace(long key, V oldValue, V newValue) {
+        Objects.requireNonNull(newValue);
+        long hash = hashStrategy.hash(key);
+        return segmentFor(hash).replace(key, hash << segmentBits, oldValue, newValue);
+    }
+
+    @Override
+    public V computeIfAbsent(long key, LongFunction<? extends V> mappingFunction) {
+        Objects.requireNonNull(mappingFunction);
+        return update(key, (k, current) -> mappingFunction.apply(k), true, false, false);
+    }
+
+    @Override
+    public V computeIfPresent(long key, LongObjFunction<? super V, ? extends V> remappingFunction) {
+        return update(key, Objects.requireNonNull(remappingFunction), false, true, false);
+    }
+
+    @Override
+    public V compute(long key, LongObjFunction<? super V, ? extends V> remappingFunction) {
+        return update(key, Objects.requireNonNull(remappingFunction), true, true, false);
+    }
+
+    @Override
+    public V merge(long key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+        Objects.requireNonNull(value);
+        return update(key, (k, current) -> current == null ? value : remappingFunction.apply(current, value), true, true, false);
+    }
+
+    /**
+     * Runs the remapping function under the segment lock, so the update is atomic with respect to
+     * every other write to the same key. The function must be short and must not touch the map.
+     */
+    private V update(long key, LongObjFunction<? super V, ? extends V> remappingFunction,
+                     boolean whenAbsent, boolean whenPresent, boolean returnPrevious) {
+        long hash = hashStrategy.hash(key);
+        return segmentFor(hash).update(key, hash << segmentBits, remappingFunction, whenAbsent, whenPresent, returnPrevious);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size.sum() == 0;
+    }
+
+    @Override
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public boolean containsValue(V value) {
+        if(value == null) return false;
+        for (Segment segment : segments) {
+            if(segment.containsValue(value)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public long[] keys() {
+        long[] result = new long[(int) Math.max(size.sum(), 0)];
+        int position = 0;
+        for (Segment segment : segments) {
+            if(segment.zeroValue != null){
+                result = ensureCapacity(result, position + 1);
+                result[position++] = FREE_KEY;
+            }
+            Table table = segment.table;
+            for (int i = 0; i < table.capacity; i++) {
+                long key = table.keys.get(i);
+                if(key != FREE_KEY && table.values.get(i) != null){
+                    result = ensureCapacity(result, position + 1);
+                    result[position++] = key;
+                }
+            }
+        }
+        return position == result.length ? result : Arrays.copyOf(result, position);
+    }
+
+    private static long[] ensureCapacity(long[] array, int length) {
+        return length <= array.length ? array : Arrays.copyOf(array, Math.max(length, array.length * 2));
+    }
+
+    @Override
+    public V[] values() {
+        Object[] result = new Object[(int) Math.max(size.sum(), 0)];
+        int position = 0;
+        for (Segment segment : segments) {
+            Object zeroValue = segment.zeroValue;
+            if(zeroValue != null){
+                result = ensureCapacity(result, position + 1);
+                result[position++] = zeroValue;
+            }
+            Table table = segment.table;
+            for (int i = 0; i < table.capacity; i++) {
+                Object value = table.values.get(i);
+                if(value != null){
+                    result = ensureCapacity(result, position + 1);
+                    result[position++] = value;
+                }
+            }
+        }
+        return LongMapArrays.toTypedArray(result, position);
+    }
+
+    private static Object[] ensureCapacity(Object[] array, int length) {
+        return length <= array.length ? array : Arrays.copyOf(array, Math.max(length, array.length * 2));
+    }
+
+    @Override
+    public void forEach(LongObjConsumer<? super V> action) {
+        Objects.requireNonNull(action);
+        for (Segment segment : segments) {
+            Object zeroValue = segment.zeroValue;
+            if(zeroValue != null) action.accept(FREE_KEY, (V) zeroValue);
+            Table table = segment.table;
+            for (int i = 0; i < table.capacity; i++) {
+                long key = table.keys.get(i);
+                if(key == FREE_KEY) continue;
+                Object value = table.values.get(i);
+                if(value != null) action.accept(key, (V) value);
+            }
+        }
+    }
+
+    /**
+     * Returns a weakly consistent cursor: it never throws because of concurrent updates and
+     * reflects some of the changes made after it was positioned. {@link LongMapCursor#remove()}
+     * removes the current key from the map.
+     */
+    @Override
+    public LongMapCursor<V> cursor() {
+        return new Cursor();
+    }
+
+    @Override
+    public long size() {
+        return size.sum();
+    }
+
+    @Override
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    private final class Cursor implements LongMapCursor<V> {
+        private int nextSegment;
+        private Table table;
+        private int nextSlot;
+        private long key;
+        private V value;
+
+        private Cursor() {
+            reset();
+        }
+
+        @Override
+        public void reset() {
+            nextSegment = 0;
+            table = null;
+            value = null;
+        }
+
+        @Override
+        public boolean advance() {
+            while (true) {
+                if(table != null){
+                    while (nextSlot < table.capacity) {
+                        long current = table.keys.get(nextSlot);
+                        Object currentValue = current == FREE_KEY ? null : table.values.get(nextSlot);
+                        nextSlot++;
+                        if(currentValue != null){
+                            key = current;
+                            value = (V) currentValue;
+                            return true;
+                        }
+                    }
+                }
+                if(nextSegment == segments.length){
+                    table = null;
+                    value = null;
+                    return false;
+                }
+                Segment segment = segments[nextSegment++];
+                table = segment.table;
+                nextSlot = 0;
+                Object zeroValue = segment.zeroValue;
+                if(zeroValue != null){
+                    key = FREE_KEY;
+                    value = (V) zeroValue;
+                    return true;
+                }
+            }
+        }
+
+        private void checkPositioned() {
+            if(value == null){
+                throw new IllegalStateException("Cursor is not positioned on an entry");
+            }
+        }
+
+        @Override
+        public long key() {
+            checkPositioned();
+            return key;
+        }
+
+        @Override
+        public V value() {
+            checkPositioned();
+            return value;
+        }
+
+        @Override
+        public void remove() {
+            checkPositioned();
+            ConcurrentLongMap.this.remove(key);
+            value = null;
+        }
+    }
+
+    private static final class Table {
+        final int capacity;
+        final int shift;
+        final int mask;
+        final int threshold;
+        final AtomicLongArray keys;
+        final AtomicReferenceArray<Object> values;
+
+        Table(int capacity) {
+            this.capacity = capacity;
+            this.shift = LongHashStrategy.shiftFor(capacity);
+            this.mask = capacity - 1;
+            this.threshold = capacity == MAXIMUM_SEGMENT_CAPACITY ? capacity - 1 : (int) (capacity * LOAD_FACTOR);
+            this.keys = new AtomicLongArray(capacity);
+            this.values = new AtomicReferenceArray<>(capacity);
+        }
+    }
+
+    private final class Segment extends ReentrantLock {
+        private static final long serialVersionUID = 1L;
+        private final int initialCapacity;
+        volatile Table table;
+        volatile Object zeroValue;
+        private int count;
+        private int usedSlots;
+
+        Segment(int initialCapacity) {
+            this.initialCapacity = initialCapacity;
+            this.table = new Table(initialCapacity);
+        }
+
+        V get(long key, long hash) {
+            if(key == FREE_KEY) return (V) zeroValue;
+            Table table = this.table;
+            int index = (int) (hash >>> table.shift);
+            long current;
+            while ((current = table.keys.get(index)) != FREE_KEY) {
+                if(current == key) return (V) table.values.get(index);
+                index = (index + 1) & table.mask;
+            }
+            return null;
+        }
+
+        V put(long key, long hash, V value) {
+            lock();
+            try {
+                if(key == FREE_KEY){
+                    Object previousValue = zeroValue;
+                    zeroValue = value;
+                    if(previousValue == null) increment();
+                    return (V) previousValue;
+                }
+                Table table = this.table;
+                int index = (int) (hash >>> table.shift);
+                long current;
+                while ((current = table.keys.get(index)) != FREE_KEY) {
+                    if(current == key){
+                        Object previousValue = table.values.getAndSet(index, value);
+                        if(previousValue == null) increment();
+                        return (V) previousValue;
+                    }
+                    index = (index + 1) & table.mask;
+                }
+                if(usedSlots >= table.threshold){
+                    rehash(table);
+                    return put(key, hash, value);
+                }
+                table.values.set(index, value);
+                table.keys.set(index, key);
+                usedSlots++;
+                increment();
+                return null;
+            } finally {
+                unlock();
+            }
+        }
+
+        private void increment() {
+            count++;
+            size.increment();
+        }
+
+        private void rehash(Table table) {
+            int capacity = table.capacity;
+            if(count >= table.threshold / 2){
+                if(capacity == MAXIMUM_SEGMENT_CAPACITY){
+                    throw new IllegalStateException("LongMap segment reached its maximum capacity");
+                }
+                capacity <<= 1;
+            }
+            Table newTable = new Table(capacity);
+            int used = 0;
+            for (int i = 0; i < table.capacity; i++) {
+                Object value = table.values.get(i);
+                if(value == null) continue;
+                long key = table.keys.get(i);
+                int index = (int) ((hashStrategy.hash(key) << segmentBits) >>> newTable.shift);
+                while (newTable.keys.get(index) != FREE_KEY) {
+                    index = (index + 1) & newTable.mask;
+                }
+                newTable.values.set(index, value);
+                newTable.keys.set(index, key);
+                used++;
+            }
+            usedSlots = used;
+            this.table = newTable;
+        }
+
+        V remove(long key, long hash) {
+            lock();
+            try {
+                if(key == FREE_KEY){
+                    Object previousValue = zeroValue;
+                    zeroValue = null;
+                    if(previousValue != null) decrement();
+                    return (V) previousValue;
+                }
+                Table table = this.table;
+                int index = (int) (hash >>> table.shift);
+                long current;
+                while ((current = table.keys.get(index)) != FREE_KEY) {
+                    if(current == key){
+                        Object previousValue = table.values.getAndSet(index, null);
+                        if(previousValue != null) decrement();
+                        return (V) previousValue;
+                    }
+                    index = (index + 1) & table.mask;
+                }
+                return null;
+            } finally {
+                unlock();
+            }
+        }
+
+        V update(long key, long hash, LongObjFunction<? super V, ? extends V> remappingFunction,
+                 boolean whenAbsent, boolean whenPresent, boolean returnPrevious) {
+            lock();
+            try {
+                V oldValue = get(key, hash);
+                if(oldValue == null ? !whenAbsent : !whenPresent) return oldValue;
+                V newValue = remappingFunction.apply(key, oldValue);
+                if(newValue != null){
+                    put(key, hash, newValue);
+                } else if(oldValue != null){
+                    remove(key, hash);
+                }
+                return returnPrevious ? oldValue : newValue;
+            } finally {
+                unlock();
+            }
+        }
+
+        boolean replace(long key, long hash, Object oldValue, V newValue) {
+            lock();
+            try {
+                V current = get(key, hash);
+                if(current == null || !current.equals(oldValue)) return false;
+                put(key, hash, newValue);
+                return true;
+            } finally {
+                unlock();
+            }
+        }
+
+        private void decrement() {
+            count--;
+            size.decrement();
+        }
+
+        boolean containsValue(Object value) {
+            if(value.equals(zeroValue)) return true;
+            Table table = this.table;
+            for (int i = 0; i < table.capacity; i++) {
+                if(value.equals(table.values.get(i))) return true;
+            }
+            return false;
+        }
+
+        void clear() {
+            lock();
+            try {
+                table = new Table(initialCapacity);
+                zeroValue = null;
+                size.add(-count);
+                count = 0;
+                usedSlots = 0;
+            } finally {
+                unlock();
+            }
+        }
+    }
+}
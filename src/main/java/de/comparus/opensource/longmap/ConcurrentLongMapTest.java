@@ -0,0 +1,266 @@
+package de.comparus.opensource.longmap;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@TestClassOrder(ClassOrderer.OrderAnnotation.class)
+@DisplayName("ConcurrentLongMap Test")
+class ConcurrentLongMapTest {
+    static final int THREADS = 8;
+
+    @Nested
+    @Order(1)
+    @DisplayName("1. ConcurrentLongMap methods Test")
+    @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+    class MapMethodsTest {
+        ConcurrentLongMap<String> stringLongMap;
+
+        @BeforeEach
+        void init() {
+            stringLongMap = new ConcurrentLongMap<>(4);
+        }
+
+        @Test
+        @Order(1)
+        @DisplayName("Put, get and remove behave like a plain map")
+        void putGetRemove() {
+            assertNull(stringLongMap.put(1L, "one"));
+            assertThat(stringLongMap.put(1L, "uno")).isEqualTo("one");
+            assertNull(stringLongMap.put(0L, "zero"));
+
+            assertThat(stringLongMap.get(1L)).isEqualTo("uno");
+            assertThat(stringLongMap.get(0L)).isEqualTo("zero");
+            assertThat(stringLongMap.size()).isEqualTo(2L);
+            assertThat(stringLongMap.remove(1L)).isEqualTo("uno");
+            assertNull(stringLongMap.remove(1L));
+            assertThat(stringLongMap.containsKey(1L)).isFalse();
+            assertThat(stringLongMap.size()).isEqualTo(1L);
+        }
+
+        @Test
+        @Order(2)
+        @DisplayName("Put throws exception when value is null")
+        void putNullValue() {
+            assertThatThrownBy(() -> stringLongMap.put(1L, null)).isInstanceOf(NullPointerException.class);
+        }
+
+        @Test
+        @Order(3)
+        @DisplayName("Removed keys can be added again after the segment rehashes")
+        void reinsertAfterRemoveAndRehash() {
+            for (long key = 1; key <= 10_000; key++) {
+                stringLongMap.put(key, "v" + key);
+                stringLongMap.remove(key - 1);
+            }
+            stringLongMap.put(5L, "again");
+
+            assertThat(stringLongMap.size()).isEqualTo(2L);
+            assertThat(stringLongMap.keys()).containsExactlyInAnyOrder(5L, 10_000L);
+            assertThat(stringLongMap.values()).containsExactlyInAnyOrder("again", "v10000");
+            assertThat(stringLongMap.containsValue("again")).isTrue();
+        }
+
+        @Test
+        @Order(4)
+        @DisplayName("Clear removes all entries and resets the size")
+        void clearTest() {
+            for (long key = 0; key < 1_000; key++) {
+                stringLongMap.put(key, "v" + key);
+            }
+            stringLongMap.clear();
+
+            assertThat(stringLongMap.isEmpty()).isTrue();
+            assertThat(stringLongMap.size()).isEqualTo(0L);
+            assertNull(stringLongMap.get(0L));
+            assertNull(stringLongMap.values());
+        }
+
+        @Test
+        @Order(5)
+        @DisplayName("ForEach and cursor skip removed slots and cursor removal updates the map")
+        void forEachAndCursor() {
+            for (long key = 0; key < 1_000; key++) {
+                stringLongMap.put(key, "v" + key);
+            }
+            stringLongMap.remove(7L);
+            long[] visited = new long[1_000];
+            stringLongMap.forEach((key, value) -> visited[(int) key]++);
+            LongMapCursor<String> cursor = stringLongMap.cursor();
+            while (cursor.advance()) {
+                assertThat(cursor.value()).isEqualTo("v" + cursor.key());
+                if(cursor.key() % 2 == 0) cursor.remove();
+            }
+
+            assertThat(visited[7]).isZero();
+            assertThat(visited[8]).isEqualTo(1L);
+            assertThat(stringLongMap.size()).isEqualTo(499L);
+            assertNull(stringLongMap.get(0L));
+            assertThat(stringLongMap.get(1L)).isEqualTo("v1");
+        }
+
+        @Test
+        @Order(6)
+        @DisplayName("Bulk operations fall back to single-key operations")
+        void bulkOperations() {
+            stringLongMap.putAll(new long[]{1L, 2L, 3L}, new String[]{"v1", "v2", "v3"});
+            String[] results = new String[2];
+            stringLongMap.getAll(new long[]{2L, 4L}, results);
+
+            assertThat(results).containsExactly("v2", null);
+            assertThat(stringLongMap.containsAll(new long[]{1L, 3L})).isTrue();
+            assertThat(stringLongMap.removeAll(new long[]{1L, 4L})).isEqualTo(1);
+            assertThat(stringLongMap.size()).isEqualTo(2L);
+        }
+    }
+
+    @Nested
+    @Order(2)
+    @DisplayName("2. ConcurrentLongMap concurrency Test")
+    @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+    class ConcurrencyTest {
+
+        @Test
+        @Order(1)
+        @DisplayName("Concurrent writers of disjoint key ranges do not lose updates")
+        void concurrentWriters() throws Exception {
+            ConcurrentLongMap<Long> longMap = new ConcurrentLongMap<>();
+            final int perThread = 50_000;
+            runConcurrently(thread -> {
+                for (long key = (long) thread * perThread; key < (long) (thread + 1) * perThread; key++) {
+                    longMap.put(key, key);
+                }
+            });
+
+            assertThat(longMap.size()).isEqualTo((long) THREADS * perThread);
+            for (long key = 0; key < (long) THREADS * perThread; key++) {
+                assertThat(longMap.get(key)).isEqualTo(key);
+            }
+        }
+
+        @Test
+        @Order(2)
+        @DisplayName("Lock-free readers never see a value of another key while writers resize")
+        void readersDuringResize() throws Exception {
+            ConcurrentLongMap<Long> longMap = new ConcurrentLongMap<>(2);
+            AtomicBoolean writing = new AtomicBoolean(true);
+            AtomicInteger wrongReads = new AtomicInteger();
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            try {
+                List<Future<?>> readers = new ArrayList<>();
+                for (int i = 0; i < THREADS - 1; i++) {
+                    readers.add(executor.submit(() -> {
+                        ThreadLocalRandom random = ThreadLocalRandom.current();
+                        while (writing.get()) {
+                            long key = random.nextLong(200_000);
+                            Long value = longMap.get(key);
+                            if(value != null && value != key) wrongReads.incrementAndGet();
+                        }
+                    }));
+                }
+                for (long key = 0; key < 200_000; key++) {
+                    longMap.put(key, key);
+                }
+                writing.set(false);
+                for (Future<?> reader : readers) {
+                    reader.get(30, TimeUnit.SECONDS);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            assertThat(wrongReads.get()).isZero();
+            assertThat(longMap.size()).isEqualTo(200_000L);
+        }
+
+        @Test
+        @Order(3)
+        @DisplayName("Concurrent merges of shared counters do not lose increments")
+        void concurrentMerges() throws Exception {
+            ConcurrentLongMap<Long> longMap = new ConcurrentLongMap<>(2);
+            final int increments = 20_000;
+            runConcurrently(thread -> {
+                for (int i = 0; i < increments; i++) {
+                    longMap.merge(i % 100, 1L, Long::sum);
+                    longMap.computeIfAbsent(1_000 + i % 10, key -> key);
+                }
+            });
+
+            assertThat(longMap.size()).isEqualTo(110L);
+            for (long key = 0; key < 100; key++) {
+                assertThat(longMap.get(key)).isEqualTo((long) THREADS * increments / 100);
+            }
+            assertThat(longMap.get(1_005L)).isEqualTo(1_005L);
+        }
+
+        @Test
+        @Order(4)
+        @DisplayName("Iteration during concurrent inserts never reports a slot whose key is not yet published")
+        void iterationDuringInserts() throws Exception {
+            ConcurrentLongMap<Long> longMap = new ConcurrentLongMap<>(2);
+            longMap.put(0L, 0L);
+            AtomicBoolean writing = new AtomicBoolean(true);
+            AtomicInteger wrongEntries = new AtomicInteger();
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            try {
+                Future<?> iterator = executor.submit(() -> {
+                    LongMapCursor<Long> cursor = longMap.cursor();
+                    while (writing.get()) {
+                        longMap.forEach((key, value) -> {
+                            if(key != value) wrongEntries.incrementAndGet();
+                        });
+                        cursor.reset();
+                        while (cursor.advance()) {
+                            if(cursor.key() != cursor.value()) wrongEntries.incrementAndGet();
+                        }
+                    }
+                });
+                for (long key = 1; key < 200_000; key++) {
+                    longMap.put(key, key);
+                }
+                writing.set(false);
+                iterator.get(30, TimeUnit.SECONDS);
+            } finally {
+                executor.shutdownNow();
+            }
+
+            assertThat(wrongEntries.get()).isZero();
+            assertThat(longMap.get(0L)).isEqualTo(0L);
+        }
+    }
+
+    private void runConcurrently(ThreadTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                final int thread = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run(thread);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThreadTask {
+        void run(int thread);
+    }
+}
@@ -0,0 +1,54 @@
+package de.comparus.opensource.longmap;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+final class DirectBuffers {
+    private static final Releaser RELEASER = findReleaser();
+
+    private DirectBuffers() {
+    }
+
+    static void release(ByteBuffer buffer) {
+        if(buffer != null && buffer.isDirect()){
+            RELEASER.release(buffer);
+        }
+    }
+
+    private static Releaser findReleaser() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            Object unsafe = theUnsafe.get(null);
+            return buffer -> invokeQuietly(invokeCleaner, unsafe, buffer);
+        } catch (ReflectiveOperationException | RuntimeException ignored) {
+            // Java 8: fall through to DirectBuffer.cleaner()
+        }
+        try {
+            Method cleanerMethod = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+            Method cleanMethod = Class.forName("sun.misc.Cleaner").getMethod("clean");
+            return buffer -> {
+                Object cleaner = invokeQuietly(cleanerMethod, buffer);
+                if(cleaner != null) invokeQuietly(cleanMethod, cleaner);
+            };
+        } catch (ReflectiveOperationException | RuntimeException ignored) {
+            return buffer -> { };
+        }
+    }
+
+    private static Object invokeQuietly(Method method, Object target, Object... arguments) {
+        try {
+            return method.invoke(target, arguments);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Releaser {
+        void release(ByteBuffer buffer);
+    }
+}
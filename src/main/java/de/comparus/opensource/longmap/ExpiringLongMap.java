@@ -0,0 +1,255 @@
+package de.comparus.opensource.longmap;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link LongMap} whose entries expire a time to live after they were written or, with
+ * {@link Expiry#AFTER_ACCESS}, last read. The default time to live can be overridden per entry.
+ * <p>
+ * Entries are filed in a hierarchical timer wheel threaded through the dense entry arrays: 64
+ * buckets of about a second, 64 of about a minute, 32 of about an hour, 4 of about 20 hours and
+ * one overflow bucket. Every operation advances the wheel to the ticker time and only visits the
+ * buckets whose tick has passed, expiring their due entries and refiling the others on a finer
+ * level, so expiry costs amortized O(1) per entry and never scans the table.
+ * <p>
+ * {@link #get(long)} and {@link #containsKey(long)} never return an expired entry. Entries due
+ * within the current second are reaped when their bucket passes, so {@link #size()} and the scans
+ * may still include them; {@link #cleanUp()} reaps everything that is due.
+ */
+public class ExpiringLongMap<V> extends AbstractEntryLongMap<V> {
+    private static final int[] BUCKETS = {64, 64, 32, 4, 1};
+    private static final int[] SHIFTS = {30, 36, 42, 46, 50};
+    private static final int[] OFFSETS = {0, 64, 128, 160, 164};
+    private static final int WHEEL_SIZE = 165;
+    private static final long MAXIMUM_DURATION = Long.MAX_VALUE >>> 1;
+    private final long defaultTimeToLive;
+    private final Expiry expiry;
+    private final LongMapTicker ticker;
+    private final long origin;
+    private final int[] bucketHeads = new int[WHEEL_SIZE];
+    private long[] expirations;
+    private long[] timesToLive;
+    private int[] entryBuckets;
+    private long nanos;
+    private long expirationCount;
+
+    public ExpiringLongMap(long duration, TimeUnit unit) {
+        this(duration, unit, Expiry.AFTER_WRITE);
+    }
+
+    public ExpiringLongMap(long duration, TimeUnit unit, Expiry expiry) {
+        this(duration, unit, expiry, LongMapTicker.SYSTEM);
+    }
+
+    public ExpiringLongMap(long duration, TimeUnit unit, Expiry expiry, LongMapTicker ticker) {
+        super(LongHashStrategy.MURMUR3);
+        this.defaultTimeToLive = toNanos(duration, unit);
+        this.expiry = Objects.requireNonNull(expiry);
+        this.ticker = Objects.requireNonNull(ticker);
+        this.origin = ticker.read();
+        Arrays.fill(bucketHeads, NONE);
+    }
+
+    private static long toNanos(long duration, TimeUnit unit) {
+        if(duration < 0){
+            throw new IllegalArgumentException("Duration must not be negative: " + duration);
+        }
+        return Math.min(unit.toNanos(duration), MAXIMUM_DURATION);
+    }
+
+    @Override
+    void resizeEntries(int capacity) {
+        expirations = resize(expirations, capacity);
+        timesToLive = resize(timesToLive, capacity);
+        entryBuckets = resize(entryBuckets, capacity);
+    }
+
+    private static int bucketFor(long time, long now) {
+        long delay = time - now;
+        int level = 0;
+        while (level < SHIFTS.length - 1 && delay >= 1L << SHIFTS[level + 1]) {
+            level++;
+        }
+        return OFFSETS[level] + (int) ((time >>> SHIFTS[level]) & (BUCKETS[level] - 1));
+    }
+
+    private void schedule(int entry) {
+        int bucket = bucketFor(expirations[entry], nanos);
+        int head = bucketHeads[bucket];
+        entryBuckets[entry] = bucket;
+        previous[entry] = NONE;
+        next[entry] = head;
+        if(head != NONE) previous[head] = entry;
+        bucketHeads[bucket] = entry;
+    }
+
+    private void unschedule(int entry) {
+        int before = previous[entry];
+        int after = next[entry];
+        if(before == NONE){
+            bucketHeads[entryBuckets[entry]] = after;
+        } else {
+            next[before] = after;
+        }
+        if(after != NONE) previous[after] = before;
+    }
+
+    private void reschedule(int entry, long timeToLive) {
+        unschedule(entry);
+        timesToLive[entry] = timeToLive;
+        expirations[entry] = nanos + timeToLive;
+        schedule(entry);
+    }
+
+    private void expireEntries() {
+        long now = ticker.read() - origin;
+        if(now <= nanos) return;
+        long previousTime = nanos;
+        nanos = now;
+        for (int level = 0; level < SHIFTS.length; level++) {
+            long previousTicks = previousTime >>> SHIFTS[level];
+            long delta = (now >>> SHIFTS[level]) - previousTicks;
+            if(delta <= 0) break;
+            expireBuckets(level, previousTicks, delta);
+        }
+    }
+
+    /**
+     * Detaches each passed bucket before walking it, so entries refiled into the same bucket
+     * are not visited twice.
+     */
+    private void expireBuckets(int level, long previousTicks, long delta) {
+        int mask = BUCKETS[level] - 1;
+        int steps = (int) Math.min(delta + 1, BUCKETS[level]);
+        int start = (int) (previousTicks & mask);
+        for (int i = start; i < start + steps; i++) {
+            int bucket = OFFSETS[level] + (i & mask);
+            int entry = bucketHeads[bucket];
+            bucketHeads[bucket] = NONE;
+            while (entry != NONE) {
+                int following = next[entry];
+                if(isExpired(entry)){
+                    detachKey(entryKeys[entry]);
+                    releaseEntry(entry);
+                    expirationCount++;
+                } else {
+                    schedule(entry);
+                }
+                entry = following;
+            }
+        }
+    }
+
+    private boolean isExpired(int entry) {
+        return expirations[entry] <= nanos;
+    }
+
+    private void expire(int entry) {
+        detachKey(entryKeys[entry]);
+        discardEntry(entry);
+        expirationCount++;
+    }
+
+    /**
+     * Returns the live entry of {@code key} or {@link #NONE}, expiring a due entry on the way.
+     */
+    private int liveEntryFor(long key) {
+        expireEntries();
+        int entry = entryFor(key);
+        if(entry != NONE && isExpired(entry)){
+            expire(entry);
+            return NONE;
+        }
+        return entry;
+    }
+
+    @Override
+    public V put(long key, V value) {
+        return put(key, value, defaultTimeToLive);
+    }
+
+    public V put(long key, V value, long duration, TimeUnit unit) {
+        return put(key, value, toNanos(duration, unit));
+    }
+
+    private V put(long key, V value, long timeToLive) {
+        int entry = liveEntryFor(key);
+        if(entry != NONE){
+            V previousValue = valueOf(entry);
+            entryValues[entry] = value;
+            reschedule(entry, timeToLive);
+            return previousValue;
+        }
+        entry = newEntry(key, value);
+        timesToLive[entry] = timeToLive;
+        expirations[entry] = nanos + timeToLive;
+        schedule(entry);
+        insertEntry(entry);
+        return null;
+    }
+
+    @Override
+    public V get(long key) {
+        int entry = liveEntryFor(key);
+        if(entry == NONE) return null;
+        if(expiry == Expiry.AFTER_ACCESS) reschedule(entry, timesToLive[entry]);
+        return valueOf(entry);
+    }
+
+    @Override
+    public boolean containsKey(long key) {
+        return liveEntryFor(key) != NONE;
+    }
+
+    @Override
+    public V remove(long key) {
+        expireEntries();
+        return super.remove(key);
+    }
+
+    @Override
+    void discardEntry(int entry) {
+        unschedule(entry);
+        releaseEntry(entry);
+    }
+
+    /**
+     * Advances the wheel and also reaps the due entries of the current bucket, after which
+     * {@link #size()} and the scans only see live entries.
+     */
+    public void cleanUp() {
+        expireEntries();
+        int entry = bucketHeads[bucketFor(nanos, nanos)];
+        while (entry != NONE) {
+            int following = next[entry];
+            if(isExpired(entry)) expire(entry);
+            entry = following;
+        }
+    }
+
+    /**
+     * Returns the remaining time to live of {@code key} in {@code unit}, or {@code -1} when the
+     * key is absent or expired.
+     */
+    public long timeToLive(long key, TimeUnit unit) {
+        int entry = liveEntryFor(key);
+        return entry == NONE ? -1 : unit.convert(expirations[entry] - nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public long expirationCount() {
+        return expirationCount;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        Arrays.fill(bucketHeads, NONE);
+    }
+
+    public enum Expiry {
+        AFTER_WRITE,
+        AFTER_ACCESS
+    }
+}
@@ -0,0 +1,127 @@
+package de.comparus.opensource.longmap;
+
+import org.junit.jupiter.api.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("ExpiringLongMap Test")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ExpiringLongMapTest {
+    long time;
+    LongMapTicker ticker = () -> time;
+
+    private void advance(long duration, TimeUnit unit) {
+        time += unit.toNanos(duration);
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Entries expire after write and are reaped once their bucket passes")
+    void expireAfterWrite() {
+        ExpiringLongMap<String> longMap = new ExpiringLongMap<>(10, TimeUnit.SECONDS, ExpiringLongMap.Expiry.AFTER_WRITE, ticker);
+        longMap.put(1L, "a");
+        longMap.put(0L, "zero");
+        advance(9, TimeUnit.SECONDS);
+        assertThat(longMap.get(1L)).isEqualTo("a");
+        assertThat(longMap.timeToLive(0L, TimeUnit.SECONDS)).isEqualTo(1L);
+
+        advance(1, TimeUnit.SECONDS);
+        assertThat(longMap.get(1L)).isNull();
+        assertThat(longMap.containsKey(0L)).isFalse();
+        assertThat(longMap.isEmpty()).isTrue();
+
+        longMap.put(2L, "b");
+        advance(12, TimeUnit.SECONDS);
+        longMap.put(3L, "c");
+        assertThat(longMap.keys()).containsExactly(3L);
+        assertThat(longMap.expirationCount()).isEqualTo(3L);
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Reads extend entries that expire after access, writes reset the per-entry time to live")
+    void expireAfterAccess() {
+        ExpiringLongMap<String> longMap = new ExpiringLongMap<>(10, TimeUnit.SECONDS, ExpiringLongMap.Expiry.AFTER_ACCESS, ticker);
+        longMap.put(1L, "a");
+        longMap.put(2L, "b", 1, TimeUnit.HOURS);
+        for (int i = 0; i < 10; i++) {
+            advance(5, TimeUnit.SECONDS);
+            assertThat(longMap.get(1L)).isEqualTo("a");
+        }
+        advance(11, TimeUnit.SECONDS);
+        assertThat(longMap.get(1L)).isNull();
+        assertThat(longMap.get(2L)).isEqualTo("b");
+
+        assertThat(longMap.put(2L, "c")).isEqualTo("b");
+        advance(10, TimeUnit.SECONDS);
+        assertThat(longMap.get(2L)).isNull();
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Random time to live from a second to weeks expires exactly on time")
+    void randomTimesToLive() {
+        ExpiringLongMap<Long> longMap = new ExpiringLongMap<>(1, TimeUnit.MINUTES, ExpiringLongMap.Expiry.AFTER_WRITE, ticker);
+        Map<Long, Long> expirations = new HashMap<>();
+        Random random = new Random(5);
+        long horizon = TimeUnit.DAYS.toNanos(40);
+        for (int i = 0; i < 3_000; i++) {
+            long key = random.nextInt(5_000);
+            long timeToLive = 1 + (long) (Math.pow(random.nextDouble(), 4) * horizon);
+            longMap.put(key, key, timeToLive, TimeUnit.NANOSECONDS);
+            expirations.put(key, time + timeToLive);
+            if(random.nextInt(10) == 0){
+                longMap.remove(key);
+                expirations.remove(key);
+            }
+            time += random.nextInt(1_000_000);
+        }
+
+        while (!expirations.isEmpty()) {
+            time += (long) (random.nextDouble() * TimeUnit.HOURS.toNanos(20));
+            longMap.cleanUp();
+            expirations.values().removeIf(expiration -> expiration <= time);
+            assertThat(longMap.size()).isEqualTo(expirations.size());
+            long[] live = new long[1];
+            longMap.forEach((key, value) -> {
+                assertThat(expirations).containsKey(key);
+                live[0]++;
+            });
+            assertThat(live[0]).isEqualTo(expirations.size());
+        }
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Removal, cursor removal and clear keep the wheel consistent")
+    void removalKeepsWheelConsistent() {
+        ExpiringLongMap<String> longMap = new ExpiringLongMap<>(30, TimeUnit.SECONDS, ExpiringLongMap.Expiry.AFTER_WRITE, ticker);
+        for (long key = 0; key < 100; key++) {
+            longMap.put(key, "v" + key);
+        }
+        assertThat(longMap.remove(7L)).isEqualTo("v7");
+        LongMapCursor<String> cursor = longMap.cursor();
+        while (cursor.advance()) {
+            if(cursor.key() % 2 == 0) cursor.remove();
+        }
+        assertThat(longMap.size()).isEqualTo(49L);
+
+        advance(31, TimeUnit.SECONDS);
+        longMap.cleanUp();
+        assertThat(longMap.isEmpty()).isTrue();
+        assertThat(longMap.expirationCount()).isEqualTo(49L);
+
+        longMap.put(1L, "a");
+        longMap.clear();
+        advance(31, TimeUnit.SECONDS);
+        longMap.cleanUp();
+        assertThat(longMap.expirationCount()).isEqualTo(49L);
+        assertThatThrownBy(() -> longMap.put(1L, "a", -1, TimeUnit.SECONDS)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,31 @@
+package de.comparus.opensource.longmap;
+
+/**
+ * Shallow heap sizes under the common 64-bit HotSpot layout with compressed references: 12 byte
+ * object headers, 16 byte array headers, 4 byte references and 8 byte alignment. Heaps of 32 GB
+ * or more use 8 byte references, so estimates built from these sizes are lower bounds there.
+ */
+final class Footprint {
+    static final int OBJECT_HEADER_BYTES = 12;
+    static final int ARRAY_HEADER_BYTES = 16;
+    static final int REFERENCE_BYTES = 4;
+
+    private Footprint() {
+    }
+
+    static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    static long objectBytes(int fieldBytes) {
+        return align(OBJECT_HEADER_BYTES + fieldBytes);
+    }
+
+    static long referenceArrayBytes(long length) {
+        return align(ARRAY_HEADER_BYTES + length * REFERENCE_BYTES);
+    }
+
+    static long longArrayBytes(long length) {
+        return align(ARRAY_HEADER_BYTES + length * Long.BYTES);
+    }
+}
@@ -0,0 +1,91 @@
+package de.comparus.opensource.longmap;
+
+import java.util.Arrays;
+
+/**
+ * Count-min sketch of 4-bit counters, sixteen to a {@code long}, estimating how often each key was
+ * seen recently. Every counter is halved once the number of increments reaches the sample size,
+ * so that the estimate follows changes in popularity. The table starts at the expected number of
+ * keys and {@link #ensureCapacity(long)} grows it, forgetting the counts, when more keys are held.
+ */
+final class FrequencySketch {
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final int MAXIMUM_TABLE_SIZE = 1 << 26;
+    private static final int MAXIMUM_COUNT = 15;
+    private long[] table;
+    private int tableMask;
+    private int sampleSize;
+    private int additions;
+
+    FrequencySketch(long expectedKeys) {
+        allocate(tableSizeFor(expectedKeys));
+    }
+
+    private static int tableSizeFor(long expectedKeys) {
+        return AbstractLongHashTable.tableSizeFor((int) Math.min(Math.max(expectedKeys, 16), MAXIMUM_TABLE_SIZE));
+    }
+
+    private void allocate(int tableSize) {
+        table = new long[tableSize];
+        tableMask = tableSize - 1;
+        sampleSize = 10 * tableSize;
+        additions = 0;
+    }
+
+    void ensureCapacity(long expectedKeys) {
+        if(expectedKeys > table.length && table.length < MAXIMUM_TABLE_SIZE){
+            allocate(tableSizeFor(expectedKeys));
+        }
+    }
+
+    int tableSize() {
+        return table.length;
+    }
+
+    private static long mix(long hash, int row) {
+        long mixed = (hash + SEEDS[row]) * SEEDS[row];
+        return mixed ^ (mixed >>> 29);
+    }
+
+    int frequency(long key) {
+        long hash = LongHashStrategy.fmix64(key);
+        int frequency = MAXIMUM_COUNT;
+        for (int row = 0; row < SEEDS.length; row++) {
+            long mixed = mix(hash, row);
+            int shift = (int) (mixed >>> 60) << 2;
+            frequency = Math.min(frequency, (int) (table[(int) mixed & tableMask] >>> shift) & MAXIMUM_COUNT);
+        }
+        return frequency;
+    }
+
+    void increment(long key) {
+        long hash = LongHashStrategy.fmix64(key);
+        boolean added = false;
+        for (int row = 0; row < SEEDS.length; row++) {
+            long mixed = mix(hash, row);
+            int index = (int) mixed & tableMask;
+            int shift = (int) (mixed >>> 60) << 2;
+            if(((table[index] >>> shift) & MAXIMUM_COUNT) != MAXIMUM_COUNT){
+                table[index] += 1L << shift;
+                added = true;
+            }
+        }
+        if(added && ++additions == sampleSize){
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions >>>= 1;
+    }
+
+    void clear() {
+        Arrays.fill(table, 0L);
+        additions = 0;
+    }
+}
@@ -0,0 +1,310 @@
+package de.comparus.opensource.longmap;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Immutable {@link LongMap} for data that is built once and then only read. Keys are sorted and
+ * cut into blocks of 64: a sparse index keeps the first key of every block, and the other keys
+ * are stored as unsigned varint deltas to their predecessor, so dense key ranges take about a
+ * byte per key. A lookup binary searches the index and decodes at most one block. The values
+ * are kept in key order, so scans and cursors walk the entries sorted by key.
+ * <p>
+ * All state is final and never written after construction, so instances can be shared across
+ * threads without synchronization. Every mutator throws {@link UnsupportedOperationException}.
+ */
+public final class FrozenLongMap<V> implements LongMap<V> {
+    private static final int BLOCK_SHIFT = 6;
+    private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+    private final int size;
+    private final long[] blockFirstKeys;
+    private final int[] blockOffsets;
+    private final byte[] deltas;
+    private final Object[] values;
+
+    private FrozenLongMap(long[] keys, Object[] values) {
+        this.size = keys.length;
+        this.values = values;
+        int blocks = (size + BLOCK_SIZE - 1) >>> BLOCK_SHIFT;
+        this.blockFirstKeys = new long[blocks];
+        this.blockOffsets = new int[blocks];
+        int length = 0;
+        for (int i = 1; i < size; i++) {
+            if((i & (BLOCK_SIZE - 1)) != 0) length += varintLength(keys[i] - keys[i - 1]);
+        }
+        this.deltas = new byte[length];
+        int offset = 0;
+        for (int i = 0; i < size; i++) {
+            if((i & (BLOCK_SIZE - 1)) == 0){
+                blockFirstKeys[i >>> BLOCK_SHIFT] = keys[i];
+                blockOffsets[i >>> BLOCK_SHIFT] = offset;
+            } else {
+                offset = writeVarint(keys[i] - keys[i - 1], offset);
+            }
+        }
+    }
+
+    /**
+     * Copies the entries of {@code source}, which must not change during the copy.
+     */
+    public static <V> FrozenLongMap<V> copyOf(LongMap<? extends V> source) {
+        if(source instanceof FrozenLongMap) return (FrozenLongMap<V>) source;
+        int capacity = (int) Math.min(source.size(), Integer.MAX_VALUE - 8);
+        long[][] keys = {new long[capacity]};
+        Object[][] values = {new Object[capacity]};
+        int[] count = {0};
+        source.forEach((key, value) -> {
+            int position = count[0]++;
+            if(position == keys[0].length){
+                int grown = Math.max(16, position + (position >>> 1));
+                keys[0] = Arrays.copyOf(keys[0], grown);
+                values[0] = Arrays.copyOf(values[0], grown);
+            }
+            keys[0][position] = key;
+            values[0][position] = value;
+        });
+        return of(keys[0], values[0], count[0]);
+    }
+
+    private static <V> FrozenLongMap<V> of(long[] keys, Object[] values, int length) {
+        if(keys.length != length){
+            keys = Arrays.copyOf(keys, length);
+            values = Arrays.copyOf(values, length);
+        }
+        for (int i = 1; i < length; i++) {
+            if(keys[i - 1] >= keys[i]){
+                sort(keys, values, 0, length);
+                break;
+            }
+        }
+        return new FrozenLongMap<>(keys, values);
+    }
+
+    /**
+     * Quicksort of the keys that moves the values along; keys are unique.
+     */
+    private static void sort(long[] keys, Object[] values, int from, int to) {
+        while (to - from > INSERTION_SORT_THRESHOLD) {
+            int middle = (from + to) >>> 1;
+            if(keys[middle] < keys[from]) swap(keys, values, middle, from);
+            if(keys[to - 1] < keys[from]) swap(keys, values, to - 1, from);
+            if(keys[to - 1] < keys[middle]) swap(keys, values, to - 1, middle);
+            long pivot = keys[middle];
+            int low = from;
+            int high = to - 1;
+            while (low <= high) {
+                while (keys[low] < pivot) low++;
+                while (keys[high] > pivot) high--;
+                if(low <= high) swap(keys, values, low++, high--);
+            }
+            if(high - from < to - low){
+                sort(keys, values, from, high + 1);
+                from = low;
+            } else {
+                sort(keys, values, low, to);
+                to = high + 1;
+            }
+        }
+        for (int i = from + 1; i < to; i++) {
+            for (int j = i; j > from && keys[j - 1] > keys[j]; j--) {
+                swap(keys, values, j - 1, j);
+            }
+        }
+    }
+
+    private static void swap(long[] keys, Object[] values, int i, int j) {
+        long key = keys[i];
+        keys[i] = keys[j];
+        keys[j] = key;
+        Object value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+    }
+
+    private static int varintLength(long value) {
+        int length = 1;
+        while ((value >>>= 7) != 0) {
+            length++;
+        }
+        return length;
+    }
+
+    private int writeVarint(long value, int offset) {
+        while ((value & ~0x7fL) != 0) {
+            deltas[offset++] = (byte) (value | 0x80);
+            value >>>= 7;
+        }
+        deltas[offset++] = (byte) value;
+        return offset;
+    }
+
+    private long readVarint(int offset) {
+        long value = 0;
+        int shift = 0;
+        byte next;
+        do {
+            next = deltas[offset++];
+            value |= (long) (next & 0x7f) << shift;
+            shift += 7;
+        } while (next < 0);
+        return value;
+    }
+
+    private int indexOf(long key) {
+        int block = Arrays.binarySearch(blockFirstKeys, key);
+        if(block >= 0) return block << BLOCK_SHIFT;
+        block = -block - 2;
+        if(block < 0) return -1;
+        int index = block << BLOCK_SHIFT;
+        int end = Math.min(size, index + BLOCK_SIZE);
+        int offset = blockOffsets[block];
+        long current = blockFirstKeys[block];
+        while (++index < end) {
+            long delta = readVarint(offset);
+            offset += varintLength(delta);
+            current += delta;
+            if(current == key) return index;
+            if(current > key) return -1;
+        }
+        return -1;
+    }
+
+    @Override
+    public V get(long key) {
+        int index = indexOf(key);
+        return index >= 0 ? (V) values[index] : null;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(long key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(V value) {
+        for (Object current : values) {
+            if(Objects.equals(current, value)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public long[] keys() {
+        long[] result = new long[size];
+        int position = 0;
+        Cursor cursor = new Cursor();
+        while (cursor.advance()) {
+            result[position++] = cursor.key;
+        }
+        return result;
+    }
+
+    @Override
+    public V[] values() {
+        return LongMapArrays.toTypedArray(values, size);
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public void forEach(LongObjConsumer<? super V> action) {
+        Cursor cursor = new Cursor();
+        while (cursor.advance()) {
+            action.accept(cursor.key, (V) values[cursor.index]);
+        }
+    }
+
+    @Override
+    public LongMapCursor<V> cursor() {
+        return new Cursor();
+    }
+
+    @Override
+    public FrozenLongMap<V> freeze() {
+        return this;
+    }
+
+    int encodedKeyBytes() {
+        return blockFirstKeys.length * (Long.BYTES + Integer.BYTES) + deltas.length;
+    }
+
+    @Override
+    public V put(long key, V value) {
+        throw new UnsupportedOperationException("FrozenLongMap is immutable");
+    }
+
+    @Override
+    public V remove(long key) {
+        throw new UnsupportedOperationException("FrozenLongMap is immutable");
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("FrozenLongMap is immutable");
+    }
+
+    private final class Cursor implements LongMapCursor<V> {
+        private int index;
+        private int offset;
+        private long key;
+
+        Cursor() {
+            reset();
+        }
+
+        @Override
+        public boolean advance() {
+            if(index + 1 >= size){
+                index = size;
+                return false;
+            }
+            index++;
+            if((index & (BLOCK_SIZE - 1)) == 0){
+                key = blockFirstKeys[index >>> BLOCK_SHIFT];
+                offset = blockOffsets[index >>> BLOCK_SHIFT];
+            } else {
+                long delta = readVarint(offset);
+                offset += varintLength(delta);
+                key += delta;
+            }
+            return true;
+        }
+
+        private void checkPositioned() {
+            if(index < 0 || index >= size){
+                throw new IllegalStateException("Cursor is not positioned on an entry");
+            }
+        }
+
+        @Override
+        public long key() {
+            checkPositioned();
+            return key;
+        }
+
+        @Override
+        public V value() {
+            checkPositioned();
+            return (V) values[index];
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("FrozenLongMap is immutable");
+        }
+
+        @Override
+        public void reset() {
+            index = -1;
+        }
+    }
+}
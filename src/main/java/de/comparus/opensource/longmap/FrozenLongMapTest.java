@@ -0,0 +1,97 @@
+package de.comparus.opensource.longmap;
+
+import org.junit.jupiter.api.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DisplayName("FrozenLongMap Test")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class FrozenLongMapTest {
+
+    @Test
+    @Order(1)
+    @DisplayName("Frozen copy of a hash map answers like the source and walks keys in order")
+    void freezeHashMap() {
+        LongMapImpl<String> source = new LongMapImpl<>();
+        Map<Long, String> expected = new HashMap<>();
+        Random random = new Random(23);
+        for (int i = 0; i < 50_000; i++) {
+            long key = random.nextBoolean() ? random.nextLong() : random.nextInt(100_000);
+            source.put(key, "v" + i);
+            expected.put(key, "v" + i);
+        }
+        source.put(Long.MIN_VALUE, "min");
+        source.put(Long.MAX_VALUE, "max");
+        source.put(0L, "zero");
+        expected.put(Long.MIN_VALUE, "min");
+        expected.put(Long.MAX_VALUE, "max");
+        expected.put(0L, "zero");
+
+        FrozenLongMap<String> frozen = source.freeze();
+
+        assertThat(frozen.size()).isEqualTo(expected.size());
+        for (Map.Entry<Long, String> entry : expected.entrySet()) {
+            assertThat(frozen.get(entry.getKey())).isEqualTo(entry.getValue());
+        }
+        for (int i = 0; i < 10_000; i++) {
+            long key = random.nextLong();
+            assertThat(frozen.containsKey(key)).isEqualTo(expected.containsKey(key));
+        }
+        long[] keys = frozen.keys();
+        long[] sorted = keys.clone();
+        Arrays.sort(sorted);
+        assertThat(keys).containsExactly(sorted);
+        assertThat(keys[0]).isEqualTo(Long.MIN_VALUE);
+        assertThat(keys[keys.length - 1]).isEqualTo(Long.MAX_VALUE);
+
+        LongMapCursor<String> cursor = frozen.cursor();
+        int position = 0;
+        while (cursor.advance()) {
+            assertThat(cursor.key()).isEqualTo(keys[position++]);
+            assertThat(cursor.value()).isEqualTo(expected.get(cursor.key()));
+        }
+        assertThat(position).isEqualTo(keys.length);
+        assertThat(frozen.freeze()).isSameAs(frozen);
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Dense key ranges take about a byte per key")
+    void denseKeysAreCompact() {
+        BTreeLongMap<Long> source = new BTreeLongMap<>();
+        for (long key = 1_000_000; key < 1_100_000; key++) {
+            source.put(key, key);
+        }
+
+        FrozenLongMap<Long> frozen = FrozenLongMap.copyOf(source);
+
+        assertThat(frozen.encodedKeyBytes()).isLessThan(120_000);
+        assertThat(frozen.get(1_054_321L)).isEqualTo(1_054_321L);
+        assertThat(frozen.get(999_999L)).isNull();
+        assertThat(frozen.get(1_100_000L)).isNull();
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Mutators are rejected and an empty map stays readable")
+    void immutable() {
+        FrozenLongMap<String> frozen = new LongMapImpl<String>().freeze();
+
+        assertThat(frozen.isEmpty()).isTrue();
+        assertThat(frozen.keys()).isEmpty();
+        assertNull(frozen.values());
+        assertThat(frozen.get(1L)).isNull();
+        assertThat(frozen.cursor().advance()).isFalse();
+        assertThatThrownBy(() -> frozen.put(1L, "a")).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> frozen.remove(1L)).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(frozen::clear).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> frozen.computeIfAbsent(1L, key -> "a")).isInstanceOf(UnsupportedOperationException.class);
+    }
+}
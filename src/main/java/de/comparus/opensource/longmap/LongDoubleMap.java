@@ -0,0 +1,27 @@
+package de.comparus.opensource.longmap;
+
+public interface LongDoubleMap {
+    double put(long key, double value);
+    double get(long key);
+    double getOrDefault(long key, double defaultValue);
+    double remove(long key);
+
+    /**
+     * Adds {@code increment} to the value of {@code key}, starting from zero when the key is absent,
+     * and returns the new value.
+     */
+    double addTo(long key, double increment);
+    double increment(long key);
+
+    boolean isEmpty();
+    boolean containsKey(long key);
+    boolean containsValue(double value);
+
+    long[] keys();
+    double[] values();
+
+    long size();
+    void clear();
+
+    double noValue();
+}
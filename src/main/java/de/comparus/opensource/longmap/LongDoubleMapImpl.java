@@ -0,0 +1,169 @@
+package de.comparus.opensource.longmap;
+
+public class LongDoubleMapImpl extends AbstractLongHashTable implements LongDoubleMap {
+    private final double noValue;
+    private double[] values;
+    private double[] oldValues;
+    private double freeKeyValue;
+
+    public LongDoubleMapImpl() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongDoubleMapImpl(int initialCapacity) {
+        this(initialCapacity, 0.0);
+    }
+
+    public LongDoubleMapImpl(int initialCapacity, double noValue) {
+        this(initialCapacity, noValue, LongHashStrategy.MURMUR3);
+    }
+
+    public LongDoubleMapImpl(int initialCapacity, double noValue, LongHashStrategy hashStrategy) {
+        super(initialCapacity, MAXIMUM_CAPACITY, hashStrategy);
+        this.noValue = noValue;
+    }
+
+    @Override
+    void allocateValues(int capacity) {
+        values = new double[capacity];
+    }
+
+    @Override
+    void moveValue(int from, int to) {
+        values[to] = values[from];
+    }
+
+    @Override
+    void clearValue(int index) {
+        values[index] = 0.0;
+    }
+
+    @Override
+    void beginRehash(int newCapacity) {
+        oldValues = values;
+        values = new double[newCapacity];
+    }
+
+    @Override
+    void rehashValue(int from, int to) {
+        values[to] = oldValues[from];
+    }
+
+    @Override
+    void endRehash() {
+        oldValues = null;
+    }
+
+    @Override
+    void clearFreeKeyValue() {
+        freeKeyValue = 0.0;
+    }
+
+    @Override
+    public double put(long key, double value) {
+        if(key == FREE_KEY){
+            double previousValue = hasFreeKey ? freeKeyValue : noValue;
+            addFreeKey();
+            freeKeyValue = value;
+            return previousValue;
+        }
+        int slot = findSlot(key);
+        if(slot >= 0){
+            double previousValue = values[slot];
+            values[slot] = value;
+            return previousValue;
+        }
+        int index = insertKey(key, slot);
+        values[index] = value;
+        return noValue;
+    }
+
+    @Override
+    public double get(long key) {
+        return getOrDefault(key, noValue);
+    }
+
+    @Override
+    public double getOrDefault(long key, double defaultValue) {
+        if(key == FREE_KEY) return hasFreeKey ? freeKeyValue : defaultValue;
+        long[] keys = this.keys;
+        int index = indexOf(key);
+        long current;
+        while ((current = keys[index]) != FREE_KEY) {
+            if(current == key) return values[index];
+            index = nextIndex(index);
+        }
+        return defaultValue;
+    }
+
+    @Override
+    public double remove(long key) {
+        if(key == FREE_KEY){
+            if(!hasFreeKey) return noValue;
+            double previousValue = freeKeyValue;
+            removeFreeKey();
+            return previousValue;
+        }
+        int slot = findSlot(key);
+        if(slot < 0) return noValue;
+        double previousValue = values[slot];
+        removeAt(slot);
+        return previousValue;
+    }
+
+    @Override
+    public double addTo(long key, double increment) {
+        if(key == FREE_KEY){
+            freeKeyValue = hasFreeKey ? freeKeyValue + increment : increment;
+            addFreeKey();
+            return freeKeyValue;
+        }
+        int slot = findSlot(key);
+        if(slot >= 0){
+            return values[slot] += increment;
+        }
+        int index = insertKey(key, slot);
+        return values[index] = increment;
+    }
+
+    @Override
+    public double increment(long key) {
+        return addTo(key, 1.0);
+    }
+
+    @Override
+    public boolean containsValue(double value) {
+        if(hasFreeKey && Double.doubleToLongBits(freeKeyValue) == Double.doubleToLongBits(value)) return true;
+        for (int i = 0; i < keys.length; i++) {
+            if(keys[i] != FREE_KEY && Double.doubleToLongBits(values[i]) == Double.doubleToLongBits(value)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public long[] keys() {
+        return collectKeys();
+    }
+
+    @Override
+    public double[] values() {
+        double[] result = new double[arrayLength()];
+        int position = 0;
+        if(hasFreeKey) result[position++] = freeKeyValue;
+        for (int i = 0; i < keys.length; i++) {
+            if(keys[i] != FREE_KEY) result[position++] = values[i];
+        }
+        return result;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        freeKeyValue = 0.0;
+    }
+
+    @Override
+    public double noValue() {
+        return noValue;
+    }
+}
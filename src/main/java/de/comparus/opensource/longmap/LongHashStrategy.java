@@ -0,0 +1,39 @@
+package de.comparus.opensource.longmap;
+
+import java.security.SecureRandom;
+
+/**
+ * Spreads long keys over 64 bits. Tables index with the highest bits of the hash
+ * ({@code hash >>> shift}), so implementations must mix well into the upper bits.
+ */
+@FunctionalInterface
+public interface LongHashStrategy {
+
+    long hash(long key);
+
+    LongHashStrategy MURMUR3 = LongHashStrategy::fmix64;
+
+    LongHashStrategy FIBONACCI = key -> key * 0x9e3779b97f4a7c15L;
+
+    static LongHashStrategy seeded(long seed) {
+        final long mixedSeed = fmix64(seed ^ 0x9e3779b97f4a7c15L);
+        return key -> fmix64(key ^ mixedSeed);
+    }
+
+    static LongHashStrategy randomlySeeded() {
+        return seeded(new SecureRandom().nextLong());
+    }
+
+    static long fmix64(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+
+    static int shiftFor(int capacity) {
+        return Long.numberOfLeadingZeros(capacity - 1);
+    }
+}
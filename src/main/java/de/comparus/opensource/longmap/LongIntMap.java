@@ -0,0 +1,27 @@
+package de.comparus.opensource.longmap;
+
+public interface LongIntMap {
+    int put(long key, int value);
+    int get(long key);
+    int getOrDefault(long key, int defaultValue);
+    int remove(long key);
+
+    /**
+     * Adds {@code increment} to the value of {@code key}, starting from zero when the key is absent,
+     * and returns the new value.
+     */
+    int addTo(long key, int increment);
+    int increment(long key);
+
+    boolean isEmpty();
+    boolean containsKey(long key);
+    boolean containsValue(int value);
+
+    long[] keys();
+    int[] values();
+
+    long size();
+    void clear();
+
+    int noValue();
+}
@@ -0,0 +1,169 @@
+package de.comparus.opensource.longmap;
+
+public class LongIntMapImpl extends AbstractLongHashTable implements LongIntMap {
+    private final int noValue;
+    private int[] values;
+    private int[] oldValues;
+    private int freeKeyValue;
+
+    public LongIntMapImpl() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongIntMapImpl(int initialCapacity) {
+        this(initialCapacity, 0);
+    }
+
+    public LongIntMapImpl(int initialCapacity, int noValue) {
+        this(initialCapacity, noValue, LongHashStrategy.MURMUR3);
+    }
+
+    public LongIntMapImpl(int initialCapacity, int noValue, LongHashStrategy hashStrategy) {
+        super(initialCapacity, MAXIMUM_CAPACITY, hashStrategy);
+        this.noValue = noValue;
+    }
+
+    @Override
+    void allocateValues(int capacity) {
+        values = new int[capacity];
+    }
+
+    @Override
+    void moveValue(int from, int to) {
+        values[to] = values[from];
+    }
+
+    @Override
+    void clearValue(int index) {
+        values[index] = 0;
+    }
+
+    @Override
+    void beginRehash(int newCapacity) {
+        oldValues = values;
+        values = new int[newCapacity];
+    }
+
+    @Override
+    void rehashValue(int from, int to) {
+        values[to] = oldValues[from];
+    }
+
+    @Override
+    void endRehash() {
+        oldValues = null;
+    }
+
+    @Override
+    void clearFreeKeyValue() {
+        freeKeyValue = 0;
+    }
+
+    @Override
+    public int put(long key, int value) {
+        if(key == FREE_KEY){
+            int previousValue = hasFreeKey ? freeKeyValue : noValue;
+            addFreeKey();
+            freeKeyValue = value;
+            return previousValue;
+        }
+        int slot = findSlot(key);
+        if(slot >= 0){
+            int previousValue = values[slot];
+            values[slot] = value;
+            return previousValue;
+        }
+        int index = insertKey(key, slot);
+        values[index] = value;
+        return noValue;
+    }
+
+    @Override
+    public int get(long key) {
+        return getOrDefault(key, noValue);
+    }
+
+    @Override
+    public int getOrDefault(long key, int defaultValue) {
+        if(key == FREE_KEY) return hasFreeKey ? freeKeyValue : defaultValue;
+        long[] keys = this.keys;
+        int index = indexOf(key);
+        long current;
+        while ((current = keys[index]) != FREE_KEY) {
+            if(current == key) return values[index];
+            index = nextIndex(index);
+        }
+        return defaultValue;
+    }
+
+    @Override
+    public int remove(long key) {
+        if(key == FREE_KEY){
+            if(!hasFreeKey) return noValue;
+            int previousValue = freeKeyValue;
+            removeFreeKey();
+            return previousValue;
+        }
+        int slot = findSlot(key);
+        if(slot < 0) return noValue;
+        int previousValue = values[slot];
+        removeAt(slot);
+        return previousValue;
+    }
+
+    @Override
+    public int addTo(long key, int increment) {
+        if(key == FREE_KEY){
+            freeKeyValue = hasFreeKey ? freeKeyValue + increment : increment;
+            addFreeKey();
+            return freeKeyValue;
+        }
+        int slot = findSlot(key);
+        if(slot >= 0){
+            return values[slot] += increment;
+        }
+        int index = insertKey(key, slot);
+        return values[index] = increment;
+    }
+
+    @Override
+    public int increment(long key) {
+        return addTo(key, 1);
+    }
+
+    @Override
+    public boolean containsValue(int value) {
+        if(hasFreeKey && freeKeyValue == value) return true;
+        for (int i = 0; i < keys.length; i++) {
+            if(keys[i] != FREE_KEY && values[i] == value) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public long[] keys() {
+        return collectKeys();
+    }
+
+    @Override
+    public int[] values() {
+        int[] result = new int[arrayLength()];
+        int position = 0;
+        if(hasFreeKey) result[position++] = freeKeyValue;
+        for (int i = 0; i < keys.length; i++) {
+            if(keys[i] != FREE_KEY) result[position++] = values[i];
+        }
+        return result;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        freeKeyValue = 0;
+    }
+
+    @Override
+    public int noValue() {
+        return noValue;
+    }
+}
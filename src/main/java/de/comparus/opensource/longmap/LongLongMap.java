@@ -0,0 +1,27 @@
+package de.comparus.opensource.longmap;
+
+public interface LongLongMap {
+    long put(long key, long value);
+    long get(long key);
+    long getOrDefault(long key, long defaultValue);
+    long remove(long key);
+
+    /**
+     * Adds {@code increment} to the value of {@code key}, starting from zero when the key is absent,
+     * and returns the new value.
+     */
+    long addTo(long key, long increment);
+    long increment(long key);
+
+    boolean isEmpty();
+    boolean containsKey(long key);
+    boolean containsValue(long value);
+
+    long[] keys();
+    long[] values();
+
+    long size();
+    void clear();
+
+    long noValue();
+}
@@ -0,0 +1,169 @@
+package de.comparus.opensource.longmap;
+
+public class LongLongMapImpl extends AbstractLongHashTable implements LongLongMap {
+    private final long noValue;
+    private long[] values;
+    private long[] oldValues;
+    private long freeKeyValue;
+
+    public LongLongMapImpl() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongLongMapImpl(int initialCapacity) {
+        this(initialCapacity, 0L);
+    }
+
+    public LongLongMapImpl(int initialCapacity, long noValue) {
+        this(initialCapacity, noValue, LongHashStrategy.MURMUR3);
+    }
+
+    public LongLongMapImpl(int initialCapacity, long noValue, LongHashStrategy hashStrategy) {
+        super(initialCapacity, MAXIMUM_CAPACITY, hashStrategy);
+        this.noValue = noValue;
+    }
+
+    @Override
+    void allocateValues(int capacity) {
+        values = new long[capacity];
+    }
+
+    @Override
+    void moveValue(int from, int to) {
+        values[to] = values[from];
+    }
+
+    @Override
+    void clearValue(int index) {
+        values[index] = 0L;
+    }
+
+    @Override
+    void beginRehash(int newCapacity) {
+        oldValues = values;
+        values = new long[newCapacity];
+    }
+
+    @Override
+    void rehashValue(int from, int to) {
+        values[to] = oldValues[from];
+    }
+
+    @Override
+    void endRehash() {
+        oldValues = null;
+    }
+
+    @Override
+    void clearFreeKeyValue() {
+        freeKeyValue = 0L;
+    }
+
+    @Override
+    public long put(long key, long value) {
+        if(key == FREE_KEY){
+            long previousValue = hasFreeKey ? freeKeyValue : noValue;
+            addFreeKey();
+            freeKeyValue = value;
+            return previousValue;
+        }
+        int slot = findSlot(key);
+        if(slot >= 0){
+            long previousValue = values[slot];
+            values[slot] = value;
+            return previousValue;
+        }
+        int index = insertKey(key, slot);
+        values[index] = value;
+        return noValue;
+    }
+
+    @Override
+    public long get(long key) {
+        return getOrDefault(key, noValue);
+    }
+
+    @Override
+    public long getOrDefault(long key, long defaultValue) {
+        if(key == FREE_KEY) return hasFreeKey ? freeKeyValue : defaultValue;
+        long[] keys = this.keys;
+        int index = indexOf(key);
+        long current;
+        while ((current = keys[index]) != FREE_KEY) {
+            if(current == key) return values[index];
+            index = nextIndex(index);
+        }
+        return defaultValue;
+    }
+
+    @Override
+    public long remove(long key) {
+        if(key == FREE_KEY){
+            if(!hasFreeKey) return noValue;
+            long previousValue = freeKeyValue;
+            removeFreeKey();
+            return previousValue;
+        }
+        int slot = findSlot(key);
+        if(slot < 0) return noValue;
+        long previousValue = values[slot];
+        removeAt(slot);
+        return previousValue;
+    }
+
+    @Override
+    public long addTo(long key, long increment) {
+        if(key == FREE_KEY){
+            freeKeyValue = hasFreeKey ? freeKeyValue + increment : increment;
+            addFreeKey();
+            return freeKeyValue;
+        }
+        int slot = findSlot(key);
+        if(slot >= 0){
+            return values[slot] += increment;
+        }
+        int index = insertKey(key, slot);
+        return values[index] = increment;
+    }
+
+    @Override
+    public long increment(long key) {
+        return addTo(key, 1L);
+    }
+
+    @Override
+    public boolean containsValue(long value) {
+        if(hasFreeKey && freeKeyValue == value) return true;
+        for (int i = 0; i < keys.length; i++) {
+            if(keys[i] != FREE_KEY && values[i] == value) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public long[] keys() {
+        return collectKeys();
+    }
+
+    @Override
+    public long[] values() {
+        long[] result = new long[arrayLength()];
+        int position = 0;
+        if(hasFreeKey) result[position++] = freeKeyValue;
+        for (int i = 0; i < keys.length; i++) {
+            if(keys[i] != FREE_KEY) result[position++] = values[i];
+        }
+        return result;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        freeKeyValue = 0L;
+    }
+
+    @Override
+    public long noValue() {
+        return noValue;
+    }
+}
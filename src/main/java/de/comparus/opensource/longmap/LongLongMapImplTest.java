@@ -0,0 +1,126 @@
+package de.comparus.opensource.longmap;
+
+import org.junit.jupiter.api.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestClassOrder(ClassOrderer.OrderAnnotation.class)
+@DisplayName("Primitive value LongMap Test")
+class LongLongMapImplTest {
+    static final long NO_VALUE = -1L;
+
+    @Nested
+    @Order(1)
+    @DisplayName("1. LongLongMapImpl methods Test")
+    @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+    class LongLongMapMethodsTest {
+        LongLongMapImpl longLongMap;
+
+        @BeforeEach
+        void init() {
+            longLongMap = new LongLongMapImpl(8, NO_VALUE);
+        }
+
+        @Test
+        @Order(1)
+        @DisplayName("Get and remove return the no value sentinel when key does not exist")
+        void noValueWhenKeyDoesNotExist() {
+            assertThat(longLongMap.get(1L)).isEqualTo(NO_VALUE);
+            assertThat(longLongMap.get(0L)).isEqualTo(NO_VALUE);
+            assertThat(longLongMap.remove(1L)).isEqualTo(NO_VALUE);
+            assertThat(longLongMap.put(1L, 10L)).isEqualTo(NO_VALUE);
+            assertThat(longLongMap.getOrDefault(2L, 42L)).isEqualTo(42L);
+            assertThat(longLongMap.noValue()).isEqualTo(NO_VALUE);
+        }
+
+        @Test
+        @Order(2)
+        @DisplayName("AddTo starts from zero and accumulates in place")
+        void addToAccumulates() {
+            assertThat(longLongMap.addTo(5L, 3L)).isEqualTo(3L);
+            assertThat(longLongMap.addTo(5L, 4L)).isEqualTo(7L);
+            assertThat(longLongMap.increment(5L)).isEqualTo(8L);
+            assertThat(longLongMap.increment(0L)).isEqualTo(1L);
+            assertThat(longLongMap.increment(0L)).isEqualTo(2L);
+
+            assertThat(longLongMap.size()).isEqualTo(2L);
+            assertThat(longLongMap.get(5L)).isEqualTo(8L);
+            assertThat(longLongMap.get(0L)).isEqualTo(2L);
+        }
+
+        @Test
+        @Order(3)
+        @DisplayName("Counters stay consistent with a reference map under random operations")
+        void randomOperationsMatchReferenceMap() {
+            Map<Long, Long> reference = new HashMap<>();
+            Random random = new Random(3);
+            for (int i = 0; i < 100_000; i++) {
+                long key = random.nextInt(3_000);
+                if(random.nextInt(4) == 0){
+                    Long removed = reference.remove(key);
+                    assertThat(longLongMap.remove(key)).isEqualTo(removed == null ? NO_VALUE : removed);
+                } else {
+                    assertThat(longLongMap.increment(key)).isEqualTo(reference.merge(key, 1L, Long::sum));
+                }
+            }
+
+            assertThat(longLongMap.size()).isEqualTo(reference.size());
+            reference.forEach((key, value) -> assertThat(longLongMap.get(key)).isEqualTo(value));
+            assertThat(longLongMap.keys()).hasSize(reference.size());
+            assertThat(longLongMap.values()).hasSize(reference.size());
+        }
+
+        @Test
+        @Order(4)
+        @DisplayName("ContainsValue finds primitive values")
+        void containsValue() {
+            longLongMap.put(1L, 100L);
+            longLongMap.put(0L, 200L);
+
+            assertThat(longLongMap.containsValue(100L)).isTrue();
+            assertThat(longLongMap.containsValue(200L)).isTrue();
+            assertThat(longLongMap.containsValue(300L)).isFalse();
+        }
+    }
+
+    @Nested
+    @Order(2)
+    @DisplayName("2. Other primitive specializations Test")
+    @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+    class OtherSpecializationsTest {
+
+        @Test
+        @Order(1)
+        @DisplayName("LongIntMapImpl counts with int values")
+        void longIntMap() {
+            LongIntMapImpl longIntMap = new LongIntMapImpl();
+            for (long key = 0; key < 1_000; key++) {
+                longIntMap.increment(key % 10);
+            }
+
+            assertThat(longIntMap.size()).isEqualTo(10L);
+            assertThat(longIntMap.get(3L)).isEqualTo(100);
+            assertThat(longIntMap.get(10L)).isEqualTo(0);
+            assertThat(longIntMap.values()).containsOnly(100);
+        }
+
+        @Test
+        @Order(2)
+        @DisplayName("LongDoubleMapImpl sums scores and uses NaN as no value")
+        void longDoubleMap() {
+            LongDoubleMapImpl longDoubleMap = new LongDoubleMapImpl(16, Double.NaN);
+            longDoubleMap.addTo(1L, 0.5);
+            longDoubleMap.addTo(1L, 0.25);
+
+            assertThat(longDoubleMap.get(1L)).isEqualTo(0.75);
+            assertThat(longDoubleMap.get(2L)).isNaN();
+            assertThat(longDoubleMap.containsValue(0.75)).isTrue();
+            assertThat(longDoubleMap.remove(1L)).isEqualTo(0.75);
+            assertThat(longDoubleMap.isEmpty()).isTrue();
+        }
+    }
+}
@@ -1,5 +1,10 @@
 package de.comparus.opensource.longmap;
 
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.LongFunction;
+
 public interface LongMap<V> {
     V put(long key, V value);
     V get(long key);
@@ -14,4 +19,139 @@ public interface LongMap<V> {
 
     long size();
     void clear();
+
+    void forEach(LongObjConsumer<? super V> action);
+    LongMapCursor<V> cursor();
+
+    /**
+     * Returns the keys currently mapped to a value equal to {@code value}, in no particular order.
+     */
+    default long[] keysForValue(V value) {
+        long[] result = new long[4];
+        int position = 0;
+        LongMapCursor<V> cursor = cursor();
+        while (cursor.advance()) {
+            if(!Objects.equals(cursor.value(), value)) continue;
+            if(position == result.length){
+                result = Arrays.copyOf(result, position << 1);
+            }
+            result[position++] = cursor.key();
+        }
+        return Arrays.copyOf(result, position);
+    }
+
+    /**
+     * The update methods below follow the contracts of their {@link java.util.Map} namesakes: a
+     * {@code null} value counts as absent and a {@code null} result removes the entry, while
+     * {@code putIfAbsent(key, null)} maps an absent key to {@code null}. The functions must not
+     * modify the map.
+     */
+    default V putIfAbsent(long key, V value) {
+        V current = get(key);
+        return current == null ? put(key, value) : current;
+    }
+
+    default V replace(long key, V value) {
+        return containsKey(key) ? put(key, value) : null;
+    }
+
+    default boolean replace(long key, V oldValue, V newValue) {
+        if(!containsKey(key) || !Objects.equals(get(key), oldValue)) return false;
+        put(key, newValue);
+        return true;
+    }
+
+    default V computeIfAbsent(long key, LongFunction<? extends V> mappingFunction) {
+        Objects.requireNonNull(mappingFunction);
+        V current = get(key);
+        if(current != null) return current;
+        V value = mappingFunction.apply(key);
+        if(value != null) put(key, value);
+        return value;
+    }
+
+    default V computeIfPresent(long key, LongObjFunction<? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+        V current = get(key);
+        if(current == null) return null;
+        V value = remappingFunction.apply(key, current);
+        if(value == null){
+            remove(key);
+        } else {
+            put(key, value);
+        }
+        return value;
+    }
+
+    default V compute(long key, LongObjFunction<? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+        V value = remappingFunction.apply(key, get(key));
+        if(value == null){
+            remove(key);
+        } else {
+            put(key, value);
+        }
+        return value;
+    }
+
+    default V merge(long key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+        Objects.requireNonNull(value);
+        V current = get(key);
+        V newValue = current == null ? value : remappingFunction.apply(current, value);
+        if(newValue == null){
+            remove(key);
+        } else {
+            put(key, newValue);
+        }
+        return newValue;
+    }
+
+    /**
+     * Puts {@code values[i]} for every {@code keys[i]}; later keys win when the batch repeats a key.
+     */
+    default void putAll(long[] keys, V[] values) {
+        LongMapArrays.checkBatch(keys, values.length);
+        for (int i = 0; i < keys.length; i++) {
+            put(keys[i], values[i]);
+        }
+    }
+
+    /**
+     * Stores the value of every {@code keys[i]} into {@code results[i]}, {@code null} for absent keys.
+     */
+    default void getAll(long[] keys, V[] results) {
+        LongMapArrays.checkBatch(keys, results.length);
+        for (int i = 0; i < keys.length; i++) {
+            results[i] = get(keys[i]);
+        }
+    }
+
+    /**
+     * Removes all {@code keys} and returns the number of entries that were actually removed.
+     */
+    default int removeAll(long[] keys) {
+        int removed = 0;
+        for (long key : keys) {
+            if(containsKey(key)){
+                remove(key);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    default boolean containsAll(long[] keys) {
+        for (long key : keys) {
+            if(!containsKey(key)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns an immutable compact copy of the current entries, see {@link FrozenLongMap}.
+     */
+    default FrozenLongMap<V> freeze() {
+        return FrozenLongMap.copyOf(this);
+    }
 }
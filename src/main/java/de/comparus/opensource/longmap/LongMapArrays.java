@@ -0,0 +1,36 @@
+package de.comparus.opensource.longmap;
+
+import java.lang.reflect.Array;
+
+final class LongMapArrays {
+
+    private LongMapArrays() {
+    }
+
+    static <V> V[] toTypedArray(Object[] source, int length) {
+        if(length == 0) return (V[]) null;
+        Class<?> componentType = null;
+        for (int i = 0; i < length; i++) {
+            Object value = source[i];
+            if(value == null) continue;
+            componentType = componentType == null ? value.getClass() : commonSuperclass(componentType, value.getClass());
+        }
+        V[] result = (V[]) Array.newInstance(componentType == null ? Object.class : componentType, length);
+        System.arraycopy(source, 0, result, 0, length);
+        return result;
+    }
+
+    static void checkBatch(long[] keys, int length) {
+        if(length < keys.length){
+            throw new IllegalArgumentException("Array is shorter than the batch of keys: " + length + " < " + keys.length);
+        }
+    }
+
+    private static Class<?> commonSuperclass(Class<?> current, Class<?> other) {
+        Class<?> candidate = current;
+        while (!candidate.isAssignableFrom(other)) {
+            candidate = candidate.getSuperclass();
+        }
+        return candidate;
+    }
+}
@@ -0,0 +1,137 @@
+package de.comparus.opensource.longmap;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Builds a {@link LongMapImpl} from key and value arrays on a {@link ForkJoinPool}. The input is
+ * partitioned by the top bits of the key hash, which are also the top bits of the bucket index,
+ * so every partition owns a disjoint range of buckets and is inserted by its own task without
+ * locking. When a key repeats, the later value wins, as with {@link LongMap#putAll}.
+ */
+public final class LongMapBuilder {
+    private static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 14;
+    private static final int PARTITIONS_PER_THREAD = 4;
+    private static final LongMapBuilder DEFAULTS = new LongMapBuilder(LongMapConfig.defaults(), null, DEFAULT_PARALLEL_THRESHOLD);
+
+    private final LongMapConfig config;
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+
+    private LongMapBuilder(LongMapConfig config, ForkJoinPool pool, int parallelThreshold) {
+        this.config = config;
+        this.pool = pool;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    public static LongMapBuilder defaults() {
+        return DEFAULTS;
+    }
+
+    public LongMapBuilder withConfig(LongMapConfig config) {
+        return new LongMapBuilder(Objects.requireNonNull(config), pool, parallelThreshold);
+    }
+
+    public LongMapBuilder withPool(ForkJoinPool pool) {
+        return new LongMapBuilder(config, Objects.requireNonNull(pool), parallelThreshold);
+    }
+
+    /**
+     * Inputs with fewer entries than {@code entries} are inserted on the calling thread.
+     */
+    public LongMapBuilder withParallelThreshold(int entries) {
+        if(entries < 0){
+            throw new IllegalArgumentException("Parallel threshold must not be negative");
+        }
+        return new LongMapBuilder(config, pool, entries);
+    }
+
+    public <V> LongMapImpl<V> build(long[] keys, V[] values) {
+        LongMapArrays.checkBatch(keys, values.length);
+        int length = keys.length;
+        LongMapImpl<V> longMap = new LongMapImpl<>(config.withInitialCapacity(
+                Math.max(config.getInitialCapacity(), LongMapImpl.capacityForSize(length, config.getLoadFactor()))));
+        ForkJoinPool pool = this.pool == null ? ForkJoinPool.commonPool() : this.pool;
+        if(length < parallelThreshold || pool.getParallelism() == 1){
+            for (int i = 0; i < length; i++) {
+                longMap.put(keys[i], values[i]);
+            }
+            return longMap;
+        }
+
+        int partitionBits = Math.min(
+                Integer.numberOfTrailingZeros(AbstractLongHashTable.tableSizeFor(pool.getParallelism() * PARTITIONS_PER_THREAD)),
+                Integer.numberOfTrailingZeros(longMap.tableCapacity()));
+        int partitions = 1 << partitionBits;
+        int partitionShift = Long.SIZE - partitionBits;
+        LongHashStrategy hashStrategy = config.getHashStrategy();
+        int chunkSize = (length + partitions - 1) / partitions;
+
+        int[][] cursors = new int[partitions][partitions];
+        pool.invoke(new RangeTask(0, partitions, chunk -> {
+            int[] counts = cursors[chunk];
+            for (int i = chunk * chunkSize, end = Math.min(i + chunkSize, length); i < end; i++) {
+                counts[(int) (hashStrategy.hash(keys[i]) >>> partitionShift)]++;
+            }
+        }));
+        int[] partitionStarts = new int[partitions + 1];
+        int position = 0;
+        for (int partition = 0; partition < partitions; partition++) {
+            partitionStarts[partition] = position;
+            for (int chunk = 0; chunk < partitions; chunk++) {
+                int count = cursors[chunk][partition];
+                cursors[chunk][partition] = position;
+                position += count;
+            }
+        }
+        partitionStarts[partitions] = length;
+
+        int[] order = new int[length];
+        pool.invoke(new RangeTask(0, partitions, chunk -> {
+            int[] next = cursors[chunk];
+            for (int i = chunk * chunkSize, end = Math.min(i + chunkSize, length); i < end; i++) {
+                order[next[(int) (hashStrategy.hash(keys[i]) >>> partitionShift)]++] = i;
+            }
+        }));
+        long[] added = new long[partitions];
+        pool.invoke(new RangeTask(0, partitions, partition -> {
+            long count = 0;
+            for (int j = partitionStarts[partition]; j < partitionStarts[partition + 1]; j++) {
+                int i = order[j];
+                if(longMap.putIntoBucket(keys[i], values[i])) count++;
+            }
+            added[partition] = count;
+        }));
+        long size = 0;
+        for (long count : added) {
+            size += count;
+        }
+        longMap.finishBuild(size);
+        return longMap;
+    }
+
+    private static final class RangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int from;
+        private final int to;
+        private final IntConsumer action;
+
+        RangeTask(int from, int to, IntConsumer action) {
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from == 1){
+                action.accept(from);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RangeTask(from, middle, action), new RangeTask(middle, to, action));
+        }
+    }
+}
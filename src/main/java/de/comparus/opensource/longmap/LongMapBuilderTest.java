@@ -0,0 +1,103 @@
+package de.comparus.opensource.longmap;
+
+import org.junit.jupiter.api.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DisplayName("LongMapBuilder Test")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class LongMapBuilderTest {
+    static ForkJoinPool pool;
+
+    @BeforeAll
+    static void startPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void stopPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Parallel build contains every entry and the later value of repeated keys")
+    void parallelBuild() {
+        Random random = new Random(3);
+        long[] keys = new long[200_000];
+        Long[] values = new Long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i < 1_000 ? i : random.nextLong();
+            values[i] = (long) i;
+        }
+        keys[keys.length - 1] = 5L;
+
+        LongMapImpl<Long> longMap = LongMapBuilder.defaults().withPool(pool).build(keys, values);
+
+        assertThat(longMap.size()).isEqualTo(keys.length - 1L);
+        assertThat(longMap.get(5L)).isEqualTo(keys.length - 1L);
+        assertThat(longMap.get(0L)).isEqualTo(0L);
+        for (int i = 1_000; i < keys.length - 1; i++) {
+            assertThat(longMap.get(keys[i])).isEqualTo((long) i);
+        }
+        longMap.put(-1L, -1L);
+        assertThat(longMap.get(-1L)).isEqualTo(-1L);
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Small inputs are built sequentially with the configured hash strategy")
+    void sequentialBuild() {
+        LongMapImpl<String> longMap = LongMapBuilder.defaults()
+                .withConfig(LongMapConfig.defaults().withHashStrategy(LongHashStrategy.FIBONACCI))
+                .build(new long[]{1L, 2L, 1L}, new String[]{"a", "b", "c"});
+
+        assertThat(longMap.size()).isEqualTo(2L);
+        assertThat(longMap.get(1L)).isEqualTo("c");
+        assertNull(longMap.get(3L));
+        assertThatThrownBy(() -> LongMapBuilder.defaults().build(new long[2], new String[1]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Parallel streams split on bucket ranges and visit every entry once")
+    void parallelStreams() {
+        LongMapImpl<Long> longMap = new LongMapImpl<>();
+        for (long key = 1; key <= 100_000; key++) {
+            longMap.put(key, key * 2);
+        }
+
+        assertThat(longMap.keyStream().parallel().sum()).isEqualTo(100_000L * 100_001 / 2);
+        assertThat(longMap.keyStream().parallel().distinct().count()).isEqualTo(100_000L);
+        assertThat(longMap.valueStream().parallel().mapToLong(Long::longValue).max().getAsLong()).isEqualTo(200_000L);
+        assertThat(longMap.entryStream().parallel().allMatch(entry -> entry.getValue() == entry.getKey() * 2)).isTrue();
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Parallel build fills the value index after the tasks finish")
+    void parallelBuildWithValueIndex() {
+        long[] keys = new long[1_000];
+        String[] values = new String[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i;
+            values[i] = "v" + i % 10;
+        }
+
+        LongMapImpl<String> longMap = LongMapBuilder.defaults()
+                .withConfig(LongMapConfig.defaults().withValueIndex())
+                .withPool(pool)
+                .withParallelThreshold(0)
+                .build(keys, values);
+
+        assertThat(longMap.size()).isEqualTo(1_000L);
+        assertThat(longMap.keysForValue("v3")).hasSize(100).contains(3L, 993L);
+        assertThat(longMap.containsValue("v10")).isFalse();
+    }
+}
@@ -0,0 +1,194 @@
+package de.comparus.opensource.longmap;
+
+import java.util.Objects;
+
+public final class LongMapConfig {
+    private static final int DEFAULT_INITIAL_CAPACITY = 16;
+    private static final int DEFAULT_MIGRATION_STEP = 8;
+    private static final float DEFAULT_LOAD_FACTOR = 1.0f;
+    private static final float DERIVED_SHRINK_LOAD_FACTOR = Float.NaN;
+    private static final int DEFAULT_GROWTH_FACTOR = 2;
+    private static final LongMapConfig DEFAULTS = new LongMapConfig(DEFAULT_INITIAL_CAPACITY,
+            LongHashStrategy.MURMUR3, ResizeMode.IMMEDIATE, DEFAULT_MIGRATION_STEP, false, false, null,
+            DEFAULT_LOAD_FACTOR, DERIVED_SHRINK_LOAD_FACTOR, DEFAULT_GROWTH_FACTOR);
+
+    private final int initialCapacity;
+    private final LongHashStrategy hashStrategy;
+    private final ResizeMode resizeMode;
+    private final int migrationStep;
+    private final boolean valueIndexed;
+    private final boolean statisticsEnabled;
+    private final LongMapListener listener;
+    private final float loadFactor;
+    private final float shrinkLoadFactor;
+    private final int growthFactor;
+
+    private LongMapConfig(int initialCapacity, LongHashStrategy hashStrategy, ResizeMode resizeMode, int migrationStep,
+                          boolean valueIndexed, boolean statisticsEnabled, LongMapListener listener,
+                          float loadFactor, float shrinkLoadFactor, int growthFactor) {
+        this.initialCapacity = initialCapacity;
+        this.hashStrategy = hashStrategy;
+        this.resizeMode = resizeMode;
+        this.migrationStep = migrationStep;
+        this.valueIndexed = valueIndexed;
+        this.statisticsEnabled = statisticsEnabled;
+        this.listener = listener;
+        this.loadFactor = loadFactor;
+        this.shrinkLoadFactor = shrinkLoadFactor;
+        this.growthFactor = growthFactor;
+    }
+
+    public static LongMapConfig defaults() {
+        return DEFAULTS;
+    }
+
+    public LongMapConfig withInitialCapacity(int initialCapacity) {
+        if(initialCapacity <= 0){
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        return new LongMapConfig(initialCapacity, hashStrategy, resizeMode, migrationStep, valueIndexed,
+                statisticsEnabled, listener, loadFactor, shrinkLoadFactor, growthFactor);
+    }
+
+    public LongMapConfig withHashStrategy(LongHashStrategy hashStrategy) {
+        return new LongMapConfig(initialCapacity, Objects.requireNonNull(hashStrategy), resizeMode, migrationStep,
+                valueIndexed, statisticsEnabled, listener, loadFactor, shrinkLoadFactor, growthFactor);
+    }
+
+    public LongMapConfig withImmediateResize() {
+        return new LongMapConfig(initialCapacity, hashStrategy, ResizeMode.IMMEDIATE, migrationStep, valueIndexed,
+                statisticsEnabled, listener, loadFactor, shrinkLoadFactor, growthFactor);
+    }
+
+    public LongMapConfig withIncrementalResize() {
+        return withIncrementalResize(DEFAULT_MIGRATION_STEP);
+    }
+
+    public LongMapConfig withIncrementalResize(int bucketsPerOperation) {
+        if(bucketsPerOperation <= 0){
+            throw new IllegalArgumentException("Buckets per operation must be positive");
+        }
+        return new LongMapConfig(initialCapacity, hashStrategy, ResizeMode.INCREMENTAL, bucketsPerOperation,
+                valueIndexed, statisticsEnabled, listener, loadFactor, shrinkLoadFactor, growthFactor);
+    }
+
+    /**
+     * Keeps a reverse index from values to keys, so that {@code containsValue} and
+     * {@code keysForValue} take expected constant time at the cost of extra work on every write.
+     */
+    public LongMapConfig withValueIndex() {
+        return new LongMapConfig(initialCapacity, hashStrategy, resizeMode, migrationStep, true, statisticsEnabled,
+                listener, loadFactor, shrinkLoadFactor, growthFactor);
+    }
+
+    public LongMapConfig withoutValueIndex() {
+        return new LongMapConfig(initialCapacity, hashStrategy, resizeMode, migrationStep, false, statisticsEnabled,
+                listener, loadFactor, shrinkLoadFactor, growthFactor);
+    }
+
+    /**
+     * Records hit, miss, probe-length and resize counters, reported by {@link LongMapImpl#stats()}.
+     * A map without statistics pays a single null check per lookup.
+     */
+    public LongMapConfig withStatistics() {
+        return new LongMapConfig(initialCapacity, hashStrategy, resizeMode, migrationStep, valueIndexed, true, listener,
+                loadFactor, shrinkLoadFactor, growthFactor);
+    }
+
+    public LongMapConfig withoutStatistics() {
+        return new LongMapConfig(initialCapacity, hashStrategy, resizeMode, migrationStep, valueIndexed, false,
+                listener, loadFactor, shrinkLoadFactor, growthFactor);
+    }
+
+    public LongMapConfig withListener(LongMapListener listener) {
+        return new LongMapConfig(initialCapacity, hashStrategy, resizeMode, migrationStep, valueIndexed,
+                statisticsEnabled, Objects.requireNonNull(listener), loadFactor, shrinkLoadFactor, growthFactor);
+    }
+
+    /**
+     * Sets the average number of entries per bucket at which the table grows. Values above 1 give
+     * a denser table with longer chains, values below 1 a sparser table with faster lookups.
+     */
+    public LongMapConfig withLoadFactor(float loadFactor) {
+        if(!(loadFactor > 0) || Float.isInfinite(loadFactor)){
+            throw new IllegalArgumentException("Load factor must be positive");
+        }
+        return new LongMapConfig(initialCapacity, hashStrategy, resizeMode, migrationStep, valueIndexed,
+                statisticsEnabled, listener, loadFactor, shrinkLoadFactor, growthFactor);
+    }
+
+    /**
+     * Sets the load factor at or below which removals shrink the table, never below its initial
+     * capacity; {@code 0} disables shrinking. It must stay below the load factor divided by the
+     * growth factor, so that a shrunk table is not grown again right away. When not set, it is
+     * half of that bound, which is {@code 0.25} for the default policy.
+     */
+    public LongMapConfig withShrinkLoadFactor(float shrinkLoadFactor) {
+        if(!(shrinkLoadFactor >= 0) || Float.isInfinite(shrinkLoadFactor)){
+            throw new IllegalArgumentException("Shrink load factor must not be negative");
+        }
+        return new LongMapConfig(initialCapacity, hashStrategy, resizeMode, migrationStep, valueIndexed,
+                statisticsEnabled, listener, loadFactor, shrinkLoadFactor, growthFactor);
+    }
+
+    public LongMapConfig withoutShrinking() {
+        return withShrinkLoadFactor(0);
+    }
+
+    /**
+     * Sets the factor by which the table grows and shrinks. Capacities are powers of two, so the
+     * factor must be one as well.
+     */
+    public LongMapConfig withGrowthFactor(int growthFactor) {
+        if(growthFactor < 2 || Integer.bitCount(growthFactor) != 1){
+            throw new IllegalArgumentException("Growth factor must be a power of two greater than 1");
+        }
+        return new LongMapConfig(initialCapacity, hashStrategy, resizeMode, migrationStep, valueIndexed,
+                statisticsEnabled, listener, loadFactor, shrinkLoadFactor, growthFactor);
+    }
+
+    public int getInitialCapacity() {
+        return initialCapacity;
+    }
+
+    public LongHashStrategy getHashStrategy() {
+        return hashStrategy;
+    }
+
+    public ResizeMode getResizeMode() {
+        return resizeMode;
+    }
+
+    public int getMigrationStep() {
+        return migrationStep;
+    }
+
+    public boolean isValueIndexed() {
+        return valueIndexed;
+    }
+
+    public boolean isStatisticsEnabled() {
+        return statisticsEnabled;
+    }
+
+    public LongMapListener getListener() {
+        return listener;
+    }
+
+    public float getLoadFactor() {
+        return loadFactor;
+    }
+
+    public float getShrinkLoadFactor() {
+        return Float.isNaN(shrinkLoadFactor) ? loadFactor / (2 * growthFactor) : shrinkLoadFactor;
+    }
+
+    public int getGrowthFactor() {
+        return growthFactor;
+    }
+
+    public enum ResizeMode {
+        IMMEDIATE,
+        INCREMENTAL
+    }
+}
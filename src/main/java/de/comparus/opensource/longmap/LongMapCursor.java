@@ -0,0 +1,19 @@
+package de.comparus.opensource.longmap;
+
+/**
+ * Allocation-free walk over the entries of a {@link LongMap}. {@link #advance()} moves to the next
+ * entry and must return {@code true} before {@link #key()}, {@link #value()} or {@link #remove()}
+ * are called. {@link #reset()} rewinds the cursor so that it can be reused for another pass.
+ * Changing the map other than through {@link #remove()} invalidates the cursor until it is reset.
+ */
+public interface LongMapCursor<V> {
+    boolean advance();
+
+    long key();
+
+    V value();
+
+    void remove();
+
+    void reset();
+}
@@ -0,0 +1,39 @@
+package de.comparus.opensource.longmap;
+
+import java.util.Objects;
+
+public final class LongMapEntry<V> {
+    private final long key;
+    private final V value;
+
+    public LongMapEntry(long key, V value) {
+        this.key = key;
+        this.value = value;
+    }
+
+    public long getKey() {
+        return key;
+    }
+
+    public V getValue() {
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) return true;
+        if(!(o instanceof LongMapEntry)) return false;
+        LongMapEntry<?> other = (LongMapEntry<?>) o;
+        return key == other.key && Objects.equals(value, other.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(key) ^ Objects.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+        return key + "=" + value;
+    }
+}
@@ -1,15 +1,39 @@
 package de.comparus.opensource.longmap;
 
-import java.lang.reflect.Array;
-import java.util.ArrayList;
-import java.util.List;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class LongMapImpl<V> implements LongMap<V> {
     private static final int DEFAULT_CAPACITY = 16;
-    static final int MAXIMUM_CAPACITY = 1 << 20;
-    private static final float RESIZE_THRESHOLD = 1.0f;
+    static final int MAXIMUM_CAPACITY = 1 << 30;
+    private static final long MAP_BYTES = Footprint.objectBytes(7 * Footprint.REFERENCE_BYTES + 6 * Integer.BYTES
+            + 2 * Float.BYTES + Long.BYTES);
+    private static final long NODE_BYTES = Footprint.objectBytes(Long.BYTES + 2 * Footprint.REFERENCE_BYTES);
+    private final LongHashStrategy hashStrategy;
+    private final LongMapConfig.ResizeMode resizeMode;
+    private final int migrationStep;
+    private final ValueIndex<V> valueIndex;
+    private final StatsRecorder stats;
+    private final LongMapListener listener;
+    private final int minimumCapacity;
+    private final float loadFactor;
+    private final float shrinkLoadFactor;
+    private final int growthFactor;
     private Node<V>[] table;
+    private int shift;
+    private Node<V>[] oldTable;
+    private int oldShift;
+    private int migrationIndex;
     private long size;
 
     public LongMapImpl() {
@@ -17,32 +41,124 @@ public class LongMapImpl<V> implements LongMap<V> {
     }
 
     public LongMapImpl(int initialCapacity) {
-        verifyCapacity(initialCapacity);
-        this.table = new Node[initialCapacity <= MAXIMUM_CAPACITY ? initialCapacity : MAXIMUM_CAPACITY];
+        this(initialCapacity, LongHashStrategy.MURMUR3);
     }
 
-    private void verifyCapacity(int capacity) {
+    public LongMapImpl(int initialCapacity, LongHashStrategy hashStrategy) {
+        this(LongMapConfig.defaults().withInitialCapacity(initialCapacity).withHashStrategy(hashStrategy));
+    }
+
+    public LongMapImpl(LongMapConfig config) {
+        verifyCapacity(config.getInitialCapacity());
+        this.hashStrategy = config.getHashStrategy();
+        this.resizeMode = config.getResizeMode();
+        this.migrationStep = config.getMigrationStep();
+        this.valueIndex = config.isValueIndexed() ? new ValueIndex<>() : null;
+        this.stats = config.isStatisticsEnabled() ? new StatsRecorder() : null;
+        this.listener = config.getListener();
+        this.minimumCapacity = capacityFor(config.getInitialCapacity());
+        this.loadFactor = config.getLoadFactor();
+        this.shrinkLoadFactor = config.getShrinkLoadFactor();
+        this.growthFactor = config.getGrowthFactor();
+        if(shrinkLoadFactor * growthFactor >= loadFactor){
+            throw new IllegalArgumentException("Shrink load factor must be below load factor divided by growth factor");
+        }
+        setTable(new Node[minimumCapacity]);
+    }
+
+    /**
+     * Creates a map that holds {@code expectedSize} entries without resizing.
+     */
+    public static <V> LongMapImpl<V> withExpectedSize(int expectedSize) {
+        return withExpectedSize(expectedSize, LongMapConfig.defaults());
+    }
+
+    /**
+     * Creates a map from {@code config} whose initial capacity is replaced by the smallest one
+     * that holds {@code expectedSize} entries without resizing.
+     */
+    public static <V> LongMapImpl<V> withExpectedSize(int expectedSize, LongMapConfig config) {
+        return new LongMapImpl<>(config.withInitialCapacity(capacityForSize(expectedSize, config.getLoadFactor())));
+    }
+
+    static int capacityForSize(long expectedSize, float loadFactor) {
+        if(expectedSize < 0){
+            throw new IllegalArgumentException("Expected size must not be negative");
+        }
+        double capacity = Math.ceil(Math.max(expectedSize, 1) / (double) loadFactor);
+        return capacityFor((int) Math.min(capacity, MAXIMUM_CAPACITY));
+    }
+
+    /**
+     * Estimates the heap bytes retained by a map created with {@link #withExpectedSize(int)} and
+     * filled with {@code expectedSize} entries, excluding the values themselves.
+     */
+    public static long estimateFootprintBytes(int expectedSize) {
+        return estimateFootprintBytes(expectedSize, LongMapConfig.defaults());
+    }
+
+    public static long estimateFootprintBytes(int expectedSize, LongMapConfig config) {
+        int capacity = capacityForSize(expectedSize, config.getLoadFactor());
+        return MAP_BYTES + Footprint.referenceArrayBytes(capacity) + expectedSize * NODE_BYTES;
+    }
+
+    static int capacityFor(int capacity) {
+        if(capacity >= MAXIMUM_CAPACITY) return MAXIMUM_CAPACITY;
+        int powerOfTwo = Integer.highestOneBit(Math.max(capacity, 2));
+        return powerOfTwo < capacity ? powerOfTwo << 1 : powerOfTwo;
+    }
+
+    private void setTable(Node<V>[] table) {
+        this.table = table;
+        this.shift = LongHashStrategy.shiftFor(table.length);
+    }
+
+    private static void verifyCapacity(int capacity) {
         if(capacity <= 0){
             throw new IllegalArgumentException("Capacity must be positive");
         }
     }
 
+    /**
+     * Returns the bucket of {@code key} under the default hash strategy in the table of a map
+     * created with {@code capacity}, which is rounded up to a power of two of at least 2, so the
+     * index is always within the table that map allocates.
+     */
     public static int calculateIndex(long key, int capacity){
-        return (int) Math.abs(key % capacity);
+        verifyCapacity(capacity);
+        return (int) (LongHashStrategy.MURMUR3.hash(key) >>> LongHashStrategy.shiftFor(capacityFor(capacity)));
+    }
+
+    private int indexFor(long key, int shift) {
+        return (int) (hashStrategy.hash(key) >>> shift);
+    }
+
+    private boolean isInOldTable(long hash) {
+        return oldTable != null && (int) (hash >>> oldShift) >= migrationIndex;
+    }
+
+    private Node<V> bucketHead(long key) {
+        long hash = hashStrategy.hash(key);
+        return isInOldTable(hash) ? oldTable[(int) (hash >>> oldShift)] : table[(int) (hash >>> shift)];
     }
 
     @Override
     public V put(long key, V value) {
+        migrateBuckets();
         resizeIfNeeded();
-        return putOnTable(this.table, key, value);
+        long hash = hashStrategy.hash(key);
+        if(isInOldTable(hash)){
+            return putOnTable(oldTable, (int) (hash >>> oldShift), key, value);
+        }
+        return putOnTable(table, (int) (hash >>> shift), key, value);
     }
 
-    private V putOnTable(Node<V>[] table, long key, V value) {
+    private V putOnTable(Node<V>[] table, int index, long key, V value) {
         Node<V> newNode = Node.newInstance(key, value);
-        int index = calculateIndex(key, table.length);
         if(table[index] == null){
             table[index] = newNode;
             size++;
+            indexValue(key, value);
             return null;
         } else {
            return addOrChangeNodeInList(table[index], newNode);
@@ -55,6 +171,7 @@ public class LongMapImpl<V> implements LongMap<V> {
             if(currentNode.key == newNode.key){
                 V previousValue = currentNode.value;
                 currentNode.value = newNode.value;
+                reindexValue(newNode.key, previousValue, newNode.value);
                 return previousValue;
             }
             if(currentNode.next == null) break;
@@ -62,34 +179,89 @@ public class LongMapImpl<V> implements LongMap<V> {
         }
         currentNode.next = newNode;
         size++;
+        indexValue(newNode.key, newNode.value);
         return null;
     }
 
+    private void indexValue(long key, V value) {
+        if(valueIndex != null) valueIndex.add(key, value);
+    }
+
+    private void unindexValue(long key, V value) {
+        if(valueIndex != null) valueIndex.remove(key, value);
+    }
+
+    private void reindexValue(long key, V oldValue, V newValue) {
+        if(valueIndex != null) valueIndex.replace(key, oldValue, newValue);
+    }
+
     private void resizeIfNeeded() {
-        if(table.length != MAXIMUM_CAPACITY && size / (float) table.length >= RESIZE_THRESHOLD){
-            resizeTable(2 * table.length <= MAXIMUM_CAPACITY ? 2 * table.length : MAXIMUM_CAPACITY);
+        if(oldTable == null && table.length != MAXIMUM_CAPACITY && size / (float) table.length >= loadFactor){
+            resizeTable((int) Math.min((long) table.length * growthFactor, MAXIMUM_CAPACITY));
         }
     }
 
     private void resizeTable(int newCapacity) {
         verifyCapacity(newCapacity);
-        Node<V>[] newTable = new Node[newCapacity];
-        size = 0;
-        for(Node<V> head : table){
-            Node<V> current = head;
-            while(current != null){
-                putOnTable(newTable, current.key, current.value);
-                current = current.next;
-            }
+        long start = stats != null || listener != null ? System.nanoTime() : 0;
+        int oldCapacity = table.length;
+        oldTable = table;
+        oldShift = shift;
+        migrationIndex = 0;
+        setTable(new Node[newCapacity]);
+        if(resizeMode == LongMapConfig.ResizeMode.IMMEDIATE){
+            finishMigration();
+        } else {
+            migrateBuckets();
+        }
+        if(stats != null || listener != null){
+            long nanos = System.nanoTime() - start;
+            if(stats != null) stats.recordResize(nanos);
+            if(listener != null) listener.resized(oldCapacity, newCapacity, nanos);
+        }
+    }
+
+    private void migrateBuckets() {
+        if(oldTable != null){
+            migrateBuckets(migrationStep);
+        }
+    }
+
+    private void finishMigration() {
+        if(oldTable != null){
+            migrateBuckets(oldTable.length - migrationIndex);
+        }
+    }
+
+    private void migrateBuckets(int count) {
+        int end = Math.min(migrationIndex + count, oldTable.length);
+        for (; migrationIndex < end; migrationIndex++) {
+            transferBucket(oldTable[migrationIndex]);
+            oldTable[migrationIndex] = null;
+        }
+        if(migrationIndex == oldTable.length){
+            oldTable = null;
+        }
+    }
+
+    private void transferBucket(Node<V> head) {
+        Node<V> currentNode = head;
+        while (currentNode != null){
+            Node<V> next = currentNode.next;
+            int index = indexFor(currentNode.key, shift);
+            currentNode.next = table[index];
+            table[index] = currentNode;
+            currentNode = next;
         }
-        this.table = newTable;
     }
 
     @Override
     public V get(long key) {
         Objects.requireNonNull(key);
-        int index = calculateIndex(key, table.length);
-        Node<V> currentNode = table[index];
+        migrateBuckets();
+        long hash = hashStrategy.hash(key);
+        Node<V> currentNode = isInOldTable(hash) ? oldTable[(int) (hash >>> oldShift)] : table[(int) (hash >>> shift)];
+        if(stats != null) return getRecorded(currentNode, key);
         while (currentNode != null){
             if(currentNode.key == key){
                 return currentNode.value;
@@ -99,16 +271,75 @@ public class LongMapImpl<V> implements LongMap<V> {
         return null;
     }
 
+    private V getRecorded(Node<V> head, long key) {
+        int probes = 0;
+        for (Node<V> currentNode = head; currentNode != null; currentNode = currentNode.next) {
+            probes++;
+            if(currentNode.key == key){
+                stats.recordGet(true, probes);
+                return currentNode.value;
+            }
+        }
+        stats.recordGet(false, probes);
+        return null;
+    }
+
     @Override
     public V remove(long key) {
         Objects.requireNonNull(key);
-        int index = calculateIndex(key, table.length);
+        migrateBuckets();
+        long hash = hashStrategy.hash(key);
+        V value = isInOldTable(hash)
+                ? removeFromTable(oldTable, (int) (hash >>> oldShift), key)
+                : removeFromTable(table, (int) (hash >>> shift), key);
+        shrinkIfNeeded();
+        return value;
+    }
+
+    /**
+     * Shrinks the table by the growth factor once its load drops to the shrink load factor, but
+     * never below the initial capacity, so that a map that drained after a spike gives its buckets back.
+     */
+    private void shrinkIfNeeded() {
+        if(shrinkLoadFactor > 0 && oldTable == null && table.length > minimumCapacity
+                && size <= table.length * shrinkLoadFactor){
+            resizeTable(Math.max(table.length / growthFactor, minimumCapacity));
+        }
+    }
+
+    /**
+     * Shrinks the table to the smallest capacity that holds the current entries, below the initial
+     * capacity if needed, and completes any pending migration.
+     */
+    public void trimToSize() {
+        finishMigration();
+        int capacity = capacityForSize(size, loadFactor);
+        if(capacity < table.length){
+            resizeTable(capacity);
+            finishMigration();
+        }
+    }
+
+    /**
+     * Estimates the heap bytes retained by this map: the map object, its bucket tables, one node per
+     * entry and the value index if enabled. Values are not included, since they may be shared.
+     */
+    public long estimatedFootprintBytes() {
+        long bytes = MAP_BYTES + Footprint.referenceArrayBytes(table.length) + size * NODE_BYTES;
+        if(oldTable != null) bytes += Footprint.referenceArrayBytes(oldTable.length);
+        if(valueIndex != null) bytes += valueIndex.estimatedFootprintBytes();
+        if(stats != null) bytes += StatsRecorder.BYTES;
+        return bytes;
+    }
+
+    private V removeFromTable(Node<V>[] table, int index, long key) {
         Node<V> currentNode = table[index];
         if(currentNode != null){
             if(currentNode.key == key){
                 V value = currentNode.value;
                 table[index] = currentNode.next;
                 size--;
+                unindexValue(key, value);
                 return value;
             }
             while (currentNode.next != null){
@@ -116,6 +347,7 @@ public class LongMapImpl<V> implements LongMap<V> {
                     V value = currentNode.next.value;
                     currentNode.next = currentNode.next.next;
                     size--;
+                    unindexValue(key, value);
                     return value;
                 }
                 currentNode = currentNode.next;
@@ -124,6 +356,188 @@ public class LongMapImpl<V> implements LongMap<V> {
         return null;
     }
 
+    @Override
+    public void putAll(long[] keys, V[] values) {
+        LongMapArrays.checkBatch(keys, values.length);
+        reserve(size + keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            put(keys[i], values[i]);
+        }
+    }
+
+    private void reserve(long expectedSize) {
+        finishMigration();
+        int capacity = capacityForSize(expectedSize, loadFactor);
+        if(capacity > table.length){
+            resizeTable(capacity);
+            finishMigration();
+        }
+    }
+
+    /**
+     * Loads the bucket head of the next key before walking the chain of the current one, so that
+     * the cache miss of the following lookup overlaps the pointer chase of this one.
+     */
+    @Override
+    public void getAll(long[] keys, V[] results) {
+        LongMapArrays.checkBatch(keys, results.length);
+        migrateBuckets();
+        if(keys.length == 0) return;
+        Node<V> aheadNode = bucketHead(keys[0]);
+        for (int i = 0; i < keys.length; i++) {
+            long key = keys[i];
+            Node<V> currentNode = aheadNode;
+            if(i + 1 < keys.length){
+                aheadNode = bucketHead(keys[i + 1]);
+            }
+            while (currentNode != null && currentNode.key != key) {
+                currentNode = currentNode.next;
+            }
+            results[i] = currentNode == null ? null : currentNode.value;
+        }
+    }
+
+    @Override
+    public boolean containsAll(long[] keys) {
+        migrateBuckets();
+        if(keys.length == 0) return true;
+        Node<V> aheadNode = bucketHead(keys[0]);
+        for (int i = 0; i < keys.length; i++) {
+            long key = keys[i];
+            Node<V> currentNode = aheadNode;
+            if(i + 1 < keys.length){
+                aheadNode = bucketHead(keys[i + 1]);
+            }
+            while (currentNode != null && currentNode.key != key) {
+                currentNode = currentNode.next;
+            }
+            if(currentNode == null) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int removeAll(long[] keys) {
+        migrateBuckets();
+        long sizeBefore = size;
+        for (long key : keys) {
+            long hash = hashStrategy.hash(key);
+            if(isInOldTable(hash)){
+                removeFromTable(oldTable, (int) (hash >>> oldShift), key);
+            } else {
+                removeFromTable(table, (int) (hash >>> shift), key);
+            }
+        }
+        shrinkIfNeeded();
+        return (int) (sizeBefore - size);
+    }
+
+    int tableCapacity() {
+        return table.length;
+    }
+
+    /**
+     * Returns the current statistics. The table shape is measured by a scan over all buckets, so
+     * this is linear in the capacity; lookup and resize counters are only present when the map was
+     * configured with {@link LongMapConfig#withStatistics()}.
+     */
+    public LongMapStats stats() {
+        long[] chainLengths = new long[LongMapStats.HISTOGRAM_SIZE];
+        Node<V>[] table = this.table;
+        Node<V>[] oldTable = this.oldTable;
+        countChainLengths(table, chainLengths, true);
+        if(oldTable != null){
+            countChainLengths(oldTable, chainLengths, false);
+        }
+        return new LongMapStats(size, table.length, chainLengths, stats);
+    }
+
+    private static void countChainLengths(Node<?>[] table, long[] chainLengths, boolean countEmpty) {
+        for (Node<?> head : table) {
+            if(head == null && !countEmpty) continue;
+            int length = 0;
+            for (Node<?> currentNode = head; currentNode != null; currentNode = currentNode.next) {
+                length++;
+            }
+            chainLengths[Math.min(length, chainLengths.length - 1)]++;
+        }
+    }
+
+    /**
+     * Registers a {@link LongMapStatsMXBean} for this map with the platform MBean server under
+     * {@code de.comparus.opensource.longmap:type=LongMap,name=<name>}. Attributes are read from
+     * the calling JMX thread without locking, so values taken while the map is being written may
+     * be inconsistent; only the chain length attributes scan the table. The bean keeps the map reachable until it is
+     * unregistered with {@link #unregisterMBean(ObjectName)}.
+     */
+    public ObjectName registerMBean(String name) {
+        try {
+            ObjectName objectName = new ObjectName("de.comparus.opensource.longmap:type=LongMap,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new StatsBean(this), objectName);
+            return objectName;
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register MBean " + name, e);
+        }
+    }
+
+    public static void unregisterMBean(ObjectName objectName) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot unregister MBean " + objectName, e);
+        }
+    }
+
+    /**
+     * Used by {@link LongMapBuilder}: inserts without resizing, counting or indexing values, so that
+     * tasks owning disjoint bucket ranges can fill a pre-sized table concurrently.
+     */
+    boolean putIntoBucket(long key, V value) {
+        int index = indexFor(key, shift);
+        Node<V> currentNode = table[index];
+        if(currentNode == null){
+            table[index] = Node.newInstance(key, value);
+            return true;
+        }
+        while (true) {
+            if(currentNode.key == key){
+                currentNode.value = value;
+                return false;
+            }
+            if(currentNode.next == null) break;
+            currentNode = currentNode.next;
+        }
+        currentNode.next = Node.newInstance(key, value);
+        return true;
+    }
+
+    void finishBuild(long count) {
+        size += count;
+        if(valueIndex != null){
+            valueIndex.clear();
+            forEach(valueIndex::add);
+        }
+    }
+
+    /**
+     * Streams the keys through a spliterator that splits on bucket ranges, so {@code parallel()}
+     * scans the table on all cores. The map must not be modified while the stream is running.
+     */
+    public LongStream keyStream() {
+        finishMigration();
+        return StreamSupport.longStream(new KeySpliterator<>(table, 0, table.length, size), false);
+    }
+
+    public Stream<V> valueStream() {
+        finishMigration();
+        return StreamSupport.stream(new ValueSpliterator<>(table, 0, table.length, size), false);
+    }
+
+    public Stream<LongMapEntry<V>> entryStream() {
+        finishMigration();
+        return StreamSupport.stream(new EntrySpliterator<>(table, 0, table.length, size), false);
+    }
+
     @Override
     public boolean isEmpty() {
         return size == 0;
@@ -131,57 +545,188 @@ public class LongMapImpl<V> implements LongMap<V> {
 
     @Override
     public boolean containsKey(long key) {
-        return get(key) != null;
+        return findNode(key) != null;
+    }
+
+    private Node<V> findNode(long key) {
+        migrateBuckets();
+        long hash = hashStrategy.hash(key);
+        Node<V> currentNode = isInOldTable(hash) ? oldTable[(int) (hash >>> oldShift)] : table[(int) (hash >>> shift)];
+        while (currentNode != null && currentNode.key != key) {
+            currentNode = currentNode.next;
+        }
+        return currentNode;
+    }
+
+    @Override
+    public V putIfAbsent(long key, V value) {
+        if(value != null) return update(key, (k, current) -> value, true, false, true);
+        Node<V> node = findNode(key);
+        return node == null ? put(key, null) : node.value;
+    }
+
+    @Override
+    public V replace(long key, V value) {
+        Node<V> node = findNode(key);
+        if(node == null) return null;
+        V previousValue = node.value;
+        node.value = value;
+        reindexValue(key, previousValue, value);
+        return previousValue;
+    }
+
+    @Override
+    public boolean replace(long key, V oldValue, V newValue) {
+        Node<V> node = findNode(key);
+        if(node == null || !Objects.equals(node.value, oldValue)) return false;
+        node.value = newValue;
+        reindexValue(key, oldValue, newValue);
+        return true;
+    }
+
+    @Override
+    public V computeIfAbsent(long key, LongFunction<? extends V> mappingFunction) {
+        Objects.requireNonNull(mappingFunction);
+        return update(key, (k, current) -> mappingFunction.apply(k), true, false, false);
+    }
+
+    @Override
+    public V computeIfPresent(long key, LongObjFunction<? super V, ? extends V> remappingFunction) {
+        return update(key, Objects.requireNonNull(remappingFunction), false, true, false);
+    }
+
+    @Override
+    public V compute(long key, LongObjFunction<? super V, ? extends V> remappingFunction) {
+        return update(key, Objects.requireNonNull(remappingFunction), true, true, false);
+    }
+
+    @Override
+    public V merge(long key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+        Objects.requireNonNull(value);
+        return update(key, (k, current) -> current == null ? value : remappingFunction.apply(current, value), true, true, false);
+    }
+
+    /**
+     * Walks the bucket of {@code key} once: the remapping function sees the current value, which is
+     * {@code null} when the key is absent, and its result replaces, removes or is linked in front of
+     * the same bucket. The table is grown before the walk, so an insert never needs a second one.
+     */
+    private V update(long key, LongObjFunction<? super V, ? extends V> remappingFunction,
+                     boolean whenAbsent, boolean whenPresent, boolean returnPrevious) {
+        migrateBuckets();
+        resizeIfNeeded();
+        long hash = hashStrategy.hash(key);
+        Node<V>[] table;
+        int index;
+        if(isInOldTable(hash)){
+            table = oldTable;
+            index = (int) (hash >>> oldShift);
+        } else {
+            table = this.table;
+            index = (int) (hash >>> shift);
+        }
+        Node<V> previousNode = null;
+        Node<V> currentNode = table[index];
+        while (currentNode != null && currentNode.key != key) {
+            previousNode = currentNode;
+            currentNode = currentNode.next;
+        }
+        V oldValue = currentNode == null ? null : currentNode.value;
+        if(oldValue == null ? !whenAbsent : !whenPresent) return oldValue;
+        V newValue = remappingFunction.apply(key, oldValue);
+        if(newValue == null){
+            if(currentNode != null && whenPresent){
+                if(previousNode == null){
+                    table[index] = currentNode.next;
+                } else {
+                    previousNode.next = currentNode.next;
+                }
+                size--;
+                unindexValue(key, oldValue);
+                shrinkIfNeeded();
+            }
+        } else if(currentNode != null){
+            currentNode.value = newValue;
+            reindexValue(key, oldValue, newValue);
+        } else {
+            Node<V> newNode = Node.newInstance(key, newValue);
+            newNode.next = table[index];
+            table[index] = newNode;
+            size++;
+            indexValue(key, newValue);
+        }
+        return returnPrevious ? oldValue : newValue;
     }
 
     @Override
     public boolean containsValue(V value) {
+        if(valueIndex != null) return valueIndex.contains(value);
+        finishMigration();
         for(Node<V> head : table){
             Node<V> currentNode = head;
             while (currentNode != null) {
-                if(value == null && currentNode.value == null) return true;
-                if (currentNode.value.equals(value)) return true;
+                if(Objects.equals(currentNode.value, value)) return true;
                 currentNode = currentNode.next;
             }
         }
         return false;
     }
 
+    @Override
+    public long[] keysForValue(V value) {
+        if(valueIndex != null) return valueIndex.keysFor(value);
+        return LongMap.super.keysForValue(value);
+    }
+
     @Override
     public long[] keys() {
-        List<Long> keyList = new ArrayList<>();
-        for (int i = 0; i < table.length; i++) {
-            Node<V> currentNode = table[i];
-            while (currentNode != null){
-                keyList.add(currentNode.key);
-                currentNode = currentNode.next;
+        finishMigration();
+        long[] result = new long[arrayLength()];
+        int position = 0;
+        for (Node<V> head : table) {
+            for (Node<V> currentNode = head; currentNode != null; currentNode = currentNode.next) {
+                result[position++] = currentNode.key;
             }
         }
-        return keyList.stream()
-                .mapToLong(Long::longValue)
-                .toArray();
+        return result;
     }
 
     @Override
     public V[] values() {
-        List<V> valueList = new ArrayList<>();
-        for (int i = 0; i < table.length; i++) {
-            Node<V> currentNode = table[i];
-            while(currentNode != null){
-                valueList.add(currentNode.value);
-                currentNode = currentNode.next;
+        finishMigration();
+        Object[] result = new Object[arrayLength()];
+        int position = 0;
+        for (Node<V> head : table) {
+            for (Node<V> currentNode = head; currentNode != null; currentNode = currentNode.next) {
+                result[position++] = currentNode.value;
             }
         }
-        if(valueList.isEmpty()) return (V[]) null;
-        Class vClass = valueList.get(0).getClass();
-        V[] vArray = (V[]) Array.newInstance(vClass, valueList.size());
-        for (int i = 0; i < vArray.length; i++) {
-            vArray[i] = valueList.get(i);
+        return LongMapArrays.toTypedArray(result, position);
+    }
+
+    private int arrayLength() {
+        if(size > Integer.MAX_VALUE - 8){
+            throw new IllegalStateException("LongMap is too large to be copied into an array: " + size);
         }
-        return vArray;
+        return (int) size;
     }
 
+    @Override
+    public void forEach(LongObjConsumer<? super V> action) {
+        Objects.requireNonNull(action);
+        finishMigration();
+        for (Node<V> head : table) {
+            for (Node<V> currentNode = head; currentNode != null; currentNode = currentNode.next) {
+                action.accept(currentNode.key, currentNode.value);
+            }
+        }
+    }
 
+    @Override
+    public LongMapCursor<V> cursor() {
+        return new Cursor();
+    }
 
     @Override
     public long size() {
@@ -190,14 +735,303 @@ public class LongMapImpl<V> implements LongMap<V> {
 
     @Override
     public void clear() {
-        Node<V>[] newTable = new Node[DEFAULT_CAPACITY];
+        oldTable = null;
+        migrationIndex = 0;
+        Node<V>[] newTable = new Node[minimumCapacity];
         if(table != null && size > 0){
             size = 0;
             for (int i = 0; i < table.length; i++) {
                 table[i] = null;
             }
         }
-        table = newTable;
+        setTable(newTable);
+        if(valueIndex != null) valueIndex.clear();
+    }
+
+    /**
+     * Reads the counters straight from the {@link StatsRecorder}; only the chain length
+     * attributes scan the table.
+     */
+    private static final class StatsBean implements LongMapStatsMXBean {
+        private static final long[] NO_CHAIN_LENGTHS = new long[LongMapStats.HISTOGRAM_SIZE];
+        private final LongMapImpl<?> map;
+
+        StatsBean(LongMapImpl<?> map) {
+            this.map = map;
+        }
+
+        private LongMapStats counters() {
+            return new LongMapStats(map.size, map.tableCapacity(), NO_CHAIN_LENGTHS, map.stats);
+        }
+
+        @Override
+        public long getSize() {
+            return map.size();
+        }
+
+        @Override
+        public int getCapacity() {
+            return map.tableCapacity();
+        }
+
+        @Override
+        public double getLoadFactor() {
+            return (double) map.size() / map.tableCapacity();
+        }
+
+        @Override
+        public long[] getChainLengthHistogram() {
+            return map.stats().getChainLengthHistogram();
+        }
+
+        @Override
+        public int getMaximumChainLength() {
+            return map.stats().getMaximumChainLength();
+        }
+
+        @Override
+        public long[] getProbeLengthHistogram() {
+            return counters().getProbeLengthHistogram();
+        }
+
+        @Override
+        public double getAverageProbeLength() {
+            return counters().getAverageProbeLength();
+        }
+
+        @Override
+        public long getHitCount() {
+            StatsRecorder recorder = map.stats;
+            return recorder == null ? 0 : recorder.hitCount;
+        }
+
+        @Override
+        public long getMissCount() {
+            StatsRecorder recorder = map.stats;
+            return recorder == null ? 0 : recorder.missCount;
+        }
+
+        @Override
+        public double getHitRate() {
+            return counters().getHitRate();
+        }
+
+        @Override
+        public long getResizeCount() {
+            StatsRecorder recorder = map.stats;
+            return recorder == null ? 0 : recorder.resizeCount;
+        }
+
+        @Override
+        public long getResizeNanos() {
+            StatsRecorder recorder = map.stats;
+            return recorder == null ? 0 : recorder.resizeNanos;
+        }
+    }
+
+    private class Cursor implements LongMapCursor<V> {
+        private Node<V>[] cursorTable;
+        private int nextBucket;
+        private Node<V> previous;
+        private Node<V> current;
+        private boolean positioned;
+        private boolean removed;
+
+        private Cursor() {
+            reset();
+        }
+
+        /**
+         * Shrinking would move the entries under the cursor, so removals through the cursor
+         * shrink the table only once the iteration ends or the cursor is reset.
+         */
+        private void shrinkAfterRemovals() {
+            if(removed){
+                removed = false;
+                shrinkIfNeeded();
+            }
+        }
+
+        @Override
+        public void reset() {
+            shrinkAfterRemovals();
+            finishMigration();
+            cursorTable = table;
+            nextBucket = 0;
+            previous = null;
+            current = null;
+            positioned = false;
+        }
+
+        @Override
+        public boolean advance() {
+            if(positioned){
+                previous = current;
+            }
+            Node<V> next = current == null ? null : current.next;
+            positioned = false;
+            while (next == null && nextBucket < cursorTable.length) {
+                previous = null;
+                next = cursorTable[nextBucket++];
+            }
+            current = next;
+            positioned = next != null;
+            if(!positioned) shrinkAfterRemovals();
+            return positioned;
+        }
+
+        private void checkPositioned() {
+            if(!positioned){
+                throw new IllegalStateException("Cursor is not positioned on an entry");
+            }
+        }
+
+        @Override
+        public long key() {
+            checkPositioned();
+            return current.key;
+        }
+
+        @Override
+        public V value() {
+            checkPositioned();
+            return current.value;
+        }
+
+        @Override
+        public void remove() {
+            checkPositioned();
+            if(previous == null){
+                cursorTable[nextBucket - 1] = current.next;
+            } else {
+                previous.next = current.next;
+            }
+            size--;
+            unindexValue(current.key, current.value);
+            positioned = false;
+            removed = true;
+        }
+    }
+
+    private abstract static class TableSpliterator<V> {
+        final Node<V>[] table;
+        final int fence;
+        int index;
+        Node<V> current;
+        long estimate;
+
+        TableSpliterator(Node<V>[] table, int from, int to, long estimate) {
+            this.table = table;
+            this.index = from;
+            this.fence = to;
+            this.estimate = estimate;
+        }
+
+        final Node<V> nextNode() {
+            if(current != null){
+                current = current.next;
+            }
+            while (current == null && index < fence) {
+                current = table[index++];
+            }
+            return current;
+        }
+
+        final int splitIndex() {
+            int middle = (index + fence) >>> 1;
+            return current == null && middle > index ? middle : -1;
+        }
+
+        final long halveEstimate() {
+            return estimate >>>= 1;
+        }
+
+        public long estimateSize() {
+            return estimate;
+        }
+
+        public int characteristics() {
+            return 0;
+        }
+    }
+
+    private static final class KeySpliterator<V> extends TableSpliterator<V> implements Spliterator.OfLong {
+        KeySpliterator(Node<V>[] table, int from, int to, long estimate) {
+            super(table, from, to, estimate);
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            Node<V> node = nextNode();
+            if(node == null) return false;
+            action.accept(node.key);
+            return true;
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+            int middle = splitIndex();
+            if(middle < 0) return null;
+            KeySpliterator<V> prefix = new KeySpliterator<>(table, index, middle, halveEstimate());
+            index = middle;
+            return prefix;
+        }
+
+        @Override
+        public int characteristics() {
+            return super.characteristics() | Spliterator.DISTINCT;
+        }
+    }
+
+    private static final class ValueSpliterator<V> extends TableSpliterator<V> implements Spliterator<V> {
+        ValueSpliterator(Node<V>[] table, int from, int to, long estimate) {
+            super(table, from, to, estimate);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super V> action) {
+            Node<V> node = nextNode();
+            if(node == null) return false;
+            action.accept(node.value);
+            return true;
+        }
+
+        @Override
+        public Spliterator<V> trySplit() {
+            int middle = splitIndex();
+            if(middle < 0) return null;
+            ValueSpliterator<V> prefix = new ValueSpliterator<>(table, index, middle, halveEstimate());
+            index = middle;
+            return prefix;
+        }
+    }
+
+    private static final class EntrySpliterator<V> extends TableSpliterator<V> implements Spliterator<LongMapEntry<V>> {
+        EntrySpliterator(Node<V>[] table, int from, int to, long estimate) {
+            super(table, from, to, estimate);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super LongMapEntry<V>> action) {
+            Node<V> node = nextNode();
+            if(node == null) return false;
+            action.accept(new LongMapEntry<>(node.key, node.value));
+            return true;
+        }
+
+        @Override
+        public Spliterator<LongMapEntry<V>> trySplit() {
+            int middle = splitIndex();
+            if(middle < 0) return null;
+            EntrySpliterator<V> prefix = new EntrySpliterator<>(table, index, middle, halveEstimate());
+            index = middle;
+            return prefix;
+        }
+
+        @Override
+        public int characteristics() {
+            return super.characteristics() | Spliterator.DISTINCT | Spliterator.NONNULL;
+        }
     }
 
     private static class Node<V>{
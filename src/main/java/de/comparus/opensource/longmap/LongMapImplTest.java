@@ -2,12 +2,18 @@ package de.comparus.opensource.longmap;
 
 import org.junit.jupiter.api.*;
 
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -48,12 +54,12 @@ class LongMapImplTest {
 
         @Test
         @Order(2)
-        @DisplayName("Checking creation by constructor with parameter of capacity")
+        @DisplayName("Checking creation by constructor with parameter of capacity rounded up to a power of two")
         void constructorWithTableCapacity() throws Exception{
             LongMapImpl newLongMap = constructor.newInstance(33);
             Object[] table = (Object[]) getPrivateFieldValue("table", newLongMap);
 
-            assertThat(table).hasSize(33);
+            assertThat(table).hasSize(64);
         }
 
         @Test
@@ -69,10 +75,10 @@ class LongMapImplTest {
         @DisplayName("Checking the limit of the maximum capacity of the table")
         void checkLimitCapacityWhenCreate() throws Exception {
             int maximumCapacity = (int) getPrivateFieldValue("MAXIMUM_CAPACITY", null);
-            LongMapImpl longMap = constructor.newInstance(maximumCapacity + 1);
-            Object[] table =(Object[]) getPrivateFieldValue("table", longMap);
 
-            assertThat(table).hasSize(maximumCapacity);
+            assertThat(maximumCapacity).isGreaterThan(1 << 20);
+            assertThat(LongMapImpl.capacityFor(maximumCapacity + 1)).isEqualTo(maximumCapacity);
+            assertThat(LongMapImpl.capacityFor(Integer.MAX_VALUE)).isEqualTo(maximumCapacity);
         }
     }
 
@@ -133,6 +139,48 @@ class LongMapImplTest {
 
             assertThat(index).isNotNegative();
         }
+
+        @Test
+        @Order(5)
+        @DisplayName("Hash strategies spread keys allocated in blocks of 1024 over the table")
+        void hashStrategiesSpreadStridedKeys(){
+            final int capacity = 1024;
+            final int shift = LongHashStrategy.shiftFor(capacity);
+            Stream.of(LongHashStrategy.MURMUR3, LongHashStrategy.FIBONACCI, LongHashStrategy.seeded(42L))
+                    .forEach(strategy -> {
+                        Set<Long> indexes = Stream.iterate(0L, key -> key + 1024)
+                                .limit(capacity)
+                                .map(key -> strategy.hash(key) >>> shift)
+                                .collect(Collectors.toSet());
+
+                        assertThat(indexes.size()).isGreaterThan(capacity / 2);
+                    });
+        }
+
+        @Test
+        @Order(6)
+        @DisplayName("Seeded hash strategies differ for different seeds")
+        void seededHashStrategiesDiffer(){
+            LongHashStrategy first = LongHashStrategy.seeded(1L);
+            LongHashStrategy second = LongHashStrategy.seeded(2L);
+
+            assertThat(first.hash(12345L)).isEqualTo(LongHashStrategy.seeded(1L).hash(12345L));
+            assertThat(first.hash(12345L)).isNotEqualTo(second.hash(12345L));
+        }
+
+        @Test
+        @Order(7)
+        @DisplayName("Calculate index stays within the table allocated for capacities that are not powers of two")
+        void calculateIndexRoundsCapacity(){
+            ThreadLocalRandom.current().longs(1_000).forEach(key -> {
+                assertThat(LongMapImpl.calculateIndex(key, 1)).isBetween(0, 1);
+                assertThat(LongMapImpl.calculateIndex(key, 10)).isBetween(0, 15);
+                assertThat(OpenAddressingLongMap.calculateIndex(key, 1)).isBetween(0, 1);
+                assertThat(OpenAddressingLongMap.calculateIndex(key, 10)).isBetween(0, 15);
+            });
+            assertThatThrownBy(() -> LongMapImpl.calculateIndex(1L, 0)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> OpenAddressingLongMap.calculateIndex(1L, -1)).isInstanceOf(IllegalArgumentException.class);
+        }
     }
 
     @Nested
@@ -409,8 +457,7 @@ class LongMapImplTest {
             assertThat(keysArrayWhenMapHasOneEntry[0]).isEqualTo(1L);
 
             assertThat(keysArrayWhenMapHasManyEntries).hasSize(2);
-            assertThat(keysArrayWhenMapHasManyEntries[0]).isEqualTo(1L);
-            assertThat(keysArrayWhenMapHasManyEntries[1]).isEqualTo(2L);
+            assertThat(keysArrayWhenMapHasManyEntries).containsExactlyInAnyOrder(1L, 2L);
         }
 
         @Test
@@ -429,8 +476,7 @@ class LongMapImplTest {
             assertThat(whenMapHasOneEntry[0]).isEqualTo("value 1");
 
             assertThat(whenMapHasManyEntries).hasSize(2);
-            assertThat(whenMapHasManyEntries[0]).isEqualTo("value 1");
-            assertThat(whenMapHasManyEntries[1]).isEqualTo("value 2");
+            assertThat(whenMapHasManyEntries).containsExactlyInAnyOrder("value 1", "value 2");
         }
 
         @Test
@@ -451,8 +497,7 @@ class LongMapImplTest {
             assertThat(whenMapHasOneEntry[0]).isEqualTo(12);
 
             assertThat(whenMapHasManyEntries).hasSize(2);
-            assertThat(whenMapHasManyEntries[0]).isEqualTo(12);
-            assertThat(whenMapHasManyEntries[1]).isEqualTo(13);
+            assertThat(whenMapHasManyEntries).containsExactlyInAnyOrder(12, 13);
         }
 
         @Test
@@ -483,10 +528,10 @@ class LongMapImplTest {
 
             long newSize = (long) getPrivateFieldValue("size", stringLongMap);
             Object[] table = (Object[]) getPrivateFieldValue("table", stringLongMap);
-            int defaultCapacity = (int) getPrivateFieldValue("DEFAULT_CAPACITY", stringLongMap);
+            int minimumCapacity = (int) getPrivateFieldValue("minimumCapacity", stringLongMap);
 
             assertThat(newSize).isEqualTo(0L);
-            assertThat(table.length).isEqualTo(defaultCapacity);
+            assertThat(table.length).isEqualTo(minimumCapacity);
         }
 
         @Test
@@ -497,10 +542,679 @@ class LongMapImplTest {
 
             long newSize = (long) getPrivateFieldValue("size", stringLongMap);
             Object[] table = (Object[]) getPrivateFieldValue("table", stringLongMap);
-            int defaultCapacity = (int) getPrivateFieldValue("DEFAULT_CAPACITY", stringLongMap);
+            int minimumCapacity = (int) getPrivateFieldValue("minimumCapacity", stringLongMap);
 
             assertThat(newSize).isEqualTo(0L);
-            assertThat(table.length).isEqualTo(defaultCapacity);
+            assertThat(table.length).isEqualTo(minimumCapacity);
+        }
+    }
+
+    @Nested
+    @Order(4)
+    @DisplayName("4. Incremental resize Test")
+    @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+    class IncrementalResizeTest{
+        LongMapImpl<String> stringLongMap;
+
+        @BeforeEach
+        void init(){
+            stringLongMap = new LongMapImpl<>(LongMapConfig.defaults()
+                    .withInitialCapacity(DEFAULT_MAP_TEST_CAPACITY)
+                    .withIncrementalResize(2));
+        }
+
+        @Test
+        @Order(1)
+        @DisplayName("Growth keeps the old table and migrates a bounded number of buckets per operation")
+        void growthMigratesBucketsStepByStep() throws Exception{
+            addEntriesToMap(stringLongMap, DEFAULT_MAP_TEST_CAPACITY + 1);
+            Object[] oldTable = (Object[]) getPrivateFieldValue("oldTable", stringLongMap);
+            int migrationIndex = (int) getPrivateFieldValue("migrationIndex", stringLongMap);
+            Object[] table = (Object[]) getPrivateFieldValue("table", stringLongMap);
+
+            assertThat(oldTable).hasSize(DEFAULT_MAP_TEST_CAPACITY);
+            assertThat(migrationIndex).isEqualTo(2);
+            assertThat(table).hasSize(2 * DEFAULT_MAP_TEST_CAPACITY);
+        }
+
+        @Test
+        @Order(2)
+        @DisplayName("Entries stay reachable while the migration is in progress")
+        void entriesReachableDuringMigration(){
+            int number = 1000;
+            addEntriesToMap(stringLongMap, number);
+            for (int key = 0; key < number; key++) {
+                assertThat(stringLongMap.get(key)).isEqualTo("str" + key);
+            }
+            for (int key = 0; key < number; key += 2) {
+                assertThat(stringLongMap.remove(key)).isEqualTo("str" + key);
+            }
+
+            assertThat(stringLongMap.size()).isEqualTo(number / 2);
+            assertThat(stringLongMap.keys()).hasSize(number / 2);
+            assertNull(stringLongMap.get(0L));
+            assertThat(stringLongMap.get(1L)).isEqualTo("str1");
+        }
+
+        @Test
+        @Order(3)
+        @DisplayName("Full scans finish the pending migration")
+        void fullScanFinishesMigration() throws Exception{
+            addEntriesToMap(stringLongMap, DEFAULT_MAP_TEST_CAPACITY + 1);
+            boolean containsValue = stringLongMap.containsValue("str3");
+
+            assertThat(containsValue).isTrue();
+            assertNull(getPrivateFieldValue("oldTable", stringLongMap));
+        }
+
+        @Test
+        @Order(4)
+        @DisplayName("Batch operations probe both tables without finishing the migration")
+        void batchOperationsKeepMigrationIncremental() throws Exception{
+            addEntriesToMap(stringLongMap, DEFAULT_MAP_TEST_CAPACITY + 1);
+            long[] keys = LongStream.rangeClosed(0, DEFAULT_MAP_TEST_CAPACITY + 1).toArray();
+            String[] results = new String[keys.length];
+            stringLongMap.getAll(keys, results);
+
+            assertThat(getPrivateFieldValue("oldTable", stringLongMap)).isNotNull();
+            assertThat((int) getPrivateFieldValue("migrationIndex", stringLongMap)).isEqualTo(4);
+            for (int i = 0; i < keys.length; i++) {
+                assertThat(results[i]).isEqualTo(keys[i] <= DEFAULT_MAP_TEST_CAPACITY ? "str" + keys[i] : null);
+            }
+            assertThat(stringLongMap.removeAll(new long[]{0L, 3L, 5L, 7L, 100L})).isEqualTo(4);
+            assertThat(getPrivateFieldValue("oldTable", stringLongMap)).isNotNull();
+            assertThat(stringLongMap.containsAll(new long[]{1L, 2L, 4L, 6L, 8L})).isTrue();
+            assertThat(stringLongMap.containsAll(keys)).isFalse();
+            assertThat(stringLongMap.keys()).containsExactlyInAnyOrder(1L, 2L, 4L, 6L, 8L);
+        }
+    }
+
+    @Nested
+    @Order(5)
+    @DisplayName("5. Iteration Test")
+    @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+    class IterationTest{
+        LongMapImpl<String> stringLongMap;
+
+        @BeforeEach
+        void init(){
+            stringLongMap = new LongMapImpl<>(DEFAULT_MAP_TEST_CAPACITY);
+        }
+
+        @Test
+        @Order(1)
+        @DisplayName("ForEach visits every entry once with its own value")
+        void forEachVisitsEveryEntry(){
+            addEntriesToMap(stringLongMap, 100);
+            long[] visited = new long[100];
+
+            stringLongMap.forEach((key, value) -> {
+                assertThat(value).isEqualTo("str" + key);
+                visited[(int) key]++;
+            });
+
+            assertThat(visited).containsOnly(1L);
+        }
+
+        @Test
+        @Order(2)
+        @DisplayName("Cursor walks all entries and removes the current one")
+        void cursorRemovesCurrentEntry(){
+            addEntriesToMap(stringLongMap, 100);
+            LongMapCursor<String> cursor = stringLongMap.cursor();
+            int visited = 0;
+            while (cursor.advance()) {
+                assertThat(cursor.value()).isEqualTo("str" + cursor.key());
+                if(cursor.key() % 2 == 0) cursor.remove();
+                visited++;
+            }
+
+            assertThat(visited).isEqualTo(100);
+            assertThat(stringLongMap.size()).isEqualTo(50L);
+            assertNull(stringLongMap.get(10L));
+            assertThat(stringLongMap.get(11L)).isEqualTo("str11");
+            cursor.reset();
+            visited = 0;
+            while (cursor.advance()) visited++;
+            assertThat(visited).isEqualTo(50);
+        }
+
+        @Test
+        @Order(3)
+        @DisplayName("Cursor throws exception when it is not positioned on an entry")
+        void cursorNotPositioned(){
+            stringLongMap.put(1L, "str1");
+            LongMapCursor<String> cursor = stringLongMap.cursor();
+
+            assertThatThrownBy(cursor::key).isInstanceOf(IllegalStateException.class);
+            assertThat(cursor.advance()).isTrue();
+            cursor.remove();
+            assertThatThrownBy(cursor::remove).isInstanceOf(IllegalStateException.class);
+            assertThat(cursor.advance()).isFalse();
+        }
+    }
+
+    @Nested
+    @Order(6)
+    @DisplayName("6. Bulk operations Test")
+    @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+    class BulkOperationsTest{
+        LongMapImpl<String> stringLongMap;
+
+        @BeforeEach
+        void init(){
+            stringLongMap = new LongMapImpl<>(LongMapConfig.defaults()
+                    .withInitialCapacity(DEFAULT_MAP_TEST_CAPACITY)
+                    .withIncrementalResize(2));
+        }
+
+        @Test
+        @Order(1)
+        @DisplayName("PutAll pre-sizes the table once and getAll fills the caller array")
+        void putAllAndGetAll() throws Exception{
+            long[] keys = new long[1000];
+            String[] values = new String[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = i * 7L;
+                values[i] = "str" + keys[i];
+            }
+            stringLongMap.putAll(keys, values);
+            String[] results = new String[keys.length + 1];
+            stringLongMap.getAll(new long[]{7L, 8L, 6993L}, results);
+
+            assertThat(stringLongMap.size()).isEqualTo(1000L);
+            assertThat(((Object[]) getPrivateFieldValue("table", stringLongMap)).length).isEqualTo(1024);
+            assertNull(getPrivateFieldValue("oldTable", stringLongMap));
+            assertThat(results[0]).isEqualTo("str7");
+            assertNull(results[1]);
+            assertThat(results[2]).isEqualTo("str6993");
+        }
+
+        @Test
+        @Order(2)
+        @DisplayName("ContainsAll and removeAll handle missing keys")
+        void containsAllAndRemoveAll(){
+            addEntriesToMap(stringLongMap, 100);
+
+            assertThat(stringLongMap.containsAll(new long[]{0L, 50L, 99L})).isTrue();
+            assertThat(stringLongMap.containsAll(new long[]{0L, 100L})).isFalse();
+            assertThat(stringLongMap.removeAll(new long[]{1L, 2L, 2L, 500L})).isEqualTo(2);
+            assertThat(stringLongMap.size()).isEqualTo(98L);
+            assertNull(stringLongMap.get(2L));
+        }
+
+        @Test
+        @Order(3)
+        @DisplayName("Bulk operations throw exception when the array is shorter than the keys")
+        void shortArrays(){
+            assertThatThrownBy(() -> stringLongMap.putAll(new long[]{1L, 2L}, new String[1]))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> stringLongMap.getAll(new long[]{1L, 2L}, new String[1]))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @Order(7)
+    @DisplayName("7. Compute and merge Test")
+    @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+    class ComputeTest{
+        LongMapImpl<String> stringLongMap;
+
+        @BeforeEach
+        void init(){
+            stringLongMap = new LongMapImpl<>(LongMapConfig.defaults()
+                    .withInitialCapacity(DEFAULT_MAP_TEST_CAPACITY)
+                    .withIncrementalResize(2));
+        }
+
+        @Test
+        @Order(1)
+        @DisplayName("ContainsKey is true for a key mapped to null")
+        void containsKeyWithNullValue(){
+            stringLongMap.put(1L, null);
+
+            assertThat(stringLongMap.containsKey(1L)).isTrue();
+            assertThat(stringLongMap.containsKey(2L)).isFalse();
+        }
+
+        @Test
+        @Order(2)
+        @DisplayName("PutIfAbsent, computeIfAbsent and replace follow the Map contracts")
+        void putIfAbsentAndReplace(){
+            assertNull(stringLongMap.putIfAbsent(1L, "a"));
+            assertThat(stringLongMap.putIfAbsent(1L, "b")).isEqualTo("a");
+            assertThat(stringLongMap.computeIfAbsent(1L, key -> "c")).isEqualTo("a");
+            assertThat(stringLongMap.computeIfAbsent(2L, key -> "str" + key)).isEqualTo("str2");
+            assertNull(stringLongMap.computeIfAbsent(3L, key -> null));
+            assertThat(stringLongMap.replace(1L, "d")).isEqualTo("a");
+            assertNull(stringLongMap.replace(4L, "d"));
+            assertThat(stringLongMap.replace(2L, "str2", "e")).isTrue();
+            assertThat(stringLongMap.replace(2L, "str2", "f")).isFalse();
+
+            assertThat(stringLongMap.size()).isEqualTo(2L);
+            assertThat(stringLongMap.get(1L)).isEqualTo("d");
+            assertThat(stringLongMap.get(2L)).isEqualTo("e");
+            assertThat(stringLongMap.containsKey(3L)).isFalse();
+        }
+
+        @Test
+        @Order(3)
+        @DisplayName("Compute, computeIfPresent and merge insert, update and remove entries")
+        void computeAndMerge(){
+            for (int i = 0; i < 1000; i++) {
+                stringLongMap.merge(i % 50, "x", String::concat);
+            }
+            assertThat(stringLongMap.size()).isEqualTo(50L);
+            assertThat(stringLongMap.get(7L)).hasSize(20);
+
+            assertThat(stringLongMap.compute(7L, (key, value) -> key + value.substring(18))).isEqualTo("7xx");
+            assertThat(stringLongMap.compute(100L, (key, value) -> value == null ? "new" : value)).isEqualTo("new");
+            assertNull(stringLongMap.computeIfPresent(200L, (key, value) -> "never"));
+            assertNull(stringLongMap.computeIfPresent(8L, (key, value) -> null));
+            assertNull(stringLongMap.merge(9L, "y", (oldValue, value) -> null));
+
+            assertThat(stringLongMap.size()).isEqualTo(49L);
+            assertThat(stringLongMap.containsKey(8L)).isFalse();
+            assertThat(stringLongMap.containsKey(9L)).isFalse();
+            assertThat(stringLongMap.containsKey(200L)).isFalse();
+            for (int key = 10; key < 50; key++) {
+                assertThat(stringLongMap.get(key)).hasSize(20);
+            }
+        }
+    }
+
+    @Nested
+    @Order(8)
+    @DisplayName("8. Value index Test")
+    @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+    class ValueIndexTest{
+        LongMapImpl<String> stringLongMap;
+
+        @BeforeEach
+        void init(){
+            stringLongMap = new LongMapImpl<>(LongMapConfig.defaults()
+                    .withInitialCapacity(DEFAULT_MAP_TEST_CAPACITY)
+                    .withIncrementalResize(2)
+                    .withValueIndex());
+        }
+
+        @Test
+        @Order(1)
+        @DisplayName("ContainsValue and keysForValue follow puts, replacements and removals")
+        void indexFollowsWrites(){
+            stringLongMap.put(1L, "a");
+            stringLongMap.put(2L, "a");
+            stringLongMap.put(3L, null);
+            stringLongMap.put(4L, "b");
+
+            assertThat(stringLongMap.keysForValue("a")).containsExactlyInAnyOrder(1L, 2L);
+            assertThat(stringLongMap.containsValue(null)).isTrue();
+            stringLongMap.put(1L, "b");
+            stringLongMap.remove(3L);
+            stringLongMap.merge(4L, "c", String::concat);
+            stringLongMap.computeIfAbsent(5L, key -> "a");
+
+            assertThat(stringLongMap.keysForValue("a")).containsExactlyInAnyOrder(2L, 5L);
+            assertThat(stringLongMap.keysForValue("b")).containsExactly(1L);
+            assertThat(stringLongMap.containsValue("bc")).isTrue();
+            assertThat(stringLongMap.containsValue(null)).isFalse();
+            assertThat(stringLongMap.keysForValue("missing")).isEmpty();
+            stringLongMap.clear();
+            assertThat(stringLongMap.containsValue("a")).isFalse();
+        }
+
+        @Test
+        @Order(2)
+        @DisplayName("Index matches a full scan after random operations, resizes and cursor removals")
+        void indexMatchesScan(){
+            LongMapImpl<String> scanned = new LongMapImpl<>(DEFAULT_MAP_TEST_CAPACITY);
+            Random random = new Random(17);
+            for (int i = 0; i < 20_000; i++) {
+                long key = random.nextInt(2_000);
+                String value = "v" + random.nextInt(50);
+                if(random.nextInt(4) == 0){
+                    stringLongMap.remove(key);
+                    scanned.remove(key);
+                } else {
+                    stringLongMap.put(key, value);
+                    scanned.put(key, value);
+                }
+            }
+            LongMapCursor<String> cursor = stringLongMap.cursor();
+            while (cursor.advance()) {
+                if(cursor.key() % 5 == 0){
+                    scanned.remove(cursor.key());
+                    cursor.remove();
+                }
+            }
+
+            for (int i = 0; i < 55; i++) {
+                assertThat(stringLongMap.containsValue("v" + i)).isEqualTo(scanned.containsValue("v" + i));
+                assertThat(stringLongMap.keysForValue("v" + i)).containsExactlyInAnyOrder(scanned.keysForValue("v" + i));
+            }
+        }
+
+        @Test
+        @Order(3)
+        @DisplayName("ContainsValue without index skips null values in the middle of a chain")
+        void containsValueWithoutIndexSkipsNulls(){
+            LongMapImpl<String> longMap = new LongMapImpl<>(DEFAULT_MAP_TEST_CAPACITY);
+            long[] keys = getKeysTheSameIndex(3, DEFAULT_MAP_TEST_CAPACITY);
+            longMap.put(keys[0], "a");
+            longMap.put(keys[1], null);
+            longMap.put(keys[2], "c");
+
+            assertThat(longMap.containsValue("c")).isTrue();
+            assertThat(longMap.containsValue("d")).isFalse();
+            assertThat(longMap.keysForValue(null)).containsExactly(keys[1]);
+        }
+
+        @Test
+        @Order(4)
+        @DisplayName("Index follows mass removals of keys sharing one value")
+        void indexFollowsSharedValueRemovals(){
+            for (long key = 0; key < 10_000; key++) {
+                stringLongMap.put(key, key % 100 == 0 ? "other" : "shared");
+            }
+            Random random = new Random(14);
+            long[] order = LongStream.range(0, 10_000).toArray();
+            for (int i = order.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                long swapped = order[i];
+                order[i] = order[j];
+                order[j] = swapped;
+            }
+            for (long key : order) {
+                if(key % 7 != 0) stringLongMap.remove(key);
+            }
+            for (long key = 0; key < 10_000; key += 14) {
+                stringLongMap.put(key, "moved");
+            }
+
+            long[] shared = LongStream.range(0, 10_000).filter(key -> key % 7 == 0 && key % 14 != 0 && key % 100 != 0).toArray();
+            long[] other = LongStream.range(0, 10_000).filter(key -> key % 7 == 0 && key % 14 != 0 && key % 100 == 0).toArray();
+            assertThat(stringLongMap.keysForValue("shared")).containsExactlyInAnyOrder(shared);
+            assertThat(stringLongMap.keysForValue("other")).containsExactlyInAnyOrder(other);
+            assertThat(stringLongMap.keysForValue("moved")).hasSize(715);
+        }
+    }
+
+    @Nested
+    @Order(9)
+    @DisplayName("9. Statistics Test")
+    @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+    class StatisticsTest{
+
+        @Test
+        @Order(1)
+        @DisplayName("Hits, misses and probe lengths are recorded only when statistics are enabled")
+        void recordsLookups(){
+            LongMapImpl<String> longMap = new LongMapImpl<>(LongMapConfig.defaults()
+                    .withInitialCapacity(DEFAULT_MAP_TEST_CAPACITY)
+                    .withStatistics());
+            long[] keys = getKeysTheSameIndex(3, DEFAULT_MAP_TEST_CAPACITY);
+            for (long key : keys) {
+                longMap.put(key, "v" + key);
+            }
+            for (long key : keys) {
+                longMap.get(key);
+            }
+            longMap.get(keys[0] + 1);
+
+            LongMapStats stats = longMap.stats();
+            assertThat(stats.getHitCount()).isEqualTo(3);
+            assertThat(stats.getMissCount()).isEqualTo(1);
+            assertThat(stats.getHitRate()).isEqualTo(0.75);
+            long[] probeLengths = stats.getProbeLengthHistogram();
+            assertThat(probeLengths[1]).isPositive();
+            assertThat(probeLengths[2]).isPositive();
+            assertThat(probeLengths[3]).isPositive();
+            assertThat(LongStream.of(probeLengths).sum()).isEqualTo(4);
+            assertThat(stats.getAverageProbeLength()).isGreaterThan(0);
+            assertThat(stats.getMaximumChainLength()).isEqualTo(3);
+            assertThat(stats.getSize()).isEqualTo(3);
+            assertThat(stats.getLoadFactor()).isEqualTo(3.0 / DEFAULT_MAP_TEST_CAPACITY);
+
+            LongMapImpl<String> plainMap = new LongMapImpl<>(DEFAULT_MAP_TEST_CAPACITY);
+            addEntriesToMap(plainMap, 4);
+            plainMap.get(1L);
+            assertThat(plainMap.stats().getHitCount()).isZero();
+            assertThat(plainMap.stats().getChainLengthHistogram()[0]).isLessThan(DEFAULT_MAP_TEST_CAPACITY);
+        }
+
+        @Test
+        @Order(2)
+        @DisplayName("Resizes are counted and reported to the listener")
+        void recordsResizes(){
+            List<int[]> resizes = new ArrayList<>();
+            LongMapImpl<String> longMap = new LongMapImpl<>(LongMapConfig.defaults()
+                    .withInitialCapacity(DEFAULT_MAP_TEST_CAPACITY)
+                    .withIncrementalResize(2)
+                    .withStatistics()
+                    .withListener((oldCapacity, newCapacity, nanos) -> resizes.add(new int[]{oldCapacity, newCapacity})));
+            addEntriesToMap(longMap, 100);
+
+            LongMapStats stats = longMap.stats();
+            assertThat(stats.getResizeCount()).isEqualTo(resizes.size()).isEqualTo(4);
+            assertThat(resizes.get(0)).containsExactly(8, 16);
+            assertThat(resizes.get(3)).containsExactly(64, 128);
+            assertThat(stats.getResizeNanos()).isGreaterThanOrEqualTo(0);
+            long buckets = 0;
+            long entries = 0;
+            long[] chainLengths = stats.getChainLengthHistogram();
+            for (int i = 0; i < chainLengths.length; i++) {
+                buckets += chainLengths[i];
+                entries += i * chainLengths[i];
+            }
+            assertThat(entries).isEqualTo(100);
+            assertThat(buckets).isGreaterThanOrEqualTo(stats.getCapacity());
+        }
+
+        @Test
+        @Order(3)
+        @DisplayName("Statistics are exposed through a platform MBean")
+        void registersMBean() throws Exception {
+            LongMapImpl<String> longMap = new LongMapImpl<>(LongMapConfig.defaults().withStatistics());
+            addEntriesToMap(longMap, 10);
+            longMap.get(1L);
+            ObjectName name = longMap.registerMBean("statistics-test");
+            try {
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                assertThat(server.getAttribute(name, "Size")).isEqualTo(10L);
+                assertThat(server.getAttribute(name, "HitCount")).isEqualTo(1L);
+                assertThat(server.getAttribute(name, "Capacity")).isEqualTo(16);
+                longMap.get(-1L);
+                LongMapStats stats = longMap.stats();
+                assertThat(server.getAttribute(name, "MissCount")).isEqualTo(1L);
+                assertThat(server.getAttribute(name, "HitRate")).isEqualTo(0.5);
+                assertThat(server.getAttribute(name, "LoadFactor")).isEqualTo(stats.getLoadFactor());
+                assertThat(server.getAttribute(name, "AverageProbeLength")).isEqualTo(stats.getAverageProbeLength());
+                assertThat(server.getAttribute(name, "ProbeLengthHistogram")).isEqualTo(stats.getProbeLengthHistogram());
+                assertThat(server.getAttribute(name, "MaximumChainLength")).isEqualTo(stats.getMaximumChainLength());
+                assertThat(server.getAttribute(name, "ResizeCount")).isEqualTo(stats.getResizeCount());
+                assertThatThrownBy(() -> longMap.registerMBean("statistics-test")).isInstanceOf(IllegalStateException.class);
+            } finally {
+                LongMapImpl.unregisterMBean(name);
+            }
+        }
+    }
+
+    @Nested
+    @Order(10)
+    @DisplayName("10. Capacity planning Test")
+    @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+    class CapacityPlanningTest{
+
+        @Test
+        @Order(1)
+        @DisplayName("Map created for an expected size is filled without resizing")
+        void expectedSizeAvoidsResizing() throws Exception {
+            List<Integer> resizes = new ArrayList<>();
+            LongMapImpl<String> longMap = LongMapImpl.withExpectedSize(1_000, LongMapConfig.defaults()
+                    .withListener((oldCapacity, newCapacity, nanos) -> resizes.add(newCapacity)));
+            addEntriesToMap(longMap, 1_000);
+
+            assertThat(resizes.size()).isZero();
+            assertThat(((Object[]) getPrivateFieldValue("table", longMap)).length).isEqualTo(1024);
+            assertThat(LongMapImpl.<String>withExpectedSize(0).isEmpty()).isTrue();
+            assertThatThrownBy(() -> LongMapImpl.withExpectedSize(-1)).isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @Order(2)
+        @DisplayName("Removals shrink the table down to the initial capacity and trimToSize goes below it")
+        void removalsShrinkTable() throws Exception {
+            LongMapImpl<String> longMap = new LongMapImpl<>(64);
+            addEntriesToMap(longMap, 10_000);
+            for (long key = 0; key < 9_990; key++) {
+                assertThat(longMap.remove(key)).isEqualTo("str" + key);
+            }
+            for (long key = 9_990; key < 10_000; key++) {
+                assertThat(longMap.get(key)).isEqualTo("str" + key);
+            }
+            assertThat(((Object[]) getPrivateFieldValue("table", longMap)).length).isEqualTo(64);
+            longMap.trimToSize();
+            assertThat(((Object[]) getPrivateFieldValue("table", longMap)).length).isEqualTo(16);
+            for (long key = 0; key < 9_990; key++) {
+                longMap.remove(key);
+            }
+
+            assertThat(((Object[]) getPrivateFieldValue("table", longMap)).length).isEqualTo(16);
+            assertThat(longMap.size()).isEqualTo(10);
+            assertThat(longMap.keys()).containsExactlyInAnyOrder(LongStream.range(9_990, 10_000).toArray());
+
+            LongMapImpl<String> incremental = new LongMapImpl<>(LongMapConfig.defaults().withIncrementalResize(4));
+            addEntriesToMap(incremental, 10_000);
+            for (long key = 0; key < 9_000; key++) {
+                incremental.remove(key);
+            }
+            for (long key = 0; key < 10_000; key++) {
+                assertThat(incremental.get(key)).isEqualTo(key < 9_000 ? null : "str" + key);
+            }
+            assertThat(((Object[]) getPrivateFieldValue("table", incremental)).length).isLessThan(16_384);
+
+            LongMapImpl<String> drained = new LongMapImpl<>(64);
+            addEntriesToMap(drained, 10_000);
+            assertThat(drained.removeAll(LongStream.range(0, 10_000).toArray())).isEqualTo(10_000);
+            assertThat(((Object[]) getPrivateFieldValue("table", drained)).length).isLessThan(16_384);
+        }
+
+        @Test
+        @Order(3)
+        @DisplayName("Estimated footprint follows the entries and matches the planning estimate")
+        void estimatesFootprint(){
+            LongMapImpl<String> longMap = LongMapImpl.withExpectedSize(5_000);
+            long emptyBytes = longMap.estimatedFootprintBytes();
+            addEntriesToMap(longMap, 5_000);
+
+            assertThat(longMap.estimatedFootprintBytes()).isEqualTo(LongMapImpl.estimateFootprintBytes(5_000));
+            assertThat(longMap.estimatedFootprintBytes() - emptyBytes).isEqualTo(5_000 * 32L);
+            LongMapImpl<String> indexed = LongMapImpl.withExpectedSize(5_000, LongMapConfig.defaults().withValueIndex());
+            addEntriesToMap(indexed, 5_000);
+            assertThat(indexed.estimatedFootprintBytes()).isGreaterThan(longMap.estimatedFootprintBytes());
+        }
+    }
+
+    @Nested
+    @Order(11)
+    @DisplayName("11. Resize policy Test")
+    @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+    class ResizePolicyTest{
+
+        @Test
+        @Order(1)
+        @DisplayName("Invalid load factors and growth factors are rejected")
+        void rejectsInvalidPolicies(){
+            assertThatThrownBy(() -> LongMapConfig.defaults().withLoadFactor(0)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> LongMapConfig.defaults().withLoadFactor(Float.NaN)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> LongMapConfig.defaults().withShrinkLoadFactor(-0.1f)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> LongMapConfig.defaults().withGrowthFactor(3)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> LongMapConfig.defaults().withGrowthFactor(1)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> new LongMapImpl<>(LongMapConfig.defaults().withLoadFactor(0.5f).withShrinkLoadFactor(0.25f)))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @Order(2)
+        @DisplayName("Load factor and growth factor decide when and how far the table grows")
+        void growsByPolicy() throws Exception {
+            List<Integer> capacities = new ArrayList<>();
+            LongMapImpl<String> sparse = new LongMapImpl<>(LongMapConfig.defaults()
+                    .withLoadFactor(0.5f)
+                    .withShrinkLoadFactor(0.1f)
+                    .withGrowthFactor(4)
+                    .withListener((oldCapacity, newCapacity, nanos) -> capacities.add(newCapacity)));
+            addEntriesToMap(sparse, 1_000);
+            assertThat(capacities.toArray()).containsExactly(64, 256, 1024, 4096);
+
+            LongMapImpl<String> dense = new LongMapImpl<>(LongMapConfig.defaults().withLoadFactor(4).withShrinkLoadFactor(1));
+            addEntriesToMap(dense, 1_000);
+            assertThat(((Object[]) getPrivateFieldValue("table", dense)).length).isEqualTo(256);
+            assertThat(LongMapImpl.<String>withExpectedSize(1_000, LongMapConfig.defaults().withLoadFactor(0.5f))
+                    .estimatedFootprintBytes()).isGreaterThan(LongMapImpl.<String>withExpectedSize(1_000).estimatedFootprintBytes());
+            for (long key = 0; key < 1_000; key++) {
+                assertThat(sparse.get(key)).isEqualTo("str" + key);
+                assertThat(dense.get(key)).isEqualTo("str" + key);
+            }
+        }
+
+        @Test
+        @Order(3)
+        @DisplayName("Shrink load factor decides when removals shrink the table")
+        void shrinksByPolicy() throws Exception {
+            LongMapImpl<String> fixed = new LongMapImpl<>(LongMapConfig.defaults().withoutShrinking());
+            LongMapImpl<String> eager = new LongMapImpl<>(LongMapConfig.defaults().withShrinkLoadFactor(0.49f));
+            addEntriesToMap(fixed, 1_000);
+            addEntriesToMap(eager, 1_000);
+            for (long key = 0; key < 500; key++) {
+                fixed.remove(key);
+                eager.remove(key);
+            }
+
+            assertThat(((Object[]) getPrivateFieldValue("table", fixed)).length).isEqualTo(1024);
+            for (long key = 500; key < 1_000; key++) {
+                fixed.remove(key);
+            }
+            fixed.remove(1L);
+            fixed.removeAll(new long[]{2L, 3L});
+            assertThat(fixed.isEmpty()).isTrue();
+            assertThat(((Object[]) getPrivateFieldValue("table", fixed)).length).isEqualTo(1024);
+            assertThat(((Object[]) getPrivateFieldValue("table", eager)).length).isEqualTo(512);
+            assertThat(eager.keys()).containsExactlyInAnyOrder(LongStream.range(500, 1_000).toArray());
+        }
+
+        @Test
+        @Order(4)
+        @DisplayName("Compute, merge and cursor removals shrink the table and clear returns to the initial capacity")
+        void otherRemovalsShrink() throws Exception {
+            LongMapImpl<String> computed = new LongMapImpl<>(64);
+            addEntriesToMap(computed, 10_000);
+            for (long key = 0; key < 9_990; key++) {
+                if(key % 2 == 0){
+                    computed.computeIfPresent(key, (k, value) -> null);
+                } else {
+                    computed.merge(key, "ignored", (oldValue, value) -> null);
+                }
+            }
+            assertThat(((Object[]) getPrivateFieldValue("table", computed)).length).isEqualTo(64);
+            assertThat(computed.keys()).containsExactlyInAnyOrder(LongStream.range(9_990, 10_000).toArray());
+
+            LongMapImpl<String> iterated = new LongMapImpl<>(64);
+            addEntriesToMap(iterated, 10_000);
+            LongMapCursor<String> cursor = iterated.cursor();
+            int visited = 0;
+            while (cursor.advance()) {
+                visited++;
+                if(cursor.key() < 9_990) cursor.remove();
+            }
+            assertThat(visited).isEqualTo(10_000);
+            assertThat(((Object[]) getPrivateFieldValue("table", iterated)).length).isLessThan(16_384);
+            assertThat(iterated.keys()).containsExactlyInAnyOrder(LongStream.range(9_990, 10_000).toArray());
+
+            addEntriesToMap(iterated, 10_000);
+            iterated.clear();
+            assertThat(((Object[]) getPrivateFieldValue("table", iterated)).length).isEqualTo(64);
         }
     }
 
@@ -0,0 +1,17 @@
+package de.comparus.opensource.longmap;
+
+/**
+ * Callback for structural events of a {@link LongMapImpl}, registered through
+ * {@link LongMapConfig#withListener(LongMapListener)}. It runs on the thread that triggered the
+ * event, inside the map operation, so it should return quickly.
+ */
+@FunctionalInterface
+public interface LongMapListener {
+
+    /**
+     * Called after the table was resized from {@code oldCapacity} to {@code newCapacity} buckets;
+     * {@code nanos} is the time spent in the resize, which with incremental resizing only covers
+     * the first migration step.
+     */
+    void resized(int oldCapacity, int newCapacity, long nanos);
+}
@@ -0,0 +1,171 @@
+package de.comparus.opensource.longmap;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Binary snapshots of {@link OpenAddressingLongMap}. A snapshot is a header, the raw key table in
+ * slot order (free slots included) and the codec-encoded values of the occupied slots. When the
+ * reading map uses the same hash strategy, the key table is installed as is and nothing is
+ * rehashed; otherwise the entries are re-inserted. {@code null} values cannot be encoded.
+ */
+public final class LongMapSnapshots {
+    static final int MAGIC = 0x4c4d534e;
+    static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 40;
+    private static final int BUFFER_BYTES = 1 << 16;
+    private static final long FINGERPRINT_KEY = 0x9e3779b97f4a7c15L;
+
+    private LongMapSnapshots() {
+    }
+
+    public static <V> void write(OpenAddressingLongMap<V> longMap, LongMapValueCodec<V> codec,
+                                 WritableByteChannel channel) throws IOException {
+        checkNoNullValues(longMap);
+        int width = codec.width();
+        ByteBuffer buffer = newBuffer(width);
+        long[] keys = longMap.keys;
+        buffer.putInt(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .putInt(width)
+                .putInt(longMap.hasFreeKey ? 1 : 0)
+                .putLong(keys.length)
+                .putLong(longMap.size)
+                .putLong(fingerprint(longMap.hashStrategy));
+        if(longMap.hasFreeKey){
+            putValue(buffer, codec, longMap.freeKeyValue());
+        }
+        for (long key : keys) {
+            if(buffer.remaining() < Long.BYTES) flush(buffer, channel);
+            buffer.putLong(key);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if(keys[i] == AbstractLongHashTable.FREE_KEY) continue;
+            if(buffer.remaining() < width) flush(buffer, channel);
+            putValue(buffer, codec, (V) longMap.valueAt(i));
+        }
+        flush(buffer, channel);
+    }
+
+    public static <V> OpenAddressingLongMap<V> read(ReadableByteChannel channel, LongMapValueCodec<V> codec) throws IOException {
+        return read(channel, codec, LongHashStrategy.MURMUR3);
+    }
+
+    public static <V> OpenAddressingLongMap<V> read(ReadableByteChannel channel, LongMapValueCodec<V> codec,
+                                                    LongHashStrategy hashStrategy) throws IOException {
+        int width = codec.width();
+        ByteBuffer buffer = newBuffer(width);
+        buffer.limit(HEADER_BYTES);
+        readFully(buffer, channel);
+        if(buffer.getInt() != MAGIC){
+            throw new IOException("Not a LongMap snapshot");
+        }
+        int version = buffer.getInt();
+        if(version != FORMAT_VERSION){
+            throw new IOException("Unsupported LongMap snapshot version: " + version);
+        }
+        if(buffer.getInt() != width){
+            throw new IOException("Codec width does not match the snapshot");
+        }
+        boolean hasFreeKey = buffer.getInt() != 0;
+        long capacity = buffer.getLong();
+        long size = buffer.getLong();
+        boolean sameStrategy = buffer.getLong() == fingerprint(hashStrategy);
+        if(capacity > AbstractLongHashTable.MAXIMUM_CAPACITY || capacity < 2 || Long.bitCount(capacity) != 1){
+            throw new IOException("Corrupted LongMap snapshot capacity: " + capacity);
+        }
+        V freeKeyValue = null;
+        if(hasFreeKey){
+            buffer.clear().limit(width);
+            readFully(buffer, channel);
+            freeKeyValue = codec.read(buffer, 0);
+        }
+
+        long[] keys = new long[(int) capacity];
+        long occupied = hasFreeKey ? 1 : 0;
+        buffer.clear().limit(0);
+        for (int i = 0; i < keys.length; i++) {
+            if(!buffer.hasRemaining()) refill(buffer, channel, Long.BYTES, (long) (keys.length - i) * Long.BYTES);
+            keys[i] = buffer.getLong();
+            if(keys[i] != AbstractLongHashTable.FREE_KEY) occupied++;
+        }
+        if(occupied != size){
+            throw new IOException("Corrupted LongMap snapshot size: " + size + ", entries: " + occupied);
+        }
+        Object[] values = new Object[keys.length];
+        long remainingValues = hasFreeKey ? size - 1 : size;
+        for (int i = 0; i < keys.length; i++) {
+            if(keys[i] == AbstractLongHashTable.FREE_KEY) continue;
+            if(!buffer.hasRemaining()) refill(buffer, channel, width, remainingValues * width);
+            values[i] = codec.read(buffer, buffer.position());
+            buffer.position(buffer.position() + width);
+            remainingValues--;
+        }
+
+        OpenAddressingLongMap<V> longMap = new OpenAddressingLongMap<>(AbstractLongHashTable.DEFAULT_CAPACITY, hashStrategy);
+        if(sameStrategy){
+            longMap.installTable(keys, values, size, hasFreeKey, freeKeyValue);
+        } else {
+            if(hasFreeKey) longMap.put(AbstractLongHashTable.FREE_KEY, freeKeyValue);
+            for (int i = 0; i < keys.length; i++) {
+                if(keys[i] != AbstractLongHashTable.FREE_KEY) longMap.put(keys[i], (V) values[i]);
+            }
+        }
+        return longMap;
+    }
+
+    private static ByteBuffer newBuffer(int width) {
+        return ByteBuffer.allocateDirect(Math.max(BUFFER_BYTES, width + HEADER_BYTES)).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    static long fingerprint(LongHashStrategy hashStrategy) {
+        return hashStrategy.hash(FINGERPRINT_KEY) * 31 + hashStrategy.hash(~FINGERPRINT_KEY);
+    }
+
+    /**
+     * Runs before anything is written, so that a {@code null} value cannot leave a truncated
+     * snapshot behind in the channel.
+     */
+    private static void checkNoNullValues(OpenAddressingLongMap<?> longMap) {
+        boolean hasNull = longMap.hasFreeKey && longMap.freeKeyValue() == null;
+        long[] keys = longMap.keys;
+        for (int i = 0; i < keys.length && !hasNull; i++) {
+            hasNull = keys[i] != AbstractLongHashTable.FREE_KEY && longMap.valueAt(i) == null;
+        }
+        if(hasNull){
+            throw new NullPointerException("Null values cannot be written to a snapshot");
+        }
+    }
+
+    private static <V> void putValue(ByteBuffer buffer, LongMapValueCodec<V> codec, V value) {
+        codec.write(buffer, buffer.position(), value);
+        buffer.position(buffer.position() + codec.width());
+    }
+
+    private static void flush(ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static void refill(ByteBuffer buffer, ReadableByteChannel channel, int recordBytes, long bytesLeft) throws IOException {
+        int bytes = (int) Math.min(bytesLeft, buffer.capacity() - buffer.capacity() % recordBytes);
+        buffer.clear().limit(bytes);
+        readFully(buffer, channel);
+    }
+
+    private static void readFully(ByteBuffer buffer, ReadableByteChannel channel) throws IOException {
+        while (buffer.hasRemaining()) {
+            if(channel.read(buffer) < 0){
+                throw new EOFException("Unexpected end of LongMap snapshot");
+            }
+        }
+        buffer.flip();
+    }
+}
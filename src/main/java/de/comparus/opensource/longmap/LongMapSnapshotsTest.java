@@ -0,0 +1,114 @@
+package de.comparus.opensource.longmap;
+
+import org.junit.jupiter.api.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("LongMapSnapshots Test")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class LongMapSnapshotsTest {
+
+    @Test
+    @Order(1)
+    @DisplayName("Snapshot round trip installs the raw key table when the hash strategy matches")
+    void roundTripKeepsTableLayout() throws Exception {
+        OpenAddressingLongMap<Long> longMap = new OpenAddressingLongMap<>();
+        for (long key = -5_000; key < 5_000; key++) {
+            longMap.put(key, key * 3);
+        }
+
+        OpenAddressingLongMap<Long> restored = readBack(writeSnapshot(longMap), LongHashStrategy.MURMUR3);
+
+        assertThat(restored.size()).isEqualTo(longMap.size());
+        assertThat(restored.get(0L)).isEqualTo(0L);
+        assertThat(restored.get(-5_000L)).isEqualTo(-15_000L);
+        assertThat(restored.get(4_999L)).isEqualTo(14_997L);
+        assertThat(getKeyTable(restored)).containsExactly(getKeyTable(longMap));
+        restored.put(10_000L, 1L);
+        assertThat(restored.get(10_000L)).isEqualTo(1L);
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Snapshot read with another hash strategy re-inserts the entries")
+    void readWithAnotherStrategy() throws Exception {
+        OpenAddressingLongMap<Long> longMap = new OpenAddressingLongMap<>();
+        for (long key = 1; key <= 1_000; key++) {
+            longMap.put(key, key);
+        }
+
+        OpenAddressingLongMap<Long> restored = readBack(writeSnapshot(longMap), LongHashStrategy.FIBONACCI);
+
+        assertThat(restored.size()).isEqualTo(1_000L);
+        for (long key = 1; key <= 1_000; key++) {
+            assertThat(restored.get(key)).isEqualTo(key);
+        }
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Reading rejects truncated snapshots and foreign data")
+    void readRejectsInvalidInput() throws Exception {
+        OpenAddressingLongMap<Long> longMap = new OpenAddressingLongMap<>();
+        longMap.put(1L, 1L);
+        byte[] snapshot = writeSnapshot(longMap);
+        byte[] truncated = new byte[snapshot.length - 3];
+        System.arraycopy(snapshot, 0, truncated, 0, truncated.length);
+
+        assertThatThrownBy(() -> readBack(truncated, LongHashStrategy.MURMUR3)).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> readBack(new byte[64], LongHashStrategy.MURMUR3))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Not a LongMap snapshot");
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Writing a null value leaves the channel empty and reading checks the size against the keys")
+    void nullValuesAndCorruptedSize() throws Exception {
+        OpenAddressingLongMap<Long> withNull = new OpenAddressingLongMap<>();
+        for (long key = 1; key <= 100; key++) {
+            withNull.put(key, key);
+        }
+        withNull.put(50L, null);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        assertThatThrownBy(() -> LongMapSnapshots.write(withNull, LongMapValueCodec.LONG, Channels.newChannel(output)))
+                .isInstanceOf(NullPointerException.class);
+        assertThat(output.size()).isZero();
+
+        OpenAddressingLongMap<Long> longMap = new OpenAddressingLongMap<>();
+        longMap.put(0L, 0L);
+        longMap.put(1L, 1L);
+        byte[] snapshot = writeSnapshot(longMap);
+        ByteBuffer.wrap(snapshot).order(ByteOrder.LITTLE_ENDIAN).putLong(24, 3L);
+
+        assertThatThrownBy(() -> readBack(snapshot, LongHashStrategy.MURMUR3))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Corrupted LongMap snapshot size");
+    }
+
+    private byte[] writeSnapshot(OpenAddressingLongMap<Long> longMap) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        LongMapSnapshots.write(longMap, LongMapValueCodec.LONG, Channels.newChannel(output));
+        return output.toByteArray();
+    }
+
+    private OpenAddressingLongMap<Long> readBack(byte[] snapshot, LongHashStrategy hashStrategy) throws IOException {
+        return LongMapSnapshots.read(Channels.newChannel(new ByteArrayInputStream(snapshot)), LongMapValueCodec.LONG, hashStrategy);
+    }
+
+    private long[] getKeyTable(OpenAddressingLongMap<?> longMap) throws Exception {
+        Field field = AbstractLongHashTable.class.getDeclaredField("keys");
+        field.setAccessible(true);
+        return (long[]) field.get(longMap);
+    }
+}
@@ -0,0 +1,107 @@
+package de.comparus.opensource.longmap;
+
+import java.util.Arrays;
+
+/**
+ * Point-in-time statistics of a {@link LongMapImpl}. The table shape - size, capacity, load factor
+ * and the histogram of chain lengths over all buckets - is always available. Lookup and resize
+ * counters are only recorded when the map was configured with
+ * {@link LongMapConfig#withStatistics()} and are zero otherwise.
+ * <p>
+ * Histograms have {@value #HISTOGRAM_SIZE} slots: slot {@code i} counts lengths of exactly
+ * {@code i}, and the last slot also counts every longer length.
+ */
+public final class LongMapStats {
+    public static final int HISTOGRAM_SIZE = 17;
+    private final long size;
+    private final int capacity;
+    private final long[] chainLengths;
+    private final long[] probeLengths;
+    private final long hitCount;
+    private final long missCount;
+    private final long resizeCount;
+    private final long resizeNanos;
+
+    LongMapStats(long size, int capacity, long[] chainLengths, StatsRecorder recorder) {
+        this.size = size;
+        this.capacity = capacity;
+        this.chainLengths = chainLengths;
+        this.probeLengths = recorder == null ? new long[HISTOGRAM_SIZE] : recorder.probeLengths.clone();
+        this.hitCount = recorder == null ? 0 : recorder.hitCount;
+        this.missCount = recorder == null ? 0 : recorder.missCount;
+        this.resizeCount = recorder == null ? 0 : recorder.resizeCount;
+        this.resizeNanos = recorder == null ? 0 : recorder.resizeNanos;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public double getLoadFactor() {
+        return (double) size / capacity;
+    }
+
+    /**
+     * Returns how many buckets hold chains of each length; slot 0 counts the empty buckets.
+     */
+    public long[] getChainLengthHistogram() {
+        return chainLengths.clone();
+    }
+
+    public int getMaximumChainLength() {
+        for (int i = chainLengths.length - 1; i > 0; i--) {
+            if(chainLengths[i] != 0) return i;
+        }
+        return 0;
+    }
+
+    /**
+     * Returns how many {@code get} calls examined each number of nodes.
+     */
+    public long[] getProbeLengthHistogram() {
+        return probeLengths.clone();
+    }
+
+    public double getAverageProbeLength() {
+        long lookups = 0;
+        long probes = 0;
+        for (int i = 0; i < probeLengths.length; i++) {
+            lookups += probeLengths[i];
+            probes += i * probeLengths[i];
+        }
+        return lookups == 0 ? 0 : (double) probes / lookups;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public double getHitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    public long getResizeCount() {
+        return resizeCount;
+    }
+
+    public long getResizeNanos() {
+        return resizeNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "LongMapStats{size=" + size + ", capacity=" + capacity + ", loadFactor=" + getLoadFactor()
+                + ", chainLengths=" + Arrays.toString(chainLengths) + ", probeLengths=" + Arrays.toString(probeLengths)
+                + ", hitCount=" + hitCount + ", missCount=" + missCount + ", resizeCount=" + resizeCount
+                + ", resizeNanos=" + resizeNanos + '}';
+    }
+}
@@ -0,0 +1,30 @@
+package de.comparus.opensource.longmap;
+
+/**
+ * JMX view of {@link LongMapStats}, registered with {@link LongMapImpl#registerMBean(String)}.
+ */
+public interface LongMapStatsMXBean {
+    long getSize();
+
+    int getCapacity();
+
+    double getLoadFactor();
+
+    long[] getChainLengthHistogram();
+
+    int getMaximumChainLength();
+
+    long[] getProbeLengthHistogram();
+
+    double getAverageProbeLength();
+
+    long getHitCount();
+
+    long getMissCount();
+
+    double getHitRate();
+
+    long getResizeCount();
+
+    long getResizeNanos();
+}
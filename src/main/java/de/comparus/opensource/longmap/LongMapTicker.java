@@ -0,0 +1,13 @@
+package de.comparus.opensource.longmap;
+
+/**
+ * Source of nanosecond time for expiring maps. Only differences between readings are used, so
+ * the origin is arbitrary; tests inject a ticker they advance by hand.
+ */
+@FunctionalInterface
+public interface LongMapTicker {
+
+    long read();
+
+    LongMapTicker SYSTEM = System::nanoTime;
+}
@@ -0,0 +1,67 @@
+package de.comparus.opensource.longmap;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Fixed-width binary encoding of map values for the buffer-backed maps. {@link #width()} bytes
+ * starting at {@code offset} belong to the value; writes and reads use absolute positions.
+ */
+public interface LongMapValueCodec<V> {
+
+    int width();
+
+    void write(ByteBuffer buffer, int offset, V value);
+
+    V read(ByteBuffer buffer, int offset);
+
+    LongMapValueCodec<Long> LONG = new LongMapValueCodec<Long>() {
+        @Override
+        public int width() {
+            return Long.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, int offset, Long value) {
+            buffer.putLong(offset, value);
+        }
+
+        @Override
+        public Long read(ByteBuffer buffer, int offset) {
+            return buffer.getLong(offset);
+        }
+    };
+
+    LongMapValueCodec<Integer> INTEGER = new LongMapValueCodec<Integer>() {
+        @Override
+        public int width() {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, int offset, Integer value) {
+            buffer.putInt(offset, value);
+        }
+
+        @Override
+        public Integer read(ByteBuffer buffer, int offset) {
+            return buffer.getInt(offset);
+        }
+    };
+
+    LongMapValueCodec<Double> DOUBLE = new LongMapValueCodec<Double>() {
+        @Override
+        public int width() {
+            return Double.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, int offset, Double value) {
+            buffer.putDouble(offset, value);
+        }
+
+        @Override
+        public Double read(ByteBuffer buffer, int offset) {
+            return buffer.getDouble(offset);
+        }
+    };
+}
@@ -0,0 +1,6 @@
+package de.comparus.opensource.longmap;
+
+@FunctionalInterface
+public interface LongMapWeigher<V> {
+    int weigh(long key, V value);
+}
@@ -0,0 +1,41 @@
+package de.comparus.opensource.longmap;
+
+public interface LongMultimap<V> {
+
+    /**
+     * Appends {@code value} to the values of {@code key}; a key may hold equal values more than once.
+     */
+    void put(long key, V value);
+    void putAll(long key, V[] values);
+
+    /**
+     * Returns the values of {@code key} in insertion order, or {@code null} when the key is absent.
+     */
+    V[] get(long key);
+    int valueCount(long key);
+
+    /**
+     * Removes the first value of {@code key} equal to {@code value}; the key is removed with its last value.
+     */
+    boolean remove(long key, V value);
+
+    /**
+     * Removes {@code key} and returns its values in insertion order, or {@code null} when it was absent.
+     */
+    V[] removeAll(long key);
+
+    boolean isEmpty();
+    boolean containsKey(long key);
+    boolean containsEntry(long key, V value);
+
+    long[] keys();
+
+    /**
+     * Returns the number of key-value pairs, counting every value of a key.
+     */
+    long size();
+    long keyCount();
+    void clear();
+
+    void forEach(LongObjConsumer<? super V> action);
+}
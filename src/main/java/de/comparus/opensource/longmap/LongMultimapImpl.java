@@ -0,0 +1,275 @@
+package de.comparus.opensource.longmap;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Multimap on the open-addressing engine of {@link OpenAddressingLongMap}. The values of all keys
+ * are packed into one shared pair of arrays and linked per key in insertion order, so a key holds
+ * a head, a tail and a count in parallel {@code int} arrays instead of a collection object. Removed
+ * values are recycled through a free list. The values of the free key {@code 0} live in an extra
+ * slot past the end of the key table.
+ */
+public class LongMultimapImpl<V> extends AbstractLongHashTable implements LongMultimap<V> {
+    private static final int INITIAL_ENTRIES = 16;
+    private static final int MAXIMUM_ENTRIES = Integer.MAX_VALUE - 8;
+    private static final int NO_ENTRY = -1;
+    private int[] heads;
+    private int[] tails;
+    private int[] counts;
+    private int[] oldHeads;
+    private int[] oldTails;
+    private int[] oldCounts;
+    private Object[] entryValues;
+    private int[] nextEntries;
+    private int usedEntries;
+    private int freeEntry;
+    private long valueCount;
+
+    public LongMultimapImpl() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongMultimapImpl(int initialCapacity) {
+        this(initialCapacity, LongHashStrategy.MURMUR3);
+    }
+
+    public LongMultimapImpl(int initialCapacity, LongHashStrategy hashStrategy) {
+        super(initialCapacity, MAXIMUM_CAPACITY, hashStrategy);
+        resetEntries();
+    }
+
+    private void resetEntries() {
+        entryValues = new Object[INITIAL_ENTRIES];
+        nextEntries = new int[INITIAL_ENTRIES];
+        usedEntries = 0;
+        freeEntry = NO_ENTRY;
+        valueCount = 0;
+    }
+
+    @Override
+    void allocateValues(int capacity) {
+        heads = new int[capacity + 1];
+        tails = new int[capacity + 1];
+        counts = new int[capacity + 1];
+    }
+
+    @Override
+    void moveValue(int from, int to) {
+        heads[to] = heads[from];
+        tails[to] = tails[from];
+        counts[to] = counts[from];
+    }
+
+    @Override
+    void clearValue(int index) {
+        counts[index] = 0;
+    }
+
+    @Override
+    void beginRehash(int newCapacity) {
+        oldHeads = heads;
+        oldTails = tails;
+        oldCounts = counts;
+        allocateValues(newCapacity);
+        rehashValue(oldCounts.length - 1, newCapacity);
+    }
+
+    @Override
+    void rehashValue(int from, int to) {
+        heads[to] = oldHeads[from];
+        tails[to] = oldTails[from];
+        counts[to] = oldCounts[from];
+    }
+
+    @Override
+    void endRehash() {
+        oldHeads = null;
+        oldTails = null;
+        oldCounts = null;
+    }
+
+    @Override
+    void clearFreeKeyValue() {
+        counts[freeKeySlot()] = 0;
+    }
+
+    private int freeKeySlot() {
+        return counts.length - 1;
+    }
+
+    private int slotOf(long key) {
+        if(key == FREE_KEY) return hasFreeKey ? freeKeySlot() : NO_ENTRY;
+        return findSlot(key);
+    }
+
+    @Override
+    public void put(long key, V value) {
+        int entry = newEntry(value);
+        int slot;
+        if(key == FREE_KEY){
+            slot = freeKeySlot();
+            if(!hasFreeKey){
+                addFreeKey();
+                counts[slot] = 0;
+            }
+        } else {
+            slot = findSlot(key);
+            if(slot < 0){
+                slot = insertKey(key, slot);
+                counts[slot] = 0;
+            }
+        }
+        if(counts[slot] == 0){
+            heads[slot] = entry;
+        } else {
+            nextEntries[tails[slot]] = entry;
+        }
+        tails[slot] = entry;
+        counts[slot]++;
+        valueCount++;
+    }
+
+    @Override
+    public void putAll(long key, V[] values) {
+        for (V value : values) {
+            put(key, value);
+        }
+    }
+
+    private int newEntry(Object value) {
+        int entry = freeEntry;
+        if(entry != NO_ENTRY){
+            freeEntry = nextEntries[entry];
+        } else {
+            if(usedEntries == entryValues.length){
+                if(usedEntries == MAXIMUM_ENTRIES){
+                    throw new IllegalStateException("LongMultimap reached its maximum number of values");
+                }
+                int length = (int) Math.min(2L * usedEntries, MAXIMUM_ENTRIES);
+                entryValues = Arrays.copyOf(entryValues, length);
+                nextEntries = Arrays.copyOf(nextEntries, length);
+            }
+            entry = usedEntries++;
+        }
+        entryValues[entry] = value;
+        nextEntries[entry] = NO_ENTRY;
+        return entry;
+    }
+
+    private void releaseEntry(int entry) {
+        entryValues[entry] = null;
+        nextEntries[entry] = freeEntry;
+        freeEntry = entry;
+    }
+
+    @Override
+    public V[] get(long key) {
+        int slot = slotOf(key);
+        return slot < 0 ? null : collectValues(slot, false);
+    }
+
+    private V[] collectValues(int slot, boolean release) {
+        Object[] result = new Object[counts[slot]];
+        int entry = heads[slot];
+        for (int i = 0; i < result.length; i++) {
+            int next = nextEntries[entry];
+            result[i] = entryValues[entry];
+            if(release) releaseEntry(entry);
+            entry = next;
+        }
+        return LongMapArrays.toTypedArray(result, result.length);
+    }
+
+    @Override
+    public int valueCount(long key) {
+        int slot = slotOf(key);
+        return slot < 0 ? 0 : counts[slot];
+    }
+
+    @Override
+    public boolean remove(long key, V value) {
+        int slot = slotOf(key);
+        if(slot < 0) return false;
+        int previous = NO_ENTRY;
+        for (int entry = heads[slot]; entry != NO_ENTRY; previous = entry, entry = nextEntries[entry]) {
+            if(!Objects.equals(entryValues[entry], value)) continue;
+            if(previous == NO_ENTRY){
+                heads[slot] = nextEntries[entry];
+            } else {
+                nextEntries[previous] = nextEntries[entry];
+            }
+            if(tails[slot] == entry) tails[slot] = previous;
+            releaseEntry(entry);
+            valueCount--;
+            if(--counts[slot] == 0) removeSlot(slot);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public V[] removeAll(long key) {
+        int slot = slotOf(key);
+        if(slot < 0) return null;
+        V[] values = collectValues(slot, true);
+        valueCount -= counts[slot];
+        removeSlot(slot);
+        return values;
+    }
+
+    private void removeSlot(int slot) {
+        if(slot == freeKeySlot()){
+            removeFreeKey();
+        } else {
+            removeAt(slot);
+        }
+    }
+
+    @Override
+    public boolean containsEntry(long key, V value) {
+        int slot = slotOf(key);
+        if(slot < 0) return false;
+        for (int entry = heads[slot]; entry != NO_ENTRY; entry = nextEntries[entry]) {
+            if(Objects.equals(entryValues[entry], value)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public long[] keys() {
+        return collectKeys();
+    }
+
+    @Override
+    public long size() {
+        return valueCount;
+    }
+
+    @Override
+    public long keyCount() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        counts[freeKeySlot()] = 0;
+        resetEntries();
+    }
+
+    @Override
+    public void forEach(LongObjConsumer<? super V> action) {
+        Objects.requireNonNull(action);
+        if(hasFreeKey) forEachValue(FREE_KEY, freeKeySlot(), action);
+        for (int i = 0; i < keys.length; i++) {
+            if(keys[i] != FREE_KEY) forEachValue(keys[i], i, action);
+        }
+    }
+
+    private void forEachValue(long key, int slot, LongObjConsumer<? super V> action) {
+        for (int entry = heads[slot]; entry != NO_ENTRY; entry = nextEntries[entry]) {
+            action.accept(key, (V) entryValues[entry]);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package de.comparus.opensource.longmap;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestClassOrder(ClassOrderer.OrderAnnotation.class)
+@DisplayName("LongMultimap Test")
+class LongMultimapImplTest {
+
+    @Nested
+    @Order(1)
+    @DisplayName("1. LongMultimapImpl methods Test")
+    @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+    class LongMultimapTest {
+        LongMultimapImpl<String> multimap;
+
+        @BeforeEach
+        void init() {
+            multimap = new LongMultimapImpl<>(4);
+        }
+
+        @Test
+        @Order(1)
+        @DisplayName("Values of a key keep insertion order and duplicates")
+        void valuesKeepInsertionOrder() {
+            multimap.put(1L, "a");
+            multimap.put(0L, "z");
+            multimap.put(1L, "b");
+            multimap.putAll(1L, new String[]{"a", "c"});
+
+            assertThat(multimap.get(1L)).containsExactly("a", "b", "a", "c");
+            assertThat(multimap.get(0L)).containsExactly("z");
+            assertThat(multimap.get(2L)).isNull();
+            assertThat(multimap.valueCount(1L)).isEqualTo(4);
+            assertThat(multimap.size()).isEqualTo(5);
+            assertThat(multimap.keyCount()).isEqualTo(2);
+            assertThat(multimap.containsEntry(1L, "c")).isTrue();
+            assertThat(multimap.containsEntry(0L, "a")).isFalse();
+        }
+
+        @Test
+        @Order(2)
+        @DisplayName("Removing values unlinks them and drops the key with its last value")
+        void removeValues() {
+            multimap.putAll(1L, new String[]{"a", "b", "a", "c"});
+            multimap.put(0L, "z");
+
+            assertThat(multimap.remove(1L, "a")).isTrue();
+            assertThat(multimap.remove(1L, "c")).isTrue();
+            assertThat(multimap.remove(1L, "x")).isFalse();
+            assertThat(multimap.get(1L)).containsExactly("b", "a");
+            multimap.put(1L, "d");
+            assertThat(multimap.get(1L)).containsExactly("b", "a", "d");
+            assertThat(multimap.removeAll(1L)).containsExactly("b", "a", "d");
+            assertThat(multimap.containsKey(1L)).isFalse();
+            assertThat(multimap.remove(0L, "z")).isTrue();
+            assertThat(multimap.containsKey(0L)).isFalse();
+            assertThat(multimap.isEmpty()).isTrue();
+            assertThat(multimap.size()).isZero();
+        }
+
+        @Test
+        @Order(3)
+        @DisplayName("Multimap stays consistent with a map of lists under random operations")
+        void randomOperationsMatchReferenceMap() {
+            Map<Long, List<String>> reference = new HashMap<>();
+            Random random = new Random(5);
+            for (int i = 0; i < 50_000; i++) {
+                long key = random.nextInt(1_000);
+                String value = "v" + random.nextInt(4);
+                switch (random.nextInt(6)) {
+                    case 0:
+                        List<String> values = reference.get(key);
+                        boolean removed = values != null && values.remove(value);
+                        if(values != null && values.isEmpty()) reference.remove(key);
+                        assertThat(multimap.remove(key, value)).isEqualTo(removed);
+                        break;
+                    case 1:
+                        List<String> expected = reference.remove(key);
+                        String[] actual = multimap.removeAll(key);
+                        if(expected == null){
+                            assertThat(actual).isNull();
+                        } else {
+                            assertThat(actual).containsExactly(expected.toArray(new String[0]));
+                        }
+                        break;
+                    default:
+                        reference.computeIfAbsent(key, k -> new ArrayList<>()).add(value);
+                        multimap.put(key, value);
+                }
+            }
+
+            assertThat(multimap.keyCount()).isEqualTo(reference.size());
+            assertThat(multimap.size()).isEqualTo(reference.values().stream().mapToLong(List::size).sum());
+            for (long key = 0; key < 1_000; key++) {
+                List<String> expected = reference.get(key);
+                if(expected == null){
+                    assertThat(multimap.get(key)).isNull();
+                } else {
+                    assertThat(multimap.get(key)).containsExactly(expected.toArray(new String[0]));
+                }
+            }
+            List<String> visited = new ArrayList<>();
+            multimap.forEach((key, value) -> visited.add(key + value));
+            assertThat(visited).hasSize((int) multimap.size());
+            multimap.clear();
+            assertThat(multimap.keys()).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package de.comparus.opensource.longmap;
+
+@FunctionalInterface
+public interface LongObjConsumer<V> {
+    void accept(long key, V value);
+}
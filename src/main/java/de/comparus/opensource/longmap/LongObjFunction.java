@@ -0,0 +1,6 @@
+package de.comparus.opensource.longmap;
+
+@FunctionalInterface
+public interface LongObjFunction<V, R> {
+    R apply(long key, V value);
+}
@@ -0,0 +1,40 @@
+package de.comparus.opensource.longmap;
+
+import java.util.function.LongConsumer;
+
+public interface LongSet {
+    boolean add(long key);
+    boolean contains(long key);
+    boolean remove(long key);
+
+    /**
+     * Adds every key of the batch and returns how many of them were not present before.
+     */
+    int addAll(long[] keys);
+    boolean containsAll(long[] keys);
+
+    /**
+     * Removes every key of the batch and returns how many of them were present.
+     */
+    int removeAll(long[] keys);
+
+    void addAll(LongSet other);
+    void retainAll(LongSet other);
+
+    /**
+     * Returns a new set with the keys present in this set, {@code other} or both.
+     */
+    LongSet union(LongSet other);
+
+    /**
+     * Returns a new set with the keys present in both this set and {@code other}.
+     */
+    LongSet intersect(LongSet other);
+
+    boolean isEmpty();
+    long size();
+    void clear();
+
+    long[] toArray();
+    void forEach(LongConsumer action);
+}
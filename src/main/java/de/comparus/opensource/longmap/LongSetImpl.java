@@ -0,0 +1,173 @@
+package de.comparus.opensource.longmap;
+
+import java.util.Objects;
+import java.util.function.LongConsumer;
+
+/**
+ * Set of primitive keys on the open-addressing engine of {@link OpenAddressingLongMap}, without a
+ * value array: a key costs one {@code long} slot.
+ */
+public class LongSetImpl extends AbstractLongHashTable implements LongSet {
+
+    public LongSetImpl() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongSetImpl(int initialCapacity) {
+        this(initialCapacity, LongHashStrategy.MURMUR3);
+    }
+
+    public LongSetImpl(int initialCapacity, LongHashStrategy hashStrategy) {
+        super(initialCapacity, MAXIMUM_CAPACITY, hashStrategy);
+    }
+
+    public static LongSetImpl of(long... keys) {
+        LongSetImpl set = new LongSetImpl();
+        set.addAll(keys);
+        return set;
+    }
+
+    @Override
+    void allocateValues(int capacity) {
+    }
+
+    @Override
+    void moveValue(int from, int to) {
+    }
+
+    @Override
+    void clearValue(int index) {
+    }
+
+    @Override
+    void beginRehash(int newCapacity) {
+    }
+
+    @Override
+    void rehashValue(int from, int to) {
+    }
+
+    @Override
+    void endRehash() {
+    }
+
+    @Override
+    void clearFreeKeyValue() {
+    }
+
+    @Override
+    public boolean add(long key) {
+        if(key == FREE_KEY){
+            if(hasFreeKey) return false;
+            addFreeKey();
+            return true;
+        }
+        int slot = findSlot(key);
+        if(slot >= 0) return false;
+        insertKey(key, slot);
+        return true;
+    }
+
+    @Override
+    public boolean contains(long key) {
+        if(key == FREE_KEY) return hasFreeKey;
+        long[] keys = this.keys;
+        int index = indexOf(key);
+        long current;
+        while ((current = keys[index]) != FREE_KEY) {
+            if(current == key) return true;
+            index = nextIndex(index);
+        }
+        return false;
+    }
+
+    @Override
+    public boolean remove(long key) {
+        if(key == FREE_KEY){
+            if(!hasFreeKey) return false;
+            removeFreeKey();
+            return true;
+        }
+        int slot = findSlot(key);
+        if(slot < 0) return false;
+        removeAt(slot);
+        return true;
+    }
+
+    @Override
+    public int addAll(long[] keys) {
+        ensureCapacity(tableEntries() + keys.length);
+        int added = 0;
+        for (long key : keys) {
+            if(add(key)) added++;
+        }
+        return added;
+    }
+
+    @Override
+    public boolean containsAll(long[] keys) {
+        for (long key : keys) {
+            if(!contains(key)) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int removeAll(long[] keys) {
+        int removed = 0;
+        for (long key : keys) {
+            if(remove(key)) removed++;
+        }
+        return removed;
+    }
+
+    @Override
+    public void addAll(LongSet other) {
+        ensureCapacity(tableEntries() + other.size());
+        other.forEach(this::add);
+    }
+
+    @Override
+    public void retainAll(LongSet other) {
+        Objects.requireNonNull(other);
+        if(other == this) return;
+        TableCursor cursor = new TableCursor(this);
+        while (cursor.advance()) {
+            if(!other.contains(cursor.key())) cursor.remove();
+        }
+    }
+
+    @Override
+    public LongSet union(LongSet other) {
+        LongSetImpl result = new LongSetImpl(DEFAULT_CAPACITY, hashStrategy);
+        result.addAll(this);
+        result.addAll(other);
+        return result;
+    }
+
+    @Override
+    public LongSet intersect(LongSet other) {
+        LongSet smaller = other.size() < size ? other : this;
+        LongSet larger = smaller == this ? other : this;
+        LongSetImpl result = new LongSetImpl(DEFAULT_CAPACITY, hashStrategy);
+        smaller.forEach(key -> {
+            if(larger.contains(key)) result.add(key);
+        });
+        return result;
+    }
+
+    @Override
+    public long[] toArray() {
+        return collectKeys();
+    }
+
+    @Override
+    public void forEach(LongConsumer action) {
+        Objects.requireNonNull(action);
+        if(hasFreeKey) action.accept(FREE_KEY);
+        long[] keys = this.keys;
+        for (long key : keys) {
+            if(key != FREE_KEY) action.accept(key);
+        }
+    }
+}
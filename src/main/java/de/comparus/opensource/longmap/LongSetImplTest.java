@@ -0,0 +1,76 @@
+package de.comparus.opensource.longmap;
+
+import org.junit.jupiter.api.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestClassOrder(ClassOrderer.OrderAnnotation.class)
+@DisplayName("LongSet Test")
+class LongSetImplTest {
+
+    @Nested
+    @Order(1)
+    @DisplayName("1. LongSetImpl methods Test")
+    @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+    class LongSetTest {
+
+        @Test
+        @Order(1)
+        @DisplayName("Set stays consistent with a reference set under random operations")
+        void randomOperationsMatchReferenceSet() {
+            LongSetImpl longSet = new LongSetImpl(4);
+            Set<Long> reference = new HashSet<>();
+            Random random = new Random(11);
+            for (int i = 0; i < 50_000; i++) {
+                long key = random.nextInt(5_000) - 100;
+                if(random.nextInt(3) == 0){
+                    assertThat(longSet.remove(key)).isEqualTo(reference.remove(key));
+                } else {
+                    assertThat(longSet.add(key)).isEqualTo(reference.add(key));
+                }
+            }
+
+            assertThat(longSet.size()).isEqualTo(reference.size());
+            assertThat(longSet.toArray()).containsExactlyInAnyOrder(reference.stream().mapToLong(Long::longValue).toArray());
+            for (long key = -100; key < 4_900; key++) {
+                assertThat(longSet.contains(key)).isEqualTo(reference.contains(key));
+            }
+        }
+
+        @Test
+        @Order(2)
+        @DisplayName("Bulk operations report how many keys changed")
+        void bulkOperations() {
+            LongSetImpl longSet = new LongSetImpl();
+
+            assertThat(longSet.addAll(new long[]{0L, 1L, 2L, 2L, 3L})).isEqualTo(4);
+            assertThat(longSet.containsAll(new long[]{0L, 3L})).isTrue();
+            assertThat(longSet.containsAll(new long[]{0L, 4L})).isFalse();
+            assertThat(longSet.removeAll(new long[]{0L, 3L, 4L})).isEqualTo(2);
+            assertThat(longSet.toArray()).containsExactlyInAnyOrder(1L, 2L);
+            longSet.clear();
+            assertThat(longSet.isEmpty()).isTrue();
+            assertThat(longSet.contains(1L)).isFalse();
+        }
+
+        @Test
+        @Order(3)
+        @DisplayName("Union, intersection and retainAll combine sets including the zero key")
+        void setAlgebra() {
+            LongSetImpl first = LongSetImpl.of(0L, 1L, 2L, 3L, 100L);
+            LongSetImpl second = LongSetImpl.of(0L, 2L, 4L, 100L, -7L);
+
+            assertThat(first.union(second).toArray()).containsExactlyInAnyOrder(0L, 1L, 2L, 3L, 4L, 100L, -7L);
+            assertThat(first.intersect(second).toArray()).containsExactlyInAnyOrder(0L, 2L, 100L);
+            assertThat(second.intersect(LongSetImpl.of()).isEmpty()).isTrue();
+            first.retainAll(second);
+            assertThat(first.toArray()).containsExactlyInAnyOrder(0L, 2L, 100L);
+            first.addAll(LongSetImpl.of(5L));
+            assertThat(first.toArray()).containsExactlyInAnyOrder(0L, 2L, 5L, 100L);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package de.comparus.opensource.longmap;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * {@link LongMap} whose hash table is laid out in a memory-mapped file, so reopening an existing
+ * file makes all entries available without rebuilding the table. The file starts with a
+ * {@value #HEADER_BYTES}-byte header (magic, format version, slot size, capacity, size, a
+ * fingerprint of the hash strategy and the entry of key {@code 0}) followed by the slots. Opening a
+ * file with a different hash strategy, or a file whose length does not match its header, fails
+ * instead of reading slots at the wrong positions. The header is written by {@link #force()} and
+ * {@link #close()}; only data forced to disk is guaranteed to survive a crash. Growing the table
+ * builds a new file next to the original and atomically moves it into place.
+ */
+public class MappedLongMap<V> extends AbstractBufferLongMap<V> {
+    static final int HEADER_BYTES = 4096;
+    static final int MAGIC = 0x4c4d4150;
+    static final int FORMAT_VERSION = 2;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int SLOT_SIZE_OFFSET = 8;
+    private static final int CAPACITY_OFFSET = 16;
+    private static final int SIZE_OFFSET = 24;
+    private static final int FREE_KEY_FLAG_OFFSET = 32;
+    private static final int HASH_FINGERPRINT_OFFSET = 40;
+    private static final int FREE_KEY_VALUE_OFFSET = 48;
+    private final Path path;
+    private MappedByteBuffer header;
+    private Path pendingPath;
+    private MappedByteBuffer pendingHeader;
+
+    private MappedLongMap(Path path, LongMapValueCodec<V> codec, LongHashStrategy hashStrategy) {
+        super(codec, hashStrategy);
+        this.path = path;
+        if(FREE_KEY_VALUE_OFFSET + slotSize > HEADER_BYTES){
+            throw new IllegalArgumentException("Value width does not fit the file header: " + codec.width());
+        }
+    }
+
+    public static <V> MappedLongMap<V> create(Path path, LongMapValueCodec<V> codec, long initialCapacity) {
+        return create(path, codec, initialCapacity, LongHashStrategy.MURMUR3);
+    }
+
+    public static <V> MappedLongMap<V> create(Path path, LongMapValueCodec<V> codec, long initialCapacity,
+                                              LongHashStrategy hashStrategy) {
+        MappedLongMap<V> longMap = new MappedLongMap<>(path, codec, hashStrategy);
+        long capacity = capacityFor(initialCapacity);
+        longMap.initTable(capacity, longMap.allocateTable(capacity));
+        longMap.commitTable();
+        return longMap;
+    }
+
+    public static <V> MappedLongMap<V> open(Path path, LongMapValueCodec<V> codec) {
+        return open(path, codec, LongHashStrategy.MURMUR3);
+    }
+
+    public static <V> MappedLongMap<V> open(Path path, LongMapValueCodec<V> codec, LongHashStrategy hashStrategy) {
+        MappedLongMap<V> longMap = new MappedLongMap<>(path, codec, hashStrategy);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if(channel.size() < HEADER_BYTES){
+                throw new IllegalArgumentException("Not a LongMap file: " + path);
+            }
+            MappedByteBuffer header = map(channel, 0, HEADER_BYTES);
+            if(header.getInt(MAGIC_OFFSET) != MAGIC){
+                throw new IllegalArgumentException("Not a LongMap file: " + path);
+            }
+            if(header.getInt(VERSION_OFFSET) != FORMAT_VERSION){
+                throw new IllegalArgumentException("Unsupported LongMap file version: " + header.getInt(VERSION_OFFSET));
+            }
+            if(header.getInt(SLOT_SIZE_OFFSET) != longMap.slotSize){
+                throw new IllegalArgumentException("Codec does not match the slot size of " + path);
+            }
+            if(header.getLong(HASH_FINGERPRINT_OFFSET) != LongMapSnapshots.fingerprint(hashStrategy)){
+                throw new IllegalArgumentException("Hash strategy does not match the one that built " + path);
+            }
+            long capacity = header.getLong(CAPACITY_OFFSET);
+            if(capacity < 2 || capacity > MAXIMUM_CAPACITY || Long.bitCount(capacity) != 1){
+                throw new IllegalArgumentException("Corrupted LongMap file capacity: " + capacity);
+            }
+            if(channel.size() != HEADER_BYTES + longMap.tableBytes(capacity)){
+                throw new IllegalArgumentException("LongMap file length does not match its capacity: " + path);
+            }
+            longMap.header = header;
+            longMap.initTable(capacity, longMap.mapPages(channel, capacity));
+            longMap.size = header.getLong(SIZE_OFFSET);
+            longMap.hasFreeKey = header.getInt(FREE_KEY_FLAG_OFFSET) != 0;
+            longMap.freeKeyValue = longMap.hasFreeKey ? codec.read(header, FREE_KEY_VALUE_OFFSET) : null;
+            return longMap;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long position, long bytes) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, position, bytes);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    private ByteBuffer[] mapPages(FileChannel channel, long capacity) throws IOException {
+        ByteBuffer[] pages = new ByteBuffer[pageCount(capacity)];
+        long pageBytes = (long) pageSlots(capacity) * slotSize;
+        for (int i = 0; i < pages.length; i++) {
+            pages[i] = map(channel, HEADER_BYTES + i * pageBytes, pageBytes);
+        }
+        return pages;
+    }
+
+    @Override
+    ByteBuffer[] allocateTable(long capacity) {
+        Path target = pages == null ? path : path.resolveSibling(path.getFileName() + ".resize");
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer newHeader = map(channel, 0, HEADER_BYTES);
+            ByteBuffer[] newPages = mapPages(channel, capacity);
+            pendingPath = target;
+            pendingHeader = newHeader;
+            return newPages;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    void releaseTable(ByteBuffer[] pages) {
+        for (ByteBuffer page : pages) {
+            DirectBuffers.release(page);
+        }
+    }
+
+    @Override
+    void commitTable() {
+        MappedByteBuffer oldHeader = header;
+        header = pendingHeader;
+        writeHeader();
+        force();
+        if(!pendingPath.equals(path)){
+            try {
+                Files.move(pendingPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        DirectBuffers.release(oldHeader);
+        pendingPath = null;
+        pendingHeader = null;
+    }
+
+    private void writeHeader() {
+        header.putInt(MAGIC_OFFSET, MAGIC);
+        header.putInt(VERSION_OFFSET, FORMAT_VERSION);
+        header.putInt(SLOT_SIZE_OFFSET, slotSize);
+        header.putLong(CAPACITY_OFFSET, capacity);
+        header.putLong(SIZE_OFFSET, size);
+        header.putLong(HASH_FINGERPRINT_OFFSET, LongMapSnapshots.fingerprint(hashStrategy));
+        header.putInt(FREE_KEY_FLAG_OFFSET, hasFreeKey ? 1 : 0);
+        if(hasFreeKey){
+            codec.write(header, FREE_KEY_VALUE_OFFSET, freeKeyValue);
+        }
+    }
+
+    public void force() {
+        ensureOpen();
+        writeHeader();
+        for (ByteBuffer page : pages) {
+            ((MappedByteBuffer) page).force();
+        }
+        header.force();
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    @Override
+    public void close() {
+        if(!isClosed()){
+            force();
+            super.close();
+            DirectBuffers.release(header);
+            header = null;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package de.comparus.opensource.longmap;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("MappedLongMap Test")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class MappedLongMapTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    @Order(1)
+    @DisplayName("Entries survive closing and reopening the file")
+    void reopenKeepsEntries() {
+        Path file = directory.resolve("ids.map");
+        try (MappedLongMap<Long> longMap = MappedLongMap.create(file, LongMapValueCodec.LONG, 16)) {
+            for (long key = 0; key < 10_000; key++) {
+                longMap.put(key, key * 2);
+            }
+            longMap.remove(7L);
+        }
+
+        try (MappedLongMap<Long> reopened = MappedLongMap.open(file, LongMapValueCodec.LONG)) {
+            assertThat(reopened.size()).isEqualTo(9_999L);
+            assertThat(reopened.get(0L)).isEqualTo(0L);
+            assertThat(reopened.get(9_999L)).isEqualTo(19_998L);
+            assertThat(reopened.containsKey(7L)).isFalse();
+        }
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Growing the table replaces the file without leaving temporary files")
+    void growthReplacesFile() throws Exception {
+        Path file = directory.resolve("grow.map");
+        try (MappedLongMap<Integer> longMap = MappedLongMap.create(file, LongMapValueCodec.INTEGER, 2)) {
+            for (long key = 1; key <= 1_000; key++) {
+                longMap.put(key, (int) key);
+            }
+            longMap.force();
+
+            assertThat(Files.size(file)).isEqualTo(MappedLongMap.HEADER_BYTES + 2_048L * 16);
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.map(path -> path.getFileName().toString())).containsExactly("grow.map");
+        }
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Open rejects files without the LongMap header")
+    void openRejectsFilesWithoutHeader() throws Exception {
+        Path garbage = Files.write(directory.resolve("garbage.map"), new byte[MappedLongMap.HEADER_BYTES]);
+
+        assertThatThrownBy(() -> MappedLongMap.open(garbage, LongMapValueCodec.DOUBLE))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Not a LongMap file");
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Open rejects a hash strategy other than the one that built the file")
+    void openRejectsOtherHashStrategy() {
+        Path file = directory.resolve("fibonacci.map");
+        try (MappedLongMap<Long> longMap = MappedLongMap.create(file, LongMapValueCodec.LONG, 16, LongHashStrategy.FIBONACCI)) {
+            longMap.put(42L, 1L);
+        }
+
+        assertThatThrownBy(() -> MappedLongMap.open(file, LongMapValueCodec.LONG))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Hash strategy does not match");
+        try (MappedLongMap<Long> reopened = MappedLongMap.open(file, LongMapValueCodec.LONG, LongHashStrategy.FIBONACCI)) {
+            assertThat(reopened.get(42L)).isEqualTo(1L);
+        }
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Open rejects a truncated file instead of extending it")
+    void openRejectsTruncatedFile() throws Exception {
+        Path file = directory.resolve("truncated.map");
+        try (MappedLongMap<Long> longMap = MappedLongMap.create(file, LongMapValueCodec.LONG, 1_024)) {
+            longMap.put(1L, 1L);
+        }
+        long length = MappedLongMap.HEADER_BYTES + 512L * 16;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(length);
+        }
+
+        assertThatThrownBy(() -> MappedLongMap.open(file, LongMapValueCodec.LONG))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("length does not match");
+        assertThat(Files.size(file)).isEqualTo(length);
+    }
+}
@@ -0,0 +1,47 @@
+package de.comparus.opensource.longmap;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * {@link LongMap} whose table lives in direct memory, outside the garbage-collected heap. Values
+ * are stored through a fixed-width {@link LongMapValueCodec}; {@code null} values are rejected.
+ * The memory is released by {@link #close()}, after which the map can no longer be used.
+ */
+public class OffHeapLongMap<V> extends AbstractBufferLongMap<V> {
+
+    public OffHeapLongMap(LongMapValueCodec<V> codec) {
+        this(codec, DEFAULT_CAPACITY);
+    }
+
+    public OffHeapLongMap(LongMapValueCodec<V> codec, long initialCapacity) {
+        this(codec, initialCapacity, LongHashStrategy.MURMUR3);
+    }
+
+    public OffHeapLongMap(LongMapValueCodec<V> codec, long initialCapacity, LongHashStrategy hashStrategy) {
+        super(codec, hashStrategy);
+        long capacity = capacityFor(initialCapacity);
+        initTable(capacity, allocateTable(capacity));
+    }
+
+    @Override
+    ByteBuffer[] allocateTable(long capacity) {
+        ByteBuffer[] pages = new ByteBuffer[pageCount(capacity)];
+        int pageBytes = pageSlots(capacity) * slotSize;
+        for (int i = 0; i < pages.length; i++) {
+            pages[i] = ByteBuffer.allocateDirect(pageBytes).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return pages;
+    }
+
+    @Override
+    void releaseTable(ByteBuffer[] pages) {
+        for (ByteBuffer page : pages) {
+            DirectBuffers.release(page);
+        }
+    }
+
+    public long offHeapBytes() {
+        return isClosed() ? 0L : tableBytes(capacity);
+    }
+}
@@ -0,0 +1,145 @@
+package de.comparus.opensource.longmap;
+
+import org.junit.jupiter.api.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@TestClassOrder(ClassOrderer.OrderAnnotation.class)
+@DisplayName("OffHeapLongMap Test")
+class OffHeapLongMapTest {
+
+    @Nested
+    @Order(1)
+    @DisplayName("1. OffHeapLongMap methods Test")
+    @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+    class MapMethodsTest {
+        OffHeapLongMap<Long> longMap;
+
+        @BeforeEach
+        void init() {
+            longMap = new OffHeapLongMap<>(LongMapValueCodec.LONG, 8);
+        }
+
+        @AfterEach
+        void release() {
+            longMap.close();
+        }
+
+        @Test
+        @Order(1)
+        @DisplayName("Put, get and remove work for regular and zero keys")
+        void putGetRemove() {
+            assertNull(longMap.put(1L, 10L));
+            assertNull(longMap.put(0L, 0L));
+            assertThat(longMap.put(1L, 11L)).isEqualTo(10L);
+
+            assertThat(longMap.get(1L)).isEqualTo(11L);
+            assertThat(longMap.get(0L)).isEqualTo(0L);
+            assertThat(longMap.containsKey(2L)).isFalse();
+            assertThat(longMap.size()).isEqualTo(2L);
+            assertThat(longMap.remove(1L)).isEqualTo(11L);
+            assertThat(longMap.remove(0L)).isEqualTo(0L);
+            assertThat(longMap.isEmpty()).isTrue();
+        }
+
+        @Test
+        @Order(2)
+        @DisplayName("Put throws exception when value is null")
+        void putNullValue() {
+            assertThatThrownBy(() -> longMap.put(1L, null)).isInstanceOf(NullPointerException.class);
+        }
+
+        @Test
+        @Order(3)
+        @DisplayName("Map grows and stays consistent with a reference map under random operations")
+        void randomOperationsMatchReferenceMap() {
+            Map<Long, Long> reference = new HashMap<>();
+            Random random = new Random(11);
+            for (int i = 0; i < 50_000; i++) {
+                long key = random.nextInt(4_000) - 2_000;
+                if(random.nextInt(3) == 0){
+                    assertThat(longMap.remove(key)).isEqualTo(reference.remove(key));
+                } else {
+                    assertThat(longMap.put(key, (long) i)).isEqualTo(reference.put(key, (long) i));
+                }
+            }
+
+            assertThat(longMap.size()).isEqualTo(reference.size());
+            reference.forEach((key, value) -> assertThat(longMap.get(key)).isEqualTo(value));
+            assertThat(longMap.keys()).hasSize(reference.size());
+            assertThat(longMap.containsValue(reference.values().iterator().next())).isTrue();
+        }
+
+        @Test
+        @Order(4)
+        @DisplayName("Cursor visits every entry once while removing entries")
+        void cursorRemove() {
+            Map<Long, Long> reference = new HashMap<>();
+            Random random = new Random(5);
+            for (int i = 0; i < 5_000; i++) {
+                long key = random.nextLong();
+                longMap.put(key, key >>> 1);
+                reference.put(key, key >>> 1);
+            }
+            longMap.put(0L, 3L);
+            reference.put(0L, 3L);
+            LongMapCursor<Long> cursor = longMap.cursor();
+            while (cursor.advance()) {
+                long key = cursor.key();
+                assertThat(cursor.value()).isEqualTo(reference.remove(key));
+                if(key % 3 != 0) cursor.remove();
+            }
+
+            assertThat(reference).isEmpty();
+            longMap.forEach((key, value) -> assertThat(key % 3).isZero());
+            long[] remaining = new long[1];
+            longMap.forEach((key, value) -> remaining[0]++);
+            assertThat(remaining[0]).isEqualTo(longMap.size());
+        }
+    }
+
+    @Nested
+    @Order(2)
+    @DisplayName("2. OffHeapLongMap lifecycle Test")
+    @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+    class LifecycleTest {
+
+        @Test
+        @Order(1)
+        @DisplayName("Closed map releases its memory and rejects further access")
+        void closeReleasesMemory() {
+            OffHeapLongMap<Double> doubleMap = new OffHeapLongMap<>(LongMapValueCodec.DOUBLE, 1_024);
+            doubleMap.put(5L, 0.5);
+
+            assertThat(doubleMap.offHeapBytes()).isEqualTo(1_024L * 16);
+            doubleMap.close();
+            doubleMap.close();
+
+            assertThat(doubleMap.isClosed()).isTrue();
+            assertThat(doubleMap.offHeapBytes()).isZero();
+            assertThatThrownBy(() -> doubleMap.get(5L)).isInstanceOf(IllegalStateException.class);
+        }
+
+        @Test
+        @Order(2)
+        @DisplayName("Clear keeps the allocated table and removes all entries")
+        void clearTest() {
+            try (OffHeapLongMap<Integer> intMap = new OffHeapLongMap<>(LongMapValueCodec.INTEGER)) {
+                for (long key = 0; key < 100; key++) {
+                    intMap.put(key, (int) key);
+                }
+                intMap.clear();
+
+                assertThat(intMap.size()).isZero();
+                assertNull(intMap.get(10L));
+                assertNull(intMap.values());
+            }
+        }
+    }
+}
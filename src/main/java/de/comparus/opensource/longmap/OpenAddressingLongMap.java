@@ -0,0 +1,409 @@
+package de.comparus.opensource.longmap;
+
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+
+public class OpenAddressingLongMap<V> extends AbstractLongHashTable implements LongMap<V> {
+    private Object[] values;
+    private Object[] oldValues;
+    private V freeKeyValue;
+
+    public OpenAddressingLongMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public OpenAddressingLongMap(int initialCapacity) {
+        this(initialCapacity, LongHashStrategy.MURMUR3);
+    }
+
+    public OpenAddressingLongMap(int initialCapacity, LongHashStrategy hashStrategy) {
+        this(initialCapacity, MAXIMUM_CAPACITY, hashStrategy);
+    }
+
+    OpenAddressingLongMap(int initialCapacity, int maximumCapacity, LongHashStrategy hashStrategy) {
+        super(initialCapacity, maximumCapacity, hashStrategy);
+    }
+
+    /**
+     * Returns the home slot of {@code key} under the default hash strategy in the table of a map
+     * created with {@code capacity}, which is rounded up to a power of two of at least 2.
+     */
+    public static int calculateIndex(long key, int capacity){
+        if(capacity <= 0){
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        return (int) (LongHashStrategy.MURMUR3.hash(key) >>> LongHashStrategy.shiftFor(tableSizeFor(capacity)));
+    }
+
+    @Override
+    void allocateValues(int capacity) {
+        values = new Object[capacity];
+    }
+
+    @Override
+    void moveValue(int from, int to) {
+        values[to] = values[from];
+    }
+
+    @Override
+    void clearValue(int index) {
+        values[index] = null;
+    }
+
+    @Override
+    void beginRehash(int newCapacity) {
+        oldValues = values;
+        values = new Object[newCapacity];
+    }
+
+    @Override
+    void rehashValue(int from, int to) {
+        values[to] = oldValues[from];
+    }
+
+    @Override
+    void endRehash() {
+        oldValues = null;
+    }
+
+    @Override
+    void clearFreeKeyValue() {
+        freeKeyValue = null;
+    }
+
+    @Override
+    public V put(long key, V value) {
+        if(key == FREE_KEY){
+            V previousValue = freeKeyValue;
+            addFreeKey();
+            freeKeyValue = value;
+            return previousValue;
+        }
+        int slot = findSlot(key);
+        if(slot >= 0){
+            V previousValue = (V) values[slot];
+            values[slot] = value;
+            return previousValue;
+        }
+        int index = insertKey(key, slot);
+        values[index] = value;
+        return null;
+    }
+
+    @Override
+    public V get(long key) {
+        if(key == FREE_KEY) return freeKeyValue;
+        long[] keys = this.keys;
+        int index = indexOf(key);
+        long current;
+        while ((current = keys[index]) != FREE_KEY) {
+            if(current == key) return (V) values[index];
+            index = nextIndex(index);
+        }
+        return null;
+    }
+
+    @Override
+    public V remove(long key) {
+        if(key == FREE_KEY){
+            if(!hasFreeKey) return null;
+            V previousValue = freeKeyValue;
+            removeFreeKey();
+            return previousValue;
+        }
+        int slot = findSlot(key);
+        if(slot < 0) return null;
+        V previousValue = (V) values[slot];
+        removeAt(slot);
+        return previousValue;
+    }
+
+    @Override
+    public V putIfAbsent(long key, V value) {
+        if(key == FREE_KEY){
+            V current = freeKeyValue;
+            if(!hasFreeKey || current == null){
+                addFreeKey();
+                freeKeyValue = value;
+            }
+            return current;
+        }
+        int slot = findSlot(key);
+        if(slot < 0){
+            values[insertKey(key, slot)] = value;
+            return null;
+        }
+        V current = (V) values[slot];
+        if(current == null) values[slot] = value;
+        return current;
+    }
+
+    @Override
+    public V replace(long key, V value) {
+        V previousValue;
+        if(key == FREE_KEY){
+            if(!hasFreeKey) return null;
+            previousValue = freeKeyValue;
+            freeKeyValue = value;
+            return previousValue;
+        }
+        int slot = findSlot(key);
+        if(slot < 0) return null;
+        previousValue = (V) values[slot];
+        values[slot] = value;
+        return previousValue;
+    }
+
+    @Override
+    public boolean replace(long key, V oldValue, V newValue) {
+        if(key == FREE_KEY){
+            if(!hasFreeKey || !Objects.equals(freeKeyValue, oldValue)) return false;
+            freeKeyValue = newValue;
+            return true;
+        }
+        int slot = findSlot(key);
+        if(slot < 0 || !Objects.equals(values[slot], oldValue)) return false;
+        values[slot] = newValue;
+        return true;
+    }
+
+    @Override
+    public V computeIfAbsent(long key, LongFunction<? extends V> mappingFunction) {
+        Objects.requireNonNull(mappingFunction);
+        return update(key, (k, current) -> mappingFunction.apply(k), true, false, false);
+    }
+
+    @Override
+    public V computeIfPresent(long key, LongObjFunction<? super V, ? extends V> remappingFunction) {
+        return update(key, Objects.requireNonNull(remappingFunction), false, true, false);
+    }
+
+    @Override
+    public V compute(long key, LongObjFunction<? super V, ? extends V> remappingFunction) {
+        return update(key, Objects.requireNonNull(remappingFunction), true, true, false);
+    }
+
+    @Override
+    public V merge(long key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+        Objects.requireNonNull(value);
+        return update(key, (k, current) -> current == null ? value : remappingFunction.apply(current, value), true, true, false);
+    }
+
+    /**
+     * Probes for {@code key} once and applies the result of the remapping function to the slot
+     * found: the free slot that ends the probe is where a new key goes.
+     */
+    private V update(long key, LongObjFunction<? super V, ? extends V> remappingFunction,
+                     boolean whenAbsent, boolean whenPresent, boolean returnPrevious) {
+        boolean present;
+        V oldValue;
+        int slot;
+        if(key == FREE_KEY){
+            slot = 0;
+            present = hasFreeKey;
+            oldValue = freeKeyValue;
+        } else {
+            slot = findSlot(key);
+            present = slot >= 0;
+            oldValue = present ? (V) values[slot] : null;
+        }
+        if(oldValue == null ? !whenAbsent : !whenPresent) return oldValue;
+        V newValue = remappingFunction.apply(key, oldValue);
+        if(newValue == null){
+            if(present && whenPresent){
+                if(key == FREE_KEY){
+                    removeFreeKey();
+                } else {
+                    removeAt(slot);
+                }
+            }
+        } else if(key == FREE_KEY){
+            addFreeKey();
+            freeKeyValue = newValue;
+        } else if(present){
+            values[slot] = newValue;
+        } else {
+            int index = insertKey(key, slot);
+            values[index] = newValue;
+        }
+        return returnPrevious ? oldValue : newValue;
+    }
+
+    @Override
+    public void putAll(long[] keys, V[] values) {
+        LongMapArrays.checkBatch(keys, values.length);
+        ensureCapacity(tableEntries() + keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            put(keys[i], values[i]);
+        }
+    }
+
+    /**
+     * Loads the home slot of the next key before probing the current one, so that the cache miss
+     * of the following lookup overlaps the probe sequence of this one.
+     */
+    @Override
+    public void getAll(long[] keys, V[] results) {
+        LongMapArrays.checkBatch(keys, results.length);
+        if(keys.length == 0) return;
+        long[] table = this.keys;
+        int aheadIndex = indexOf(keys[0]);
+        long aheadKey = table[aheadIndex];
+        for (int i = 0; i < keys.length; i++) {
+            long key = keys[i];
+            int index = aheadIndex;
+            long current = aheadKey;
+            if(i + 1 < keys.length){
+                aheadIndex = indexOf(keys[i + 1]);
+                aheadKey = table[aheadIndex];
+            }
+            if(key == FREE_KEY){
+                results[i] = freeKeyValue;
+                continue;
+            }
+            V result = null;
+            while (current != FREE_KEY) {
+                if(current == key){
+                    result = (V) values[index];
+                    break;
+                }
+                index = nextIndex(index);
+                current = table[index];
+            }
+            results[i] = result;
+        }
+    }
+
+    @Override
+    public boolean containsAll(long[] keys) {
+        if(keys.length == 0) return true;
+        long[] table = this.keys;
+        int aheadIndex = indexOf(keys[0]);
+        long aheadKey = table[aheadIndex];
+        for (int i = 0; i < keys.length; i++) {
+            long key = keys[i];
+            int index = aheadIndex;
+            long current = aheadKey;
+            if(i + 1 < keys.length){
+                aheadIndex = indexOf(keys[i + 1]);
+                aheadKey = table[aheadIndex];
+            }
+            if(key == FREE_KEY){
+                if(!hasFreeKey) return false;
+                continue;
+            }
+            while (current != key) {
+                if(current == FREE_KEY) return false;
+                index = nextIndex(index);
+                current = table[index];
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int removeAll(long[] keys) {
+        long sizeBefore = size;
+        for (long key : keys) {
+            if(key == FREE_KEY){
+                if(hasFreeKey) removeFreeKey();
+                continue;
+            }
+            int slot = findSlot(key);
+            if(slot >= 0) removeAt(slot);
+        }
+        return (int) (sizeBefore - size);
+    }
+
+    Object valueAt(int index) {
+        return values[index];
+    }
+
+    V freeKeyValue() {
+        return freeKeyValue;
+    }
+
+    void installTable(long[] keys, Object[] values, long size, boolean hasFreeKey, V freeKeyValue) {
+        installKeys(keys, size, hasFreeKey);
+        this.values = values;
+        this.freeKeyValue = freeKeyValue;
+    }
+
+    void drainTo(OpenAddressingLongMap<V> matching, OpenAddressingLongMap<V> others, LongPredicate predicate) {
+        if(hasFreeKey){
+            (predicate.test(FREE_KEY) ? matching : others).put(FREE_KEY, freeKeyValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            long key = keys[i];
+            if(key != FREE_KEY){
+                (predicate.test(key) ? matching : others).put(key, (V) values[i]);
+            }
+        }
+        clear();
+    }
+
+    @Override
+    public boolean containsValue(V value) {
+        if(hasFreeKey && Objects.equals(freeKeyValue, value)) return true;
+        for (int i = 0; i < keys.length; i++) {
+            if(keys[i] != FREE_KEY && Objects.equals(values[i], value)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public long[] keys() {
+        return collectKeys();
+    }
+
+    @Override
+    public V[] values() {
+        Object[] result = new Object[arrayLength()];
+        int position = 0;
+        if(hasFreeKey) result[position++] = freeKeyValue;
+        for (int i = 0; i < keys.length; i++) {
+            if(keys[i] != FREE_KEY) result[position++] = values[i];
+        }
+        return LongMapArrays.toTypedArray(result, position);
+    }
+
+    @Override
+    public void forEach(LongObjConsumer<? super V> action) {
+        if(hasFreeKey) action.accept(FREE_KEY, freeKeyValue);
+        long[] keys = this.keys;
+        for (int i = 0; i < keys.length; i++) {
+            if(keys[i] != FREE_KEY) action.accept(keys[i], (V) values[i]);
+        }
+    }
+
+    @Override
+    public LongMapCursor<V> cursor() {
+        return new Cursor<>(this);
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        freeKeyValue = null;
+    }
+
+    /**
+     * Reads values from the map it is pointed at, so {@link SegmentedLongMap} re-points one
+     * instance at each segment instead of allocating a cursor per segment.
+     */
+    static final class Cursor<V> extends TableCursor implements LongMapCursor<V> {
+        Cursor(OpenAddressingLongMap<V> longMap) {
+            super(longMap);
+        }
+
+        @Override
+        public V value() {
+            checkPositioned();
+            OpenAddressingLongMap<V> longMap = (OpenAddressingLongMap<V>) table;
+            return slot == FREE_KEY_SLOT ? longMap.freeKeyValue : (V) longMap.values[slot];
+        }
+    }
+}
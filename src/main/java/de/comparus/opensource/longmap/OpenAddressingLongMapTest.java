@@ -0,0 +1,298 @@
+package de.comparus.opensource.longmap;
+
+import org.junit.jupiter.api.*;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@TestClassOrder(ClassOrderer.OrderAnnotation.class)
+@DisplayName("OpenAddressingLongMap Test")
+class OpenAddressingLongMapTest {
+    static final int DEFAULT_MAP_TEST_CAPACITY = 8;
+
+    @Nested
+    @Order(1)
+    @DisplayName("1. Checking OpenAddressingLongMap creation")
+    @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+    class CreateMapTest {
+
+        @Test
+        @Order(1)
+        @DisplayName("Capacity is rounded up to the next power of two")
+        void capacityIsPowerOfTwo() throws Exception {
+            long[] keys = (long[]) getPrivateFieldValue("keys", new OpenAddressingLongMap<>(33));
+            Object[] values = (Object[]) getPrivateFieldValue("values", new OpenAddressingLongMap<>(33));
+
+            assertThat(keys).hasSize(64);
+            assertThat(values).hasSize(64);
+        }
+
+        @Test
+        @Order(2)
+        @DisplayName("Constructor throws exception when argument is negative or zero")
+        void constructorWithNegativeOrZeroArgument() {
+            assertThatThrownBy(() -> new OpenAddressingLongMap<>(-2)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> new OpenAddressingLongMap<>(0)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @Order(2)
+    @DisplayName("2. OpenAddressingLongMap methods Test")
+    @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+    class MapMethodsTest {
+        OpenAddressingLongMap<String> stringLongMap;
+
+        @BeforeEach
+        void init() {
+            stringLongMap = new OpenAddressingLongMap<>(DEFAULT_MAP_TEST_CAPACITY);
+        }
+
+        @Test
+        @Order(1)
+        @DisplayName("Put and get work for the zero key which marks free slots")
+        void putAndGetZeroKey() {
+            String previousValue = stringLongMap.put(0L, "zero");
+
+            assertNull(previousValue);
+            assertThat(stringLongMap.get(0L)).isEqualTo("zero");
+            assertThat(stringLongMap.containsKey(0L)).isTrue();
+            assertThat(stringLongMap.size()).isEqualTo(1L);
+            assertThat(stringLongMap.remove(0L)).isEqualTo("zero");
+            assertThat(stringLongMap.containsKey(0L)).isFalse();
+            assertThat(stringLongMap.isEmpty()).isTrue();
+        }
+
+        @Test
+        @Order(2)
+        @DisplayName("Put updates the value and returns the previous one when key is the same")
+        void putEntriesWithTheSameKey() {
+            stringLongMap.put(25L, "Old value");
+            String previousValue = stringLongMap.put(25L, "New value");
+
+            assertThat(previousValue).isEqualTo("Old value");
+            assertThat(stringLongMap.get(25L)).isEqualTo("New value");
+            assertThat(stringLongMap.size()).isEqualTo(1L);
+        }
+
+        @Test
+        @Order(3)
+        @DisplayName("Remove keeps colliding keys reachable after backward shift")
+        void removeKeepsCollidingKeysReachable() {
+            long[] keys = getKeysTheSameIndex(4, DEFAULT_MAP_TEST_CAPACITY);
+            for (long key : keys) {
+                stringLongMap.put(key, "value " + key);
+            }
+            String removedValue = stringLongMap.remove(keys[1]);
+
+            assertThat(removedValue).isEqualTo("value " + keys[1]);
+            assertNull(stringLongMap.get(keys[1]));
+            assertThat(stringLongMap.get(keys[0])).isEqualTo("value " + keys[0]);
+            assertThat(stringLongMap.get(keys[2])).isEqualTo("value " + keys[2]);
+            assertThat(stringLongMap.get(keys[3])).isEqualTo("value " + keys[3]);
+            assertThat(stringLongMap.size()).isEqualTo(3L);
+        }
+
+        @Test
+        @Order(4)
+        @DisplayName("ContainsKey and containsValue handle null values")
+        void containsWithNullValues() {
+            stringLongMap.put(1L, null);
+
+            assertThat(stringLongMap.containsKey(1L)).isTrue();
+            assertThat(stringLongMap.containsValue(null)).isTrue();
+            assertThat(stringLongMap.containsValue("value")).isFalse();
+        }
+
+        @Test
+        @Order(5)
+        @DisplayName("Keys and values return all entries")
+        void keysAndValues() {
+            assertThat(stringLongMap.keys()).isEmpty();
+            assertNull(stringLongMap.values());
+
+            stringLongMap.put(1L, "value 1");
+            stringLongMap.put(0L, "value 0");
+            stringLongMap.put(-7L, "value -7");
+
+            assertThat(stringLongMap.keys()).containsExactlyInAnyOrder(1L, 0L, -7L);
+            assertThat(stringLongMap.values()).containsExactlyInAnyOrder("value 1", "value 0", "value -7");
+        }
+
+        @Test
+        @Order(6)
+        @DisplayName("Map grows and stays consistent with a reference map under random operations")
+        void randomOperationsMatchReferenceMap() {
+            Map<Long, String> reference = new HashMap<>();
+            Random random = new Random(42);
+            for (int i = 0; i < 100_000; i++) {
+                long key = random.nextInt(5_000) - 2_500;
+                if(random.nextInt(3) == 0){
+                    assertThat(stringLongMap.remove(key)).isEqualTo(reference.remove(key));
+                } else {
+                    assertThat(stringLongMap.put(key, "v" + i)).isEqualTo(reference.put(key, "v" + i));
+                }
+            }
+
+            assertThat(stringLongMap.size()).isEqualTo(reference.size());
+            reference.forEach((key, value) -> assertThat(stringLongMap.get(key)).isEqualTo(value));
+        }
+
+        @Test
+        @Order(7)
+        @DisplayName("Clear removes all entries")
+        void clearTest() {
+            for (long i = 0; i < 1000; i++) {
+                stringLongMap.put(i, "str" + i);
+            }
+            stringLongMap.clear();
+
+            assertThat(stringLongMap.size()).isEqualTo(0L);
+            assertThat(stringLongMap.containsKey(0L)).isFalse();
+            assertNull(stringLongMap.get(500L));
+        }
+
+        @Test
+        @Order(8)
+        @DisplayName("Cursor visits every entry once while removing entries behind backward shifts")
+        void cursorRemoveVisitsEveryEntryOnce() {
+            Random random = new Random(7);
+            Set<Long> expected = new HashSet<>();
+            stringLongMap.put(0L, "zero");
+            expected.add(0L);
+            for (int i = 0; i < 10_000; i++) {
+                long key = random.nextLong();
+                stringLongMap.put(key, "v" + key);
+                expected.add(key);
+            }
+            Set<Long> visited = new HashSet<>();
+            LongMapCursor<String> cursor = stringLongMap.cursor();
+            while (cursor.advance()) {
+                long key = cursor.key();
+                assertThat(visited.add(key)).isTrue();
+                assertThat(cursor.value()).isEqualTo(key == 0L ? "zero" : "v" + key);
+                if(random.nextBoolean()) cursor.remove();
+            }
+
+            assertThat(visited).isEqualTo(expected);
+            Set<Long> remaining = new HashSet<>();
+            stringLongMap.forEach((key, value) -> remaining.add(key));
+            assertThat((long) remaining.size()).isEqualTo(stringLongMap.size());
+            for (Long key : remaining) {
+                assertThat(stringLongMap.get(key)).isNotNull();
+            }
+        }
+
+        @Test
+        @Order(9)
+        @DisplayName("Bulk operations match single-key operations including the zero key")
+        void bulkOperations() throws Exception {
+            long[] keys = new long[5_000];
+            String[] values = new String[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = i - 100L;
+                values[i] = "v" + keys[i];
+            }
+            stringLongMap.putAll(keys, values);
+            String[] results = new String[keys.length];
+            stringLongMap.getAll(keys, results);
+
+            assertThat(((long[]) getPrivateFieldValue("keys", stringLongMap)).length).isEqualTo(8_192);
+            assertThat(results).containsExactly(values);
+            assertThat(stringLongMap.containsAll(keys)).isTrue();
+            assertThat(stringLongMap.removeAll(new long[]{0L, 0L, 1L, 10_000L})).isEqualTo(2);
+            assertThat(stringLongMap.containsAll(new long[]{2L, 0L})).isFalse();
+            stringLongMap.getAll(new long[]{0L, 2L}, results);
+            assertNull(results[0]);
+            assertThat(results[1]).isEqualTo("v2");
+        }
+
+        @Test
+        @Order(10)
+        @DisplayName("Compute family updates regular and zero keys in place")
+        void computeFamily() {
+            for (long i = 0; i < 10_000; i++) {
+                stringLongMap.merge(i % 100, "x", String::concat);
+            }
+            assertThat(stringLongMap.size()).isEqualTo(100L);
+            assertThat(stringLongMap.get(0L)).hasSize(100);
+            assertThat(stringLongMap.get(99L)).hasSize(100);
+
+            assertNull(stringLongMap.computeIfPresent(0L, (key, value) -> null));
+            assertThat(stringLongMap.containsKey(0L)).isFalse();
+            assertThat(stringLongMap.computeIfAbsent(0L, key -> "zero")).isEqualTo("zero");
+            assertThat(stringLongMap.putIfAbsent(0L, "other")).isEqualTo("zero");
+            assertNull(stringLongMap.compute(5L, (key, value) -> null));
+            assertThat(stringLongMap.replace(6L, "six")).hasSize(100);
+            assertThat(stringLongMap.replace(6L, "six", "6")).isTrue();
+
+            assertThat(stringLongMap.size()).isEqualTo(99L);
+            assertThat(stringLongMap.get(6L)).isEqualTo("6");
+            assertNull(stringLongMap.get(5L));
+        }
+
+        @Test
+        @Order(11)
+        @DisplayName("PutIfAbsent and replace handle null values like java.util.Map in every map")
+        void nullValueContracts() {
+            List<LongMap<String>> maps = Arrays.asList(new OpenAddressingLongMap<>(), new LongMapImpl<>(),
+                    new SegmentedLongMap<>(), new SwissTableLongMap<>());
+            for (LongMap<String> longMap : maps) {
+                for (long key : new long[]{0L, 7L}) {
+                    assertNull(longMap.putIfAbsent(key, null));
+                    assertThat(longMap.containsKey(key)).isTrue();
+                    assertNull(longMap.putIfAbsent(key, "a"));
+                    assertThat(longMap.putIfAbsent(key, "b")).isEqualTo("a");
+                    assertThat(longMap.replace(key, null)).isEqualTo("a");
+                    assertThat(longMap.containsKey(key)).isTrue();
+                    assertNull(longMap.replace(key, "c"));
+                    assertThat(longMap.get(key)).isEqualTo("c");
+                    assertNull(longMap.replace(key + 1, "d"));
+                    assertThat(longMap.containsKey(key + 1)).isFalse();
+                }
+                assertThat(longMap.size()).isEqualTo(2L);
+            }
+        }
+    }
+
+    private long[] getKeysTheSameIndex(int number, int mapCapacity) {
+        long[] keys = new long[number];
+        keys[0] = 1L;
+        int currentIndex = OpenAddressingLongMap.calculateIndex(keys[0], mapCapacity);
+        long candidate = 2L;
+        for (int i = 1; i < number; i++) {
+            while (OpenAddressingLongMap.calculateIndex(candidate, mapCapacity) != currentIndex) {
+                candidate++;
+            }
+            keys[i] = candidate++;
+        }
+        return keys;
+    }
+
+    private Object getPrivateFieldValue(String fieldName, OpenAddressingLongMap<?> longMap) throws Exception {
+        Class<?> type = OpenAddressingLongMap.class;
+        while (type.getSuperclass() != null && !hasDeclaredField(type, fieldName)) {
+            type = type.getSuperclass();
+        }
+        Field field = type.getDeclaredField(fieldName);
+        field.setAccessible(true);
+        return field.get(longMap);
+    }
+
+    private boolean hasDeclaredField(Class<?> type, String fieldName) {
+        for (Field field : type.getDeclaredFields()) {
+            if(field.getName().equals(fieldName)) return true;
+        }
+        return false;
+    }
+}
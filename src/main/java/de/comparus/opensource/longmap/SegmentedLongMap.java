@@ -0,0 +1,254 @@
+package de.comparus.opensource.longmap;
+
+import java.util.Objects;
+
+public class SegmentedLongMap<V> implements LongMap<V> {
+    private static final int DEFAULT_SEGMENT_CAPACITY = 1 << 20;
+    private static final int INITIAL_SEGMENT_TABLE_CAPACITY = 16;
+    private static final int MAXIMUM_DEPTH = 30;
+    private final int segmentCapacity;
+    private final LongHashStrategy hashStrategy;
+    private OpenAddressingLongMap<V>[] directory;
+    private int[] localDepths;
+    private int globalDepth;
+    private long size;
+
+    public SegmentedLongMap() {
+        this(DEFAULT_SEGMENT_CAPACITY);
+    }
+
+    public SegmentedLongMap(int segmentCapacity) {
+        this(segmentCapacity, LongHashStrategy.MURMUR3);
+    }
+
+    public SegmentedLongMap(int segmentCapacity, LongHashStrategy hashStrategy) {
+        if(segmentCapacity <= 0){
+            throw new IllegalArgumentException("Segment capacity must be positive");
+        }
+        this.hashStrategy = Objects.requireNonNull(hashStrategy);
+        this.segmentCapacity = AbstractLongHashTable.tableSizeFor(segmentCapacity);
+        initDirectory();
+    }
+
+    private void initDirectory() {
+        directory = new OpenAddressingLongMap[]{newSegment(0)};
+        localDepths = new int[1];
+        globalDepth = 0;
+    }
+
+    private OpenAddressingLongMap<V> newSegment(int localDepth) {
+        LongHashStrategy segmentHashStrategy = localDepth == 0
+                ? hashStrategy
+                : key -> hashStrategy.hash(key) << localDepth;
+        return new OpenAddressingLongMap<>(Math.min(INITIAL_SEGMENT_TABLE_CAPACITY, segmentCapacity), segmentCapacity, segmentHashStrategy);
+    }
+
+    private int directoryIndex(long key) {
+        return globalDepth == 0 ? 0 : (int) (hashStrategy.hash(key) >>> (Long.SIZE - globalDepth));
+    }
+
+    private OpenAddressingLongMap<V> segmentFor(long key) {
+        return directory[directoryIndex(key)];
+    }
+
+    @Override
+    public V put(long key, V value) {
+        OpenAddressingLongMap<V> segment = segmentFor(key);
+        while (!segment.canAcceptNewKey() && !segment.containsKey(key)) {
+            splitSegment(directoryIndex(key));
+            segment = segmentFor(key);
+        }
+        long sizeBefore = segment.size();
+        V previousValue = segment.put(key, value);
+        size += segment.size() - sizeBefore;
+        return previousValue;
+    }
+
+    private void splitSegment(int index) {
+        int localDepth = localDepths[index];
+        if(localDepth == MAXIMUM_DEPTH){
+            throw new IllegalStateException("LongMap reached its maximum capacity");
+        }
+        if(localDepth == globalDepth){
+            doubleDirectory();
+            index <<= 1;
+        }
+        OpenAddressingLongMap<V> segment = directory[index];
+        OpenAddressingLongMap<V> lower = newSegment(localDepth + 1);
+        OpenAddressingLongMap<V> upper = newSegment(localDepth + 1);
+        final long splitBit = 1L << (Long.SIZE - 1 - localDepth);
+        segment.drainTo(upper, lower, key -> (hashStrategy.hash(key) & splitBit) != 0);
+
+        int span = 1 << (globalDepth - localDepth);
+        int first = index & -span;
+        for (int i = first; i < first + span; i++) {
+            directory[i] = i < first + span / 2 ? lower : upper;
+            localDepths[i] = localDepth + 1;
+        }
+    }
+
+    private void doubleDirectory() {
+        OpenAddressingLongMap<V>[] newDirectory = new OpenAddressingLongMap[directory.length << 1];
+        int[] newLocalDepths = new int[newDirectory.length];
+        for (int i = 0; i < directory.length; i++) {
+            newDirectory[i << 1] = newDirectory[(i << 1) + 1] = directory[i];
+            newLocalDepths[i << 1] = newLocalDepths[(i << 1) + 1] = localDepths[i];
+        }
+        directory = newDirectory;
+        localDepths = newLocalDepths;
+        globalDepth++;
+    }
+
+    @Override
+    public V get(long key) {
+        return segmentFor(key).get(key);
+    }
+
+    @Override
+    public V remove(long key) {
+        OpenAddressingLongMap<V> segment = segmentFor(key);
+        long sizeBefore = segment.size();
+        V previousValue = segment.remove(key);
+        size -= sizeBefore - segment.size();
+        return previousValue;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(long key) {
+        return segmentFor(key).containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(V value) {
+        for (int i = 0; i < directory.length; i++) {
+            if(isFirstReference(i) && directory[i].containsValue(value)) return true;
+        }
+        return false;
+    }
+
+    private boolean isFirstReference(int index) {
+        return index == 0 || directory[index - 1] != directory[index];
+    }
+
+    @Override
+    public long[] keys() {
+        long[] result = new long[arrayLength()];
+        int position = 0;
+        for (int i = 0; i < directory.length; i++) {
+            if(!isFirstReference(i)) continue;
+            long[] segmentKeys = directory[i].keys();
+            System.arraycopy(segmentKeys, 0, result, position, segmentKeys.length);
+            position += segmentKeys.length;
+        }
+        return result;
+    }
+
+    @Override
+    public V[] values() {
+        Object[] result = new Object[arrayLength()];
+        int position = 0;
+        for (int i = 0; i < directory.length; i++) {
+            if(!isFirstReference(i)) continue;
+            Object[] segmentValues = directory[i].values();
+            if(segmentValues == null) continue;
+            System.arraycopy(segmentValues, 0, result, position, segmentValues.length);
+            position += segmentValues.length;
+        }
+        return LongMapArrays.toTypedArray(result, position);
+    }
+
+    private int arrayLength() {
+        if(size > Integer.MAX_VALUE - 8){
+            throw new IllegalStateException("LongMap is too large to be copied into an array: " + size);
+        }
+        return (int) size;
+    }
+
+    @Override
+    public void forEach(LongObjConsumer<? super V> action) {
+        Objects.requireNonNull(action);
+        for (int i = 0; i < directory.length; i++) {
+            if(isFirstReference(i)) directory[i].forEach(action);
+        }
+    }
+
+    @Override
+    public LongMapCursor<V> cursor() {
+        return new Cursor();
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        initDirectory();
+        size = 0;
+    }
+
+    /**
+     * Walks the segments with one segment cursor that is re-pointed at each of them, so a reused
+     * cursor does not allocate.
+     */
+    private class Cursor implements LongMapCursor<V> {
+        private final OpenAddressingLongMap.Cursor<V> segmentCursor = new OpenAddressingLongMap.Cursor<>(directory[0]);
+        private int nextSegment;
+        private boolean inSegment;
+
+        private Cursor() {
+            reset();
+        }
+
+        @Override
+        public void reset() {
+            nextSegment = 0;
+            inSegment = false;
+        }
+
+        @Override
+        public boolean advance() {
+            while (!inSegment || !segmentCursor.advance()) {
+                while (nextSegment < directory.length && !isFirstReference(nextSegment)) {
+                    nextSegment++;
+                }
+                if(nextSegment == directory.length){
+                    inSegment = false;
+                    return false;
+                }
+                segmentCursor.point(directory[nextSegment++]);
+                inSegment = true;
+            }
+            return true;
+        }
+
+        private LongMapCursor<V> segmentCursor() {
+            if(!inSegment){
+                throw new IllegalStateException("Cursor is not positioned on an entry");
+            }
+            return segmentCursor;
+        }
+
+        @Override
+        public long key() {
+            return segmentCursor().key();
+        }
+
+        @Override
+        public V value() {
+            return segmentCursor().value();
+        }
+
+        @Override
+        public void remove() {
+            segmentCursor().remove();
+            size--;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package de.comparus.opensource.longmap;
+
+import org.junit.jupiter.api.*;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@TestClassOrder(ClassOrderer.OrderAnnotation.class)
+@DisplayName("SegmentedLongMap Test")
+class SegmentedLongMapTest {
+    static final int SMALL_SEGMENT_CAPACITY = 64;
+
+    @Nested
+    @Order(1)
+    @DisplayName("1. Checking SegmentedLongMap segments")
+    @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+    class SegmentsTest {
+
+        @Test
+        @Order(1)
+        @DisplayName("Constructor throws exception when segment capacity is negative or zero")
+        void constructorWithNegativeOrZeroArgument() {
+            assertThatThrownBy(() -> new SegmentedLongMap<>(-1)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> new SegmentedLongMap<>(0)).isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @Order(2)
+        @DisplayName("Segments split instead of growing beyond the segment capacity")
+        void segmentsSplitWhenFull() throws Exception {
+            SegmentedLongMap<String> longMap = new SegmentedLongMap<>(SMALL_SEGMENT_CAPACITY);
+            for (long key = 0; key < 10_000; key++) {
+                longMap.put(key, "value " + key);
+            }
+            Object[] directory = (Object[]) getPrivateFieldValue("directory", longMap);
+
+            assertThat(directory.length).isGreaterThan(10_000 / SMALL_SEGMENT_CAPACITY);
+            for (Object segment : directory) {
+                assertThat(((OpenAddressingLongMap<?>) segment).size()).isLessThan(SMALL_SEGMENT_CAPACITY);
+            }
+            assertThat(longMap.size()).isEqualTo(10_000L);
+        }
+    }
+
+    @Nested
+    @Order(2)
+    @DisplayName("2. SegmentedLongMap methods Test")
+    @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+    class MapMethodsTest {
+        SegmentedLongMap<String> stringLongMap;
+
+        @BeforeEach
+        void init() {
+            stringLongMap = new SegmentedLongMap<>(SMALL_SEGMENT_CAPACITY);
+        }
+
+        @Test
+        @Order(1)
+        @DisplayName("Map stays consistent with a reference map under random operations")
+        void randomOperationsMatchReferenceMap() {
+            Map<Long, String> reference = new HashMap<>();
+            Random random = new Random(7);
+            for (int i = 0; i < 100_000; i++) {
+                long key = random.nextInt(20_000) - 10_000;
+                if(random.nextInt(4) == 0){
+                    assertThat(stringLongMap.remove(key)).isEqualTo(reference.remove(key));
+                } else {
+                    assertThat(stringLongMap.put(key, "v" + i)).isEqualTo(reference.put(key, "v" + i));
+                }
+            }
+
+            assertThat(stringLongMap.size()).isEqualTo(reference.size());
+            assertThat(stringLongMap.keys()).hasSize(reference.size());
+            assertThat(stringLongMap.values()).hasSize(reference.size());
+            reference.forEach((key, value) -> assertThat(stringLongMap.get(key)).isEqualTo(value));
+        }
+
+        @Test
+        @Order(2)
+        @DisplayName("ContainsKey and containsValue look into the right segment")
+        void containsKeyAndValue() {
+            for (long key = 0; key < 1_000; key++) {
+                stringLongMap.put(key, "value " + key);
+            }
+
+            assertThat(stringLongMap.containsKey(999L)).isTrue();
+            assertThat(stringLongMap.containsKey(1_000L)).isFalse();
+            assertThat(stringLongMap.containsValue("value 500")).isTrue();
+            assertThat(stringLongMap.containsValue("value 1000")).isFalse();
+        }
+
+        @Test
+        @Order(3)
+        @DisplayName("Clear removes all entries")
+        void clearTest() {
+            for (long key = 0; key < 1_000; key++) {
+                stringLongMap.put(key, "value " + key);
+            }
+            stringLongMap.clear();
+
+            assertThat(stringLongMap.isEmpty()).isTrue();
+            assertNull(stringLongMap.get(10L));
+            assertThat(stringLongMap.keys()).isEmpty();
+        }
+
+        @Test
+        @Order(4)
+        @DisplayName("ForEach and cursor walk every segment once and cursor removal updates the size")
+        void forEachAndCursor() {
+            for (long key = 0; key < 1_000; key++) {
+                stringLongMap.put(key, "value " + key);
+            }
+            long[] visited = new long[1_000];
+            stringLongMap.forEach((key, value) -> visited[(int) key]++);
+            LongMapCursor<String> cursor = stringLongMap.cursor();
+            while (cursor.advance()) {
+                assertThat(cursor.value()).isEqualTo("value " + cursor.key());
+                if(cursor.key() < 500) cursor.remove();
+            }
+
+            assertThat(visited).containsOnly(1L);
+            assertThat(stringLongMap.size()).isEqualTo(500L);
+            assertThat(stringLongMap.containsKey(499L)).isFalse();
+            assertThat(stringLongMap.get(500L)).isEqualTo("value 500");
+        }
+
+        @Test
+        @Order(5)
+        @DisplayName("Reset cursor walks all segments again through the same segment cursor")
+        void cursorReusesSegmentCursor() throws Exception {
+            for (long key = 0; key < 1_000; key++) {
+                stringLongMap.put(key, "value " + key);
+            }
+            assertThat((Object[]) getPrivateFieldValue("directory", stringLongMap)).hasSizeGreaterThan(1);
+            LongMapCursor<String> cursor = stringLongMap.cursor();
+            Field field = cursor.getClass().getDeclaredField("segmentCursor");
+            field.setAccessible(true);
+            Object segmentCursor = field.get(cursor);
+
+            for (int pass = 0; pass < 3; pass++) {
+                cursor.reset();
+                long sum = 0;
+                while (cursor.advance()) {
+                    sum += cursor.key();
+                    if(pass == 1 && cursor.key() % 2 == 0) cursor.remove();
+                }
+                assertThat(sum).isEqualTo(pass < 2 ? 499_500L : 250_000L);
+            }
+            assertThat(field.get(cursor)).isSameAs(segmentCursor);
+            assertThat(stringLongMap.size()).isEqualTo(500L);
+            assertThatThrownBy(cursor::key).isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    private Object getPrivateFieldValue(String fieldName, SegmentedLongMap<?> longMap) throws Exception {
+        Field field = SegmentedLongMap.class.getDeclaredField(fieldName);
+        field.setAccessible(true);
+        return field.get(longMap);
+    }
+}
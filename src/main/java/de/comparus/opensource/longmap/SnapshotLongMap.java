@@ -0,0 +1,511 @@
+package de.comparus.opensource.longmap;
+
+import java.util.Objects;
+
+/**
+ * {@link LongMap} with constant-time point-in-time snapshots. Entries live in a compressed hash
+ * trie of 64-way nodes indexed by six bits of the key hash at a time; each node keeps its inline
+ * entries and its children in arrays sized exactly by two bitmaps. Every node records the edit
+ * token it was created under. Writes change nodes of the current token in place and copy the
+ * others, so {@link #snapshot()} only swaps the token, and each later write copies just the
+ * nodes on its path while the snapshot keeps sharing the rest.
+ * <p>
+ * The hash is {@link LongHashStrategy#MURMUR3}, a bijection, so two keys always part within the
+ * eleven levels and no collision nodes are needed. The map itself is not thread-safe; a snapshot
+ * is immutable and can be read by any number of threads while the owner keeps writing.
+ */
+public class SnapshotLongMap<V> implements LongMap<V> {
+    private static final int BITS = 6;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final int MAXIMUM_DEPTH = (Long.SIZE + BITS - 1) / BITS;
+    private static final long[] NO_KEYS = new long[0];
+    private static final Object[] NO_VALUES = new Object[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Node EMPTY = new Node(null, 0, 0, NO_KEYS, NO_VALUES, NO_CHILDREN);
+    private Node root = EMPTY;
+    private long size;
+    private Object edit = new Object();
+    private Object replaced;
+    private boolean found;
+
+    private static final class Node {
+        final Object edit;
+        long dataMap;
+        long nodeMap;
+        long[] keys;
+        Object[] values;
+        Node[] children;
+
+        Node(Object edit, long dataMap, long nodeMap, long[] keys, Object[] values, Node[] children) {
+            this.edit = edit;
+            this.dataMap = dataMap;
+            this.nodeMap = nodeMap;
+            this.keys = keys;
+            this.values = values;
+            this.children = children;
+        }
+    }
+
+    private static long hash(long key) {
+        return LongHashStrategy.fmix64(key);
+    }
+
+    private static long bit(long hash, int shift) {
+        return 1L << ((int) (hash >>> shift) & MASK);
+    }
+
+    private static int index(long bitmap, long bit) {
+        return Long.bitCount(bitmap & (bit - 1));
+    }
+
+    private Node editable(Node node) {
+        if(node.edit == edit) return node;
+        return new Node(edit, node.dataMap, node.nodeMap, node.keys.clone(), node.values.clone(), node.children.clone());
+    }
+
+    /**
+     * Returns the node with {@code keys}, {@code values} and {@code children} replaced, reusing
+     * it when it belongs to the current edit. Values and children are written in place later,
+     * so a copy must not keep the arrays of the node it replaces.
+     */
+    private Node update(Node node, long dataMap, long nodeMap, long[] keys, Object[] values, Node[] children) {
+        if(node.edit != edit){
+            return new Node(edit, dataMap, nodeMap, keys,
+                    values == node.values ? values.clone() : values,
+                    children == node.children ? children.clone() : children);
+        }
+        node.dataMap = dataMap;
+        node.nodeMap = nodeMap;
+        node.keys = keys;
+        node.values = values;
+        node.children = children;
+        return node;
+    }
+
+    private static Object get(Node node, long key) {
+        long hash = hash(key);
+        for (int shift = 0; ; shift += BITS) {
+            long bit = bit(hash, shift);
+            if((node.dataMap & bit) != 0){
+                int index = index(node.dataMap, bit);
+                return node.keys[index] == key ? node.values[index] : null;
+            }
+            if((node.nodeMap & bit) == 0) return null;
+            node = node.children[index(node.nodeMap, bit)];
+        }
+    }
+
+    private static boolean containsKey(Node node, long key) {
+        long hash = hash(key);
+        for (int shift = 0; ; shift += BITS) {
+            long bit = bit(hash, shift);
+            if((node.dataMap & bit) != 0) return node.keys[index(node.dataMap, bit)] == key;
+            if((node.nodeMap & bit) == 0) return false;
+            node = node.children[index(node.nodeMap, bit)];
+        }
+    }
+
+    @Override
+    public V put(long key, V value) {
+        replaced = null;
+        root = put(root, key, hash(key), 0, value);
+        V previousValue = (V) replaced;
+        replaced = null;
+        return previousValue;
+    }
+
+    private Node put(Node node, long key, long hash, int shift, V value) {
+        long bit = bit(hash, shift);
+        if((node.dataMap & bit) != 0){
+            int index = index(node.dataMap, bit);
+            if(node.keys[index] == key){
+                replaced = node.values[index];
+                Node target = editable(node);
+                target.values[index] = value;
+                return target;
+            }
+            Node child = pair(node.keys[index], node.values[index], key, value, hash, shift + BITS);
+            size++;
+            int childIndex = index(node.nodeMap, bit);
+            return update(node, node.dataMap ^ bit, node.nodeMap | bit,
+                    removeKey(node.keys, index), removeValue(node.values, index), insertChild(node.children, childIndex, child));
+        }
+        if((node.nodeMap & bit) != 0){
+            int index = index(node.nodeMap, bit);
+            Node child = node.children[index];
+            Node updated = put(child, key, hash, shift + BITS, value);
+            if(updated == child) return node;
+            Node target = editable(node);
+            target.children[index] = updated;
+            return target;
+        }
+        size++;
+        int index = index(node.dataMap, bit);
+        return update(node, node.dataMap | bit, node.nodeMap,
+                insertKey(node.keys, index, key), insertValue(node.values, index, value), node.children);
+    }
+
+    private Node pair(long key, Object value, long otherKey, Object otherValue, long otherHash, int shift) {
+        long bit = bit(hash(key), shift);
+        long otherBit = bit(otherHash, shift);
+        if(bit == otherBit){
+            Node child = pair(key, value, otherKey, otherValue, otherHash, shift + BITS);
+            return new Node(edit, 0, bit, NO_KEYS, NO_VALUES, new Node[]{child});
+        }
+        return Long.compareUnsigned(bit, otherBit) < 0
+                ? new Node(edit, bit | otherBit, 0, new long[]{key, otherKey}, new Object[]{value, otherValue}, NO_CHILDREN)
+                : new Node(edit, bit | otherBit, 0, new long[]{otherKey, key}, new Object[]{otherValue, value}, NO_CHILDREN);
+    }
+
+    @Override
+    public V get(long key) {
+        return (V) get(root, key);
+    }
+
+    @Override
+    public V remove(long key) {
+        found = false;
+        root = remove(root, key, hash(key), 0);
+        V previousValue = (V) replaced;
+        replaced = null;
+        return previousValue;
+    }
+
+    /**
+     * Keeps the trie canonical: a child left with a single entry and no children is inlined
+     * into its parent.
+     */
+    private Node remove(Node node, long key, long hash, int shift) {
+        long bit = bit(hash, shift);
+        if((node.dataMap & bit) != 0){
+            int index = index(node.dataMap, bit);
+            if(node.keys[index] != key) return node;
+            found = true;
+            replaced = node.values[index];
+            size--;
+            return update(node, node.dataMap ^ bit, node.nodeMap,
+                    removeKey(node.keys, index), removeValue(node.values, index), node.children);
+        }
+        if((node.nodeMap & bit) == 0) return node;
+        int index = index(node.nodeMap, bit);
+        Node child = node.children[index];
+        Node updated = remove(child, key, hash, shift + BITS);
+        if(!found) return node;
+        if(updated.nodeMap == 0 && updated.keys.length == 1){
+            int dataIndex = index(node.dataMap, bit);
+            return update(node, node.dataMap | bit, node.nodeMap ^ bit,
+                    insertKey(node.keys, dataIndex, updated.keys[0]), insertValue(node.values, dataIndex, updated.values[0]),
+                    removeChild(node.children, index));
+        }
+        if(updated == child) return node;
+        Node target = editable(node);
+        target.children[index] = updated;
+        return target;
+    }
+
+    private static long[] insertKey(long[] keys, int index, long key) {
+        long[] result = new long[keys.length + 1];
+        System.arraycopy(keys, 0, result, 0, index);
+        result[index] = key;
+        System.arraycopy(keys, index, result, index + 1, keys.length - index);
+        return result;
+    }
+
+    private static long[] removeKey(long[] keys, int index) {
+        if(keys.length == 1) return NO_KEYS;
+        long[] result = new long[keys.length - 1];
+        System.arraycopy(keys, 0, result, 0, index);
+        System.arraycopy(keys, index + 1, result, index, result.length - index);
+        return result;
+    }
+
+    private static Object[] insertValue(Object[] values, int index, Object value) {
+        Object[] result = new Object[values.length + 1];
+        System.arraycopy(values, 0, result, 0, index);
+        result[index] = value;
+        System.arraycopy(values, index, result, index + 1, values.length - index);
+        return result;
+    }
+
+    private static Object[] removeValue(Object[] values, int index) {
+        if(values.length == 1) return NO_VALUES;
+        Object[] result = new Object[values.length - 1];
+        System.arraycopy(values, 0, result, 0, index);
+        System.arraycopy(values, index + 1, result, index, result.length - index);
+        return result;
+    }
+
+    private static Node[] insertChild(Node[] children, int index, Node child) {
+        Node[] result = new Node[children.length + 1];
+        System.arraycopy(children, 0, result, 0, index);
+        result[index] = child;
+        System.arraycopy(children, index, result, index + 1, children.length - index);
+        return result;
+    }
+
+    private static Node[] removeChild(Node[] children, int index) {
+        if(children.length == 1) return NO_CHILDREN;
+        Node[] result = new Node[children.length - 1];
+        System.arraycopy(children, 0, result, 0, index);
+        System.arraycopy(children, index + 1, result, index, result.length - index);
+        return result;
+    }
+
+    /**
+     * Returns an immutable view of the current entries in constant time. Later writes to this
+     * map copy the nodes they touch instead of changing the ones the snapshot shares.
+     */
+    public LongMap<V> snapshot() {
+        edit = new Object();
+        return new Snapshot<>(root, size);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(long key) {
+        return containsKey(root, key);
+    }
+
+    @Override
+    public boolean containsValue(V value) {
+        return containsValue(root, value);
+    }
+
+    @Override
+    public long[] keys() {
+        return keys(root, size);
+    }
+
+    @Override
+    public V[] values() {
+        return values(root, size);
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        root = EMPTY;
+        size = 0;
+    }
+
+    @Override
+    public void forEach(LongObjConsumer<? super V> action) {
+        forEach(root, action);
+    }
+
+    /**
+     * Walks a snapshot of the entries, so the map may change while the cursor is in use;
+     * {@link LongMapCursor#remove()} removes the current key from the map.
+     */
+    @Override
+    public LongMapCursor<V> cursor() {
+        return new TrieCursor<>(this, null);
+    }
+
+    private static boolean containsValue(Node node, Object value) {
+        for (Object current : node.values) {
+            if(Objects.equals(current, value)) return true;
+        }
+        for (Node child : node.children) {
+            if(containsValue(child, value)) return true;
+        }
+        return false;
+    }
+
+    private static <V> void forEach(Node node, LongObjConsumer<? super V> action) {
+        for (int i = 0; i < node.keys.length; i++) {
+            action.accept(node.keys[i], (V) node.values[i]);
+        }
+        for (Node child : node.children) {
+            forEach(child, action);
+        }
+    }
+
+    private static int arrayLength(long size) {
+        if(size > Integer.MAX_VALUE - 8){
+            throw new IllegalStateException("LongMap is too large to be copied into an array: " + size);
+        }
+        return (int) size;
+    }
+
+    private static long[] keys(Node root, long size) {
+        long[] result = new long[arrayLength(size)];
+        TrieCursor<Object> cursor = new TrieCursor<>(null, root);
+        int position = 0;
+        while (cursor.advance()) {
+            result[position++] = cursor.key;
+        }
+        return result;
+    }
+
+    private static <V> V[] values(Node root, long size) {
+        Object[] result = new Object[arrayLength(size)];
+        TrieCursor<Object> cursor = new TrieCursor<>(null, root);
+        int position = 0;
+        while (cursor.advance()) {
+            result[position++] = cursor.value;
+        }
+        return LongMapArrays.toTypedArray(result, position);
+    }
+
+    /**
+     * Depth-first walk with an explicit stack: the inline entries of a node come first, then
+     * its children.
+     */
+    private static final class TrieCursor<V> implements LongMapCursor<V> {
+        private final SnapshotLongMap<V> owner;
+        private final Node[] nodes = new Node[MAXIMUM_DEPTH];
+        private final int[] positions = new int[MAXIMUM_DEPTH];
+        private Node root;
+        private int depth;
+        private long key;
+        private Object value;
+        private boolean positioned;
+
+        TrieCursor(SnapshotLongMap<V> owner, Node root) {
+            this.owner = owner;
+            this.root = root;
+            reset();
+        }
+
+        @Override
+        public boolean advance() {
+            positioned = false;
+            while (depth >= 0) {
+                Node node = nodes[depth];
+                int position = positions[depth]++;
+                if(position < node.keys.length){
+                    key = node.keys[position];
+                    value = node.values[position];
+                    return positioned = true;
+                }
+                position -= node.keys.length;
+                if(position < node.children.length){
+                    nodes[++depth] = node.children[position];
+                    positions[depth] = 0;
+                } else {
+                    nodes[depth--] = null;
+                }
+            }
+            return false;
+        }
+
+        private void checkPositioned() {
+            if(!positioned){
+                throw new IllegalStateException("Cursor is not positioned on an entry");
+            }
+        }
+
+        @Override
+        public long key() {
+            checkPositioned();
+            return key;
+        }
+
+        @Override
+        public V value() {
+            checkPositioned();
+            return (V) value;
+        }
+
+        @Override
+        public void remove() {
+            if(owner == null){
+                throw new UnsupportedOperationException("LongMap snapshot is immutable");
+            }
+            checkPositioned();
+            positioned = false;
+            owner.remove(key);
+        }
+
+        @Override
+        public void reset() {
+            if(owner != null){
+                owner.edit = new Object();
+                root = owner.root;
+            }
+            nodes[0] = root;
+            positions[0] = 0;
+            depth = 0;
+            positioned = false;
+        }
+    }
+
+    private static final class Snapshot<V> implements LongMap<V> {
+        private final Node root;
+        private final long size;
+
+        Snapshot(Node root, long size) {
+            this.root = root;
+            this.size = size;
+        }
+
+        @Override
+        public V get(long key) {
+            return (V) SnapshotLongMap.get(root, key);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        @Override
+        public boolean containsKey(long key) {
+            return SnapshotLongMap.containsKey(root, key);
+        }
+
+        @Override
+        public boolean containsValue(V value) {
+            return SnapshotLongMap.containsValue(root, value);
+        }
+
+        @Override
+        public long[] keys() {
+            return SnapshotLongMap.keys(root, size);
+        }
+
+        @Override
+        public V[] values() {
+            return SnapshotLongMap.values(root, size);
+        }
+
+        @Override
+        public long size() {
+            return size;
+        }
+
+        @Override
+        public void forEach(LongObjConsumer<? super V> action) {
+            SnapshotLongMap.forEach(root, action);
+        }
+
+        @Override
+        public LongMapCursor<V> cursor() {
+            return new TrieCursor<>(null, root);
+        }
+
+        @Override
+        public V put(long key, V value) {
+            throw new UnsupportedOperationException("LongMap snapshot is immutable");
+        }
+
+        @Override
+        public V remove(long key) {
+            throw new UnsupportedOperationException("LongMap snapshot is immutable");
+        }
+
+        @Override
+        public void clear() {
+            throw new UnsupportedOperationException("LongMap snapshot is immutable");
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package de.comparus.opensource.longmap;
+
+import org.junit.jupiter.api.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("SnapshotLongMap Test")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class SnapshotLongMapTest {
+    SnapshotLongMap<Long> longMap = new SnapshotLongMap<>();
+
+    private static void assertSameEntries(LongMap<Long> actual, Map<Long, Long> expected) {
+        assertThat(actual.size()).isEqualTo(expected.size());
+        Map<Long, Long> entries = new HashMap<>();
+        actual.forEach(entries::put);
+        assertThat(entries).isEqualTo(expected);
+        assertThat(actual.keys()).hasSize(expected.size());
+        for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+            assertThat(actual.get(entry.getKey())).isEqualTo(entry.getValue());
+        }
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Random puts and removes match a HashMap")
+    void matchesHashMap() {
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(29);
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextBoolean() ? random.nextInt(20_000) : random.nextLong();
+            if(random.nextInt(3) == 0){
+                assertThat(longMap.remove(key)).isEqualTo(expected.remove(key));
+            } else {
+                assertThat(longMap.put(key, (long) i)).isEqualTo(expected.put(key, (long) i));
+            }
+        }
+        assertSameEntries(longMap, expected);
+
+        for (Long key : expected.keySet().toArray(new Long[0])) {
+            longMap.remove(key);
+        }
+        assertThat(longMap.isEmpty()).isTrue();
+        assertThat(longMap.keys()).isEmpty();
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Snapshots keep their point-in-time entries while the map keeps changing")
+    void snapshotsArePointInTime() {
+        Map<Long, Long> expected = new HashMap<>();
+        Map<LongMap<Long>, Map<Long, Long>> snapshots = new HashMap<>();
+        Random random = new Random(31);
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 5_000; i++) {
+                long key = random.nextInt(30_000);
+                if(random.nextInt(4) == 0){
+                    longMap.remove(key);
+                    expected.remove(key);
+                } else {
+                    longMap.put(key, (long) round);
+                    expected.put(key, (long) round);
+                }
+            }
+            snapshots.put(longMap.snapshot(), new HashMap<>(expected));
+        }
+        longMap.clear();
+
+        snapshots.forEach(SnapshotLongMapTest::assertSameEntries);
+        LongMap<Long> snapshot = snapshots.keySet().iterator().next();
+        assertThatThrownBy(() -> snapshot.put(1L, 1L)).isInstanceOf(UnsupportedOperationException.class);
+        LongMapCursor<Long> cursor = snapshot.cursor();
+        assertThat(cursor.advance()).isTrue();
+        assertThatThrownBy(cursor::remove).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Reader scans a snapshot on another thread while the owner writes")
+    void concurrentReaderSeesConsistentSnapshot() throws Exception {
+        for (long key = 0; key < 50_000; key++) {
+            longMap.put(key, 1L);
+        }
+        LongMap<Long> snapshot = longMap.snapshot();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CompletableFuture<Long> reader = CompletableFuture.supplyAsync(() -> {
+            long scans = 0;
+            while (writing.get() || scans == 0) {
+                long[] sum = {0};
+                snapshot.forEach((key, value) -> sum[0] += value);
+                assertThat(sum[0]).isEqualTo(50_000L);
+                scans++;
+            }
+            return scans;
+        });
+        for (int round = 2; round < 50; round++) {
+            for (long key = 0; key < 50_000; key += 3) {
+                longMap.put(key, (long) round);
+                longMap.remove(key + 1);
+            }
+        }
+        writing.set(false);
+
+        assertThat(reader.get()).isPositive();
+        assertThat(snapshot.size()).isEqualTo(50_000L);
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Cursor of the map tolerates writes and removes through the cursor")
+    void cursorOverLiveMap() {
+        for (long key = 0; key < 1_000; key++) {
+            longMap.put(key, key);
+        }
+        LongMapCursor<Long> cursor = longMap.cursor();
+        long visited = 0;
+        while (cursor.advance()) {
+            long key = cursor.key();
+            if(key % 2 == 0) cursor.remove();
+            longMap.put(key + 10_000, 0L);
+            visited++;
+        }
+
+        assertThat(visited).isEqualTo(1_000L);
+        assertThat(longMap.size()).isEqualTo(1_500L);
+        assertThat(longMap.containsKey(2L)).isFalse();
+        assertThat(longMap.containsKey(3L)).isTrue();
+        assertThat(longMap.containsValue(999L)).isTrue();
+    }
+}
@@ -0,0 +1,29 @@
+package de.comparus.opensource.longmap;
+
+/**
+ * Counters of an instrumented {@link LongMapImpl}. They are plain fields written by the owning
+ * thread, so readers on other threads, such as JMX, may see slightly stale values.
+ */
+final class StatsRecorder {
+    static final long BYTES = Footprint.objectBytes(Footprint.REFERENCE_BYTES + 4 * Long.BYTES)
+            + Footprint.longArrayBytes(LongMapStats.HISTOGRAM_SIZE);
+    final long[] probeLengths = new long[LongMapStats.HISTOGRAM_SIZE];
+    long hitCount;
+    long missCount;
+    long resizeCount;
+    long resizeNanos;
+
+    void recordGet(boolean hit, int probes) {
+        if(hit){
+            hitCount++;
+        } else {
+            missCount++;
+        }
+        probeLengths[Math.min(probes, LongMapStats.HISTOGRAM_SIZE - 1)]++;
+    }
+
+    void recordResize(long nanos) {
+        resizeCount++;
+        resizeNanos += nanos;
+    }
+}
@@ -0,0 +1,356 @@
+package de.comparus.opensource.longmap;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Open-addressing map in the style of a Swiss table. Every slot has a control byte: {@code EMPTY},
+ * {@code DELETED}, or for a full slot the low 7 bits of the key hash. The control bytes of a group
+ * of 8 slots are packed into one {@code long}, so a probe step tests all 8 slots at once with
+ * SWAR (SIMD within a register) arithmetic and only compares keys whose 7 hash bits match. Probing
+ * visits whole groups in triangular order, starting at the group named by the top hash bits, and
+ * stops at the first group with an empty slot, which makes misses cheap even at a high load.
+ * <p>
+ * Removal marks a slot {@code EMPTY} when its group still has an empty slot, since no probe can
+ * have passed through such a group, and {@code DELETED} otherwise; entries never move, so a
+ * {@link #cursor()} may remove while iterating. Tombstones are purged when the table rehashes.
+ * Control bytes mark free slots, so unlike the other open-addressing maps every key, {@code 0}
+ * included, lives in the table.
+ */
+public class SwissTableLongMap<V> implements LongMap<V> {
+    static final int GROUP_SIZE = 8;
+    static final int MAXIMUM_CAPACITY = 1 << 30;
+    static final int EMPTY = 0x80;
+    static final int DELETED = 0xFE;
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int HASH_BITS = 0x7F;
+    private static final long LOW_BITS = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final long EMPTY_GROUP = LOW_BITS * EMPTY;
+    private final LongHashStrategy hashStrategy;
+    private long[] controls;
+    private long[] keys;
+    private Object[] values;
+    private int groupShift;
+    private int groupMask;
+    private int growthLeft;
+    private long size;
+
+    public SwissTableLongMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public SwissTableLongMap(int initialCapacity) {
+        this(initialCapacity, LongHashStrategy.MURMUR3);
+    }
+
+    public SwissTableLongMap(int initialCapacity, LongHashStrategy hashStrategy) {
+        if(initialCapacity <= 0){
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.hashStrategy = Objects.requireNonNull(hashStrategy);
+        allocate(capacityFor(initialCapacity));
+    }
+
+    /**
+     * Returns the smallest power-of-two capacity of at least two groups whose maximum load holds
+     * {@code expectedSize} entries.
+     */
+    static int capacityFor(int expectedSize) {
+        int capacity = 2 * GROUP_SIZE;
+        while (capacity < MAXIMUM_CAPACITY && maximumLoad(capacity) < expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static long maximumLoad(long capacity) {
+        return capacity - capacity / 8;
+    }
+
+    private void allocate(int capacity) {
+        int groups = capacity / GROUP_SIZE;
+        controls = new long[groups];
+        Arrays.fill(controls, EMPTY_GROUP);
+        keys = new long[capacity];
+        values = new Object[capacity];
+        groupShift = LongHashStrategy.shiftFor(groups);
+        groupMask = groups - 1;
+        growthLeft = (int) maximumLoad(capacity);
+    }
+
+    /**
+     * Returns a word with the high bit set in every byte of {@code controls} that equals
+     * {@code hashBits}. A byte right above a match may be reported too, which is harmless because
+     * candidates are confirmed by comparing keys; empty and deleted bytes are never reported.
+     */
+    static long matchHash(long controls, int hashBits) {
+        long difference = controls ^ (LOW_BITS * hashBits);
+        return (difference - LOW_BITS) & ~difference & HIGH_BITS;
+    }
+
+    /**
+     * {@code EMPTY} is the only control byte with bit 7 set and bit 1 clear.
+     */
+    static long matchEmpty(long controls) {
+        return controls & ~(controls << 6) & HIGH_BITS;
+    }
+
+    static long matchFree(long controls) {
+        return controls & HIGH_BITS;
+    }
+
+    static long matchFull(long controls) {
+        return ~controls & HIGH_BITS;
+    }
+
+    private static int slotIn(int group, long match) {
+        return group * GROUP_SIZE + (Long.numberOfTrailingZeros(match) >>> 3);
+    }
+
+    private int controlAt(int slot) {
+        return (int) (controls[slot / GROUP_SIZE] >>> ((slot % GROUP_SIZE) * 8)) & 0xFF;
+    }
+
+    private void setControl(int slot, int control) {
+        int shift = (slot % GROUP_SIZE) * 8;
+        int group = slot / GROUP_SIZE;
+        controls[group] = controls[group] & ~(0xFFL << shift) | (long) control << shift;
+    }
+
+    private int findSlot(long key, long hash) {
+        long[] controls = this.controls;
+        long[] keys = this.keys;
+        int hashBits = (int) hash & HASH_BITS;
+        int group = (int) (hash >>> groupShift);
+        for (int step = 1; ; step++) {
+            long groupControls = controls[group];
+            for (long match = matchHash(groupControls, hashBits); match != 0; match &= match - 1) {
+                int slot = slotIn(group, match);
+                if(keys[slot] == key) return slot;
+            }
+            if(matchEmpty(groupControls) != 0) return -1;
+            group = (group + step) & groupMask;
+        }
+    }
+
+    private int findFreeSlot(long hash) {
+        int group = (int) (hash >>> groupShift);
+        for (int step = 1; ; step++) {
+            long match = matchFree(controls[group]);
+            if(match != 0) return slotIn(group, match);
+            group = (group + step) & groupMask;
+        }
+    }
+
+    @Override
+    public V put(long key, V value) {
+        long hash = hashStrategy.hash(key);
+        int slot = findSlot(key, hash);
+        if(slot >= 0){
+            V previousValue = (V) values[slot];
+            values[slot] = value;
+            return previousValue;
+        }
+        if(growthLeft == 0){
+            rehashForInsert();
+        }
+        slot = findFreeSlot(hash);
+        if(controlAt(slot) == EMPTY) growthLeft--;
+        setControl(slot, (int) hash & HASH_BITS);
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        return null;
+    }
+
+    /**
+     * Grows the table, or rehashes it in place when at least half of the used slots are
+     * tombstones, so that a remove-heavy workload does not keep doubling the capacity.
+     */
+    private void rehashForInsert() {
+        int capacity = keys.length;
+        if(size <= maximumLoad(capacity) / 2){
+            rehash(capacity);
+        } else if(capacity == MAXIMUM_CAPACITY){
+            throw new IllegalStateException("LongMap reached its maximum capacity");
+        } else {
+            rehash(capacity << 1);
+        }
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldControls = controls;
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(newCapacity);
+        for (int group = 0; group < oldControls.length; group++) {
+            for (long match = matchFull(oldControls[group]); match != 0; match &= match - 1) {
+                int oldSlot = slotIn(group, match);
+                long hash = hashStrategy.hash(oldKeys[oldSlot]);
+                int slot = findFreeSlot(hash);
+                setControl(slot, (int) hash & HASH_BITS);
+                keys[slot] = oldKeys[oldSlot];
+                values[slot] = oldValues[oldSlot];
+            }
+        }
+        growthLeft -= size;
+    }
+
+    @Override
+    public V get(long key) {
+        int slot = findSlot(key, hashStrategy.hash(key));
+        return slot < 0 ? null : (V) values[slot];
+    }
+
+    @Override
+    public V remove(long key) {
+        int slot = findSlot(key, hashStrategy.hash(key));
+        if(slot < 0) return null;
+        V previousValue = (V) values[slot];
+        removeAt(slot);
+        return previousValue;
+    }
+
+    private void removeAt(int slot) {
+        if(matchEmpty(controls[slot / GROUP_SIZE]) != 0){
+            setControl(slot, EMPTY);
+            growthLeft++;
+        } else {
+            setControl(slot, DELETED);
+        }
+        values[slot] = null;
+        size--;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(long key) {
+        return findSlot(key, hashStrategy.hash(key)) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(V value) {
+        for (int group = 0; group < controls.length; group++) {
+            for (long match = matchFull(controls[group]); match != 0; match &= match - 1) {
+                if(Objects.equals(values[slotIn(group, match)], value)) return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public long[] keys() {
+        long[] result = new long[arrayLength()];
+        int position = 0;
+        for (int group = 0; group < controls.length; group++) {
+            for (long match = matchFull(controls[group]); match != 0; match &= match - 1) {
+                result[position++] = keys[slotIn(group, match)];
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public V[] values() {
+        Object[] result = new Object[arrayLength()];
+        int position = 0;
+        for (int group = 0; group < controls.length; group++) {
+            for (long match = matchFull(controls[group]); match != 0; match &= match - 1) {
+                result[position++] = values[slotIn(group, match)];
+            }
+        }
+        return LongMapArrays.toTypedArray(result, position);
+    }
+
+    private int arrayLength() {
+        if(size > Integer.MAX_VALUE - 8){
+            throw new IllegalStateException("LongMap is too large to be copied into an array: " + size);
+        }
+        return (int) size;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        if(keys.length == DEFAULT_CAPACITY){
+            Arrays.fill(controls, EMPTY_GROUP);
+            Arrays.fill(values, null);
+            growthLeft = (int) maximumLoad(DEFAULT_CAPACITY);
+        } else {
+            allocate(DEFAULT_CAPACITY);
+        }
+        size = 0;
+    }
+
+    @Override
+    public void forEach(LongObjConsumer<? super V> action) {
+        Objects.requireNonNull(action);
+        for (int group = 0; group < controls.length; group++) {
+            for (long match = matchFull(controls[group]); match != 0; match &= match - 1) {
+                int slot = slotIn(group, match);
+                action.accept(keys[slot], (V) values[slot]);
+            }
+        }
+    }
+
+    @Override
+    public LongMapCursor<V> cursor() {
+        return new Cursor();
+    }
+
+    private class Cursor implements LongMapCursor<V> {
+        private int slot;
+        private int next;
+        private boolean positioned;
+
+        @Override
+        public void reset() {
+            next = 0;
+            positioned = false;
+        }
+
+        @Override
+        public boolean advance() {
+            positioned = false;
+            while (next < keys.length) {
+                slot = next++;
+                if(controlAt(slot) < EMPTY) return positioned = true;
+            }
+            return false;
+        }
+
+        private void checkPositioned() {
+            if(!positioned){
+                throw new IllegalStateException("Cursor is not positioned on an entry");
+            }
+        }
+
+        @Override
+        public long key() {
+            checkPositioned();
+            return keys[slot];
+        }
+
+        @Override
+        public V value() {
+            checkPositioned();
+            return (V) values[slot];
+        }
+
+        @Override
+        public void remove() {
+            checkPositioned();
+            positioned = false;
+            removeAt(slot);
+        }
+    }
+}
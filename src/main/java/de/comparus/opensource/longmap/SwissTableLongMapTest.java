@@ -0,0 +1,99 @@
+package de.comparus.opensource.longmap;
+
+import org.junit.jupiter.api.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@TestClassOrder(ClassOrderer.OrderAnnotation.class)
+@DisplayName("SwissTableLongMap Test")
+class SwissTableLongMapTest {
+
+    @Nested
+    @Order(1)
+    @DisplayName("1. SwissTableLongMap methods Test")
+    @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+    class SwissTableLongMapMethodsTest {
+
+        @Test
+        @Order(1)
+        @DisplayName("Group matching finds every equal, empty and free control byte")
+        void groupMatching() {
+            long controls = 0;
+            int[] bytes = {0x12, SwissTableLongMap.EMPTY, 0x13, SwissTableLongMap.DELETED, 0x12, 0x00, SwissTableLongMap.EMPTY, 0x7F};
+            for (int i = 0; i < bytes.length; i++) {
+                controls |= (long) bytes[i] << (i * 8);
+            }
+
+            assertThat(SwissTableLongMap.matchHash(controls, 0x12) & 0x80L).isNotZero();
+            assertThat(SwissTableLongMap.matchHash(controls, 0x12) & (0x80L << 32)).isNotZero();
+            assertThat(SwissTableLongMap.matchHash(controls, 0x7F)).isEqualTo(0x80L << 56);
+            assertThat(SwissTableLongMap.matchHash(controls, 0x55)).isZero();
+            assertThat(SwissTableLongMap.matchEmpty(controls)).isEqualTo(0x80L << 8 | 0x80L << 48);
+            assertThat(SwissTableLongMap.matchFree(controls)).isEqualTo(0x80L << 8 | 0x80L << 24 | 0x80L << 48);
+            assertThat(SwissTableLongMap.matchFull(controls)).isEqualTo(0x80L | 0x80L << 16 | 0x80L << 32 | 0x80L << 40 | 0x80L << 56);
+        }
+
+        @Test
+        @Order(2)
+        @DisplayName("Map stays consistent with a reference map under random operations with tombstones")
+        void randomOperationsMatchReferenceMap() {
+            SwissTableLongMap<String> longMap = new SwissTableLongMap<>(1);
+            Map<Long, String> reference = new HashMap<>();
+            Random random = new Random(25);
+            for (int i = 0; i < 200_000; i++) {
+                long key = random.nextInt(3_000) - 1_000;
+                if(random.nextInt(2) == 0){
+                    assertThat(longMap.remove(key)).isEqualTo(reference.remove(key));
+                } else {
+                    String value = "v" + i;
+                    assertThat(longMap.put(key, value)).isEqualTo(reference.put(key, value));
+                }
+            }
+
+            assertThat(longMap.size()).isEqualTo(reference.size());
+            for (long key = -1_000; key < 2_000; key++) {
+                assertThat(longMap.get(key)).isEqualTo(reference.get(key));
+                assertThat(longMap.containsKey(key)).isEqualTo(reference.containsKey(key));
+            }
+            assertThat(longMap.keys()).containsExactlyInAnyOrder(reference.keySet().stream().mapToLong(Long::longValue).toArray());
+            assertThat(longMap.values()).containsExactlyInAnyOrder(reference.values().toArray(new String[0]));
+        }
+
+        @Test
+        @Order(3)
+        @DisplayName("Cursor removes while iterating and clear empties the map")
+        void cursorAndClear() {
+            SwissTableLongMap<String> longMap = new SwissTableLongMap<>();
+            for (long key = 0; key < 1_000; key++) {
+                longMap.put(key, "v" + key);
+            }
+            longMap.put(5L, null);
+
+            LongMapCursor<String> cursor = longMap.cursor();
+            int visited = 0;
+            while (cursor.advance()) {
+                visited++;
+                if(cursor.key() % 2 == 0) cursor.remove();
+            }
+            assertThat(visited).isEqualTo(1_000);
+            assertThat(longMap.size()).isEqualTo(500);
+            assertThat(longMap.containsKey(0L)).isFalse();
+            assertThat(longMap.containsKey(5L)).isTrue();
+            assertThat(longMap.containsValue(null)).isTrue();
+            assertThat(longMap.get(7L)).isEqualTo("v7");
+            assertThatThrownBy(cursor::remove).isInstanceOf(IllegalStateException.class);
+
+            longMap.clear();
+            assertThat(longMap.isEmpty()).isTrue();
+            assertThat(longMap.get(7L)).isNull();
+            assertThat(longMap.put(7L, "again")).isNull();
+            assertThat(longMap.get(7L)).isEqualTo("again");
+            assertThatThrownBy(() -> new SwissTableLongMap<>(0)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
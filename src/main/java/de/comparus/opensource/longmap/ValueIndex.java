@@ -0,0 +1,151 @@
+package de.comparus.opensource.longmap;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Reverse index of a map: a chained hash table from each distinct value (compared with
+ * {@code equals}, {@code null} included) to the keys currently mapped to it. A primitive map from
+ * each key to its position in the key array of its value lets removal swap the last key into the
+ * freed position, so that maintenance stays constant time even for values shared by many keys.
+ */
+final class ValueIndex<V> {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final long[] NO_KEYS = new long[0];
+    private static final int NO_POSITION = -1;
+    private final LongIntMapImpl positions = new LongIntMapImpl(INITIAL_CAPACITY, NO_POSITION);
+    private Entry[] table = new Entry[INITIAL_CAPACITY];
+    private int distinctValues;
+
+    private static int hash(Object value) {
+        int hash = Objects.hashCode(value);
+        return hash ^ (hash >>> 16);
+    }
+
+    private Entry find(Object value) {
+        int hash = hash(value);
+        Entry entry = table[hash & (table.length - 1)];
+        while (entry != null && (entry.hash != hash || !Objects.equals(entry.value, value))) {
+            entry = entry.next;
+        }
+        return entry;
+    }
+
+    void add(long key, V value) {
+        Entry entry = find(value);
+        if(entry == null){
+            if(distinctValues >= table.length * LOAD_FACTOR){
+                resize();
+            }
+            int hash = hash(value);
+            int index = hash & (table.length - 1);
+            entry = new Entry(value, hash, table[index]);
+            table[index] = entry;
+            distinctValues++;
+        }
+        positions.put(key, entry.add(key));
+    }
+
+    void remove(long key, V value) {
+        int hash = hash(value);
+        int index = hash & (table.length - 1);
+        Entry previous = null;
+        Entry entry = table[index];
+        while (entry != null && (entry.hash != hash || !Objects.equals(entry.value, value))) {
+            previous = entry;
+            entry = entry.next;
+        }
+        if(entry == null || !removeKey(entry, key) || entry.count > 0) return;
+        if(previous == null){
+            table[index] = entry.next;
+        } else {
+            previous.next = entry.next;
+        }
+        distinctValues--;
+    }
+
+    private boolean removeKey(Entry entry, long key) {
+        int position = positions.get(key);
+        if(position == NO_POSITION || position >= entry.count || entry.keys[position] != key) return false;
+        positions.remove(key);
+        long movedKey = entry.keys[--entry.count];
+        if(position != entry.count){
+            entry.keys[position] = movedKey;
+            positions.put(movedKey, position);
+        }
+        return true;
+    }
+
+    void replace(long key, V oldValue, V newValue) {
+        if(Objects.equals(oldValue, newValue)) return;
+        remove(key, oldValue);
+        add(key, newValue);
+    }
+
+    boolean contains(Object value) {
+        return find(value) != null;
+    }
+
+    long[] keysFor(Object value) {
+        Entry entry = find(value);
+        return entry == null ? NO_KEYS : Arrays.copyOf(entry.keys, entry.count);
+    }
+
+    void clear() {
+        table = new Entry[INITIAL_CAPACITY];
+        positions.clear();
+        distinctValues = 0;
+    }
+
+    long estimatedFootprintBytes() {
+        long bytes = Footprint.objectBytes(2 * Footprint.REFERENCE_BYTES + Integer.BYTES)
+                + Footprint.referenceArrayBytes(table.length)
+                + Footprint.longArrayBytes(positions.capacity())
+                + Footprint.align(Footprint.ARRAY_HEADER_BYTES + (long) positions.capacity() * Integer.BYTES);
+        for (Entry head : table) {
+            for (Entry entry = head; entry != null; entry = entry.next) {
+                bytes += Entry.BYTES + Footprint.longArrayBytes(entry.keys.length);
+            }
+        }
+        return bytes;
+    }
+
+    private void resize() {
+        Entry[] newTable = new Entry[table.length << 1];
+        for (Entry head : table) {
+            Entry entry = head;
+            while (entry != null) {
+                Entry next = entry.next;
+                int index = entry.hash & (newTable.length - 1);
+                entry.next = newTable[index];
+                newTable[index] = entry;
+                entry = next;
+            }
+        }
+        table = newTable;
+    }
+
+    private static final class Entry {
+        static final long BYTES = Footprint.objectBytes(3 * Footprint.REFERENCE_BYTES + 2 * Integer.BYTES);
+        final Object value;
+        final int hash;
+        Entry next;
+        long[] keys = new long[1];
+        int count;
+
+        Entry(Object value, int hash, Entry next) {
+            this.value = value;
+            this.hash = hash;
+            this.next = next;
+        }
+
+        int add(long key) {
+            if(count == keys.length){
+                keys = Arrays.copyOf(keys, count << 1);
+            }
+            keys[count] = key;
+            return count++;
+        }
+    }
+}